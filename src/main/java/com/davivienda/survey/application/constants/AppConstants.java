@@ -1,5 +1,7 @@
 package com.davivienda.survey.application.constants;
 
+import java.util.Set;
+
 /**
  * Constantes de configuración de la aplicación
  */
@@ -8,6 +10,8 @@ public final class AppConstants {
     // Image configuration
     public static final long MAX_IMAGE_SIZE_BYTES = 2 * 1024 * 1024; // 2MB
     public static final String BASE64_IMAGE_PREFIX = "data:image";
+    // Tipos que se guardan en el almacén de imágenes; el resto sigue en línea en la pregunta
+    public static final Set<String> STORED_IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
     
     // Survey configuration
     public static final int MAX_QUESTIONS_PER_SURVEY = 100;
@@ -19,6 +23,10 @@ public final class AppConstants {
     public static final String DURATION_UNIT_HOURS = "hours";
     public static final String DURATION_UNIT_DAYS = "days";
     
+    // Listing views
+    public static final String LISTING_VIEW_SUMMARY = "summary";
+    public static final String LISTING_VIEW_FULL = "full";
+    
     private AppConstants() {
         throw new UnsupportedOperationException("This is a constants class and cannot be instantiated");
     }
@@ -10,16 +10,36 @@ public final class ErrorMessages {
     public static final String SURVEY_NOT_PUBLISHED = "Survey is not published";
     public static final String SURVEY_EXPIRED = "Esta encuesta ha expirado y ya no acepta respuestas";
     public static final String SURVEY_NO_QUESTIONS = "Cannot publish survey without questions";
+    public static final String SURVEY_QUOTA_REACHED = "Esta encuesta alcanzó el máximo de respuestas permitidas";
+    public static final String SURVEY_VERSION_MISMATCH = "Precondition failed: la encuesta cambió, la versión actual es %d";
+    public static final String IF_MATCH_WEAK_ETAG = "Precondition failed: If-Match usa comparación fuerte y un ETag débil (W/) nunca coincide";
+    public static final String SURVEY_WRITE_CONFLICT = "Write conflict: la encuesta se modificó al mismo tiempo, intente nuevamente";
     public static final String SURVEY_MAX_QUESTIONS_EXCEEDED = "No se pueden agregar más de %d preguntas a una encuesta";
+    public static final String BATCH_GET_TOO_LARGE = "No se pueden pedir más de %d encuestas a la vez";
+    public static final String PATCH_NOT_OBJECT = "El documento merge-patch debe ser un objeto JSON";
+    public static final String PATCH_FIELD_NOT_ALLOWED = "Campo no permitido en el patch: %s";
+    public static final String PATCH_INVALID_VALUE = "Valor inválido para %s";
+    public static final String SYNC_TOKEN_INVALID = "Token de sincronización inválido";
+    
+    // Question errors
+    public static final String QUESTION_NOT_FOUND = "Question not found";
+    public static final String QUESTION_DUPLICATED = "La pregunta aparece más de una vez en la lista";
+    public static final String QUESTIONS_REQUIRED = "Debe enviar la lista de preguntas";
     
     // Authorization errors
     public static final String UNAUTHORIZED = "Unauthorized";
     
     // Image errors
     public static final String IMAGE_SIZE_EXCEEDED = "La imagen excede el tamaño máximo de 2MB";
+    public static final String IMAGE_INVALID = "La imagen no es un data-URI en base64 válido";
+    public static final String IMAGE_TYPE_NOT_SUPPORTED = "Tipo de imagen no soportado: se aceptan PNG, JPEG, GIF y WebP";
+    public static final String IMAGE_NOT_FOUND = "Image not found";
     
     // Response errors
     public static final String RESPONSE_NOT_FOUND = "Response not found";
+    public static final String BATCH_EMPTY = "El lote debe contener al menos una respuesta";
+    public static final String BATCH_TOO_LARGE = "El lote excede el máximo de %d respuestas";
+    public static final String BATCH_ITEM_EMPTY = "La respuesta está vacía";
     
     private ErrorMessages() {
         throw new UnsupportedOperationException("This is a constants class and cannot be instantiated");
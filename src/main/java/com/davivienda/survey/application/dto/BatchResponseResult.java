@@ -0,0 +1,27 @@
+package com.davivienda.survey.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de cada respuesta de un envío por lotes, en el mismo orden del lote.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseResult {
+    private int index;
+    private String id;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED,
+        // Ya se había recibido una respuesta con el mismo ID (reintento del cliente)
+        DUPLICATE,
+        REJECTED
+    }
+}
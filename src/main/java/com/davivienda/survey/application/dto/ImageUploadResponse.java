@@ -0,0 +1,16 @@
+package com.davivienda.survey.application.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Imagen subida; {@code imageUrl} es el valor que se asigna a {@code Question.imageUrl}.
+ */
+@Data
+@Builder
+public class ImageUploadResponse {
+    private String imageUrl;
+    private String hash;
+    private String mediaType;
+    private long size;
+}
@@ -0,0 +1,13 @@
+package com.davivienda.survey.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SurveyBatchGetRequest {
+    
+    @NotEmpty(message = "Debe indicar al menos un ID de encuesta")
+    private List<String> ids;
+}
@@ -0,0 +1,17 @@
+package com.davivienda.survey.application.dto;
+
+import com.davivienda.survey.domain.model.Survey;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Encuestas encontradas en el orden pedido e IDs que no existen.
+ */
+@Data
+@Builder
+public class SurveyBatchResult {
+    private List<Survey> surveys;
+    private List<String> missing;
+}
@@ -0,0 +1,25 @@
+package com.davivienda.survey.application.dto;
+
+import com.davivienda.survey.domain.model.SurveySummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página del feed de cambios de encuestas.
+ *
+ * <p>{@code changed} trae los resúmenes que el cliente debe guardar y {@code removed} los IDs
+ * que debe borrar (eliminadas, despublicadas o cerradas). Con {@code fullResync} el cliente
+ * descarta su copia local antes de aplicar la página. Si {@code hasMore} es verdadero se
+ * pide la siguiente página con el {@code token} devuelto.</p>
+ */
+@Data
+@Builder
+public class SurveyChanges {
+    private String token;
+    private List<SurveySummary> changed;
+    private List<String> removed;
+    private boolean fullResync;
+    private boolean hasMore;
+}
@@ -1,6 +1,7 @@
 package com.davivienda.survey.application.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -16,4 +17,7 @@ public class SurveyRequest {
     
     private String durationUnit;
     private LocalDateTime expiresAt;
+    
+    @Positive(message = "El máximo de respuestas debe ser mayor a cero")
+    private Integer maxResponses;
 }
@@ -3,6 +3,7 @@ package com.davivienda.survey.application.dto;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
 import java.util.List;
@@ -10,6 +11,10 @@ import java.util.List;
 @Data
 public class SurveyResponseRequest {
     
+    // ID generado por el cliente (envío por lotes): reenviar el mismo lote no duplica respuestas
+    @Pattern(regexp = "^[A-Za-z0-9_-]{1,64}$", message = "El ID debe tener hasta 64 letras, números, '-' o '_'")
+    private String id;
+    
     @NotBlank(message = "El correo electrónico es requerido")
     @Email(message = "Debe ser un correo electrónico válido")
     private String respondentEmail;
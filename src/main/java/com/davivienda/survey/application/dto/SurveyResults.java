@@ -0,0 +1,34 @@
+package com.davivienda.survey.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultados agregados de una encuesta enviados por el stream de resultados.
+ * En el evento {@code snapshot} los conteos son totales; en {@code delta} son incrementos
+ * desde el evento anterior. {@code responseCount} siempre es el total.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveyResults {
+    private String surveyId;
+    private long responseCount;
+    private long newResponses;
+    private Map<String, QuestionResults> questions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionResults {
+        private long answered;
+        // Conteo por opción; vacío en preguntas de texto libre
+        private Map<String, Long> options;
+    }
+}
@@ -5,10 +5,12 @@ import com.davivienda.survey.application.dto.RegisterRequest;
 import com.davivienda.survey.application.dto.AuthResponse;
 import com.davivienda.survey.domain.model.User;
 import com.davivienda.survey.domain.port.UserRepository;
+import com.davivienda.survey.infrastructure.security.JwtPrincipal;
 import com.davivienda.survey.infrastructure.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -40,7 +42,7 @@ public class AuthService {
         
         userRepository.save(user);
         
-        String token = jwtService.generateToken(user.getEmail());
+        String token = jwtService.generateToken(user);
         
         return AuthResponse.builder()
                 .token(token)
@@ -61,7 +63,7 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
-        String token = jwtService.generateToken(user.getEmail());
+        String token = jwtService.generateToken(user);
         
         return AuthResponse.builder()
                 .token(token)
@@ -75,4 +77,15 @@ public class AuthService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     }
+    
+    /**
+     * Id del usuario autenticado. Se toma de los claims del token; solo los tokens
+     * emitidos sin el id (versiones anteriores) requieren consultar la base de datos.
+     */
+    public String getCurrentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.userId();
+        }
+        return getCurrentUser(authentication.getName()).getId();
+    }
 }
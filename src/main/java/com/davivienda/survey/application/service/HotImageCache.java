@@ -0,0 +1,100 @@
+package com.davivienda.survey.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Imágenes pequeñas pedidas con frecuencia, en memoria.
+ *
+ * <p>Las imágenes grandes se envían directo desde el archivo sin copiarlas; en las pequeñas
+ * (las versiones reducidas, sobre todo) pesa más abrir el archivo en cada petición que copiar
+ * los bytes, y son las que se guardan aquí. El contenido de un hash nunca cambia, así que una
+ * entrada no se invalida: solo sale cuando falta espacio, empezando por la usada hace más
+ * tiempo. Para que una imagen vista una sola vez no desplace a las frecuentes, entra recién
+ * en su {@code min-requests}-ésima petición; las peticiones se cuentan en una tabla acotada
+ * de candidatas.</p>
+ */
+@Component
+public class HotImageCache {
+
+    private static final int MAX_CANDIDATES = 4096;
+
+    private final long maxBytes;
+    private final long maxObjectBytes;
+    private final int minRequests;
+    private final LinkedHashMap<String, byte[]> images = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Integer> candidates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_CANDIDATES;
+        }
+    };
+    private long bytes;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public HotImageCache(
+            @Value("${survey.images.hot-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${survey.images.hot-cache.max-object-bytes:131072}") long maxObjectBytes,
+            @Value("${survey.images.hot-cache.min-requests:2}") int minRequests,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = Math.min(maxObjectBytes, maxBytes);
+        this.minRequests = Math.max(1, minRequests);
+        this.hitCounter = meterRegistry.counter("survey.images.hot-cache.hits");
+        this.missCounter = meterRegistry.counter("survey.images.hot-cache.misses");
+        meterRegistry.gauge("survey.images.hot-cache.bytes", this, HotImageCache::bytes);
+    }
+
+    /**
+     * Bytes de la imagen si están en memoria. Los arreglos son compartidos: no se modifican.
+     */
+    public byte[] get(String hash) {
+        if (maxBytes <= 0) {
+            return null;
+        }
+        byte[] data;
+        synchronized (this) {
+            data = images.get(hash);
+        }
+        (data != null ? hitCounter : missCounter).increment();
+        return data;
+    }
+
+    /**
+     * Cuenta una petición de una imagen que no estaba en memoria e indica si ya se pidió las
+     * veces suficientes para guardarla.
+     */
+    public synchronized boolean admit(String hash, long size) {
+        if (size > maxObjectBytes) {
+            return false;
+        }
+        int requests = candidates.merge(hash, 1, Integer::sum);
+        return requests >= minRequests;
+    }
+
+    public synchronized void put(String hash, byte[] data) {
+        if (data.length > maxObjectBytes) {
+            return;
+        }
+        candidates.remove(hash);
+        byte[] previous = images.put(hash, data);
+        bytes += data.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = images.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+}
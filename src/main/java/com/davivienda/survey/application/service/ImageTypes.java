@@ -0,0 +1,49 @@
+package com.davivienda.survey.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Tipo de una imagen según sus primeros bytes (firma del formato), sin confiar en el tipo
+ * que declara el cliente.
+ */
+final class ImageTypes {
+
+    /**
+     * Bytes necesarios para reconocer cualquiera de los formatos.
+     */
+    static final int HEADER_LENGTH = 12;
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] GIF87 = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89 = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private ImageTypes() {
+    }
+
+    static Optional<String> sniff(byte[] header, int length) {
+        if (startsWith(header, length, 0, PNG)) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(header, length, 0, JPEG)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(header, length, 0, GIF87) || startsWith(header, length, 0, GIF89)) {
+            return Optional.of("image/gif");
+        }
+        // RIFF <tamaño de 4 bytes> WEBP
+        if (startsWith(header, length, 0, RIFF) && startsWith(header, length, 8, WEBP)) {
+            return Optional.of("image/webp");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] data, int length, int offset, byte[] signature) {
+        return length >= offset + signature.length
+                && Arrays.equals(data, offset, offset + signature.length, signature, 0, signature.length);
+    }
+}
@@ -0,0 +1,325 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.StoredImage;
+import com.davivienda.survey.domain.port.ImageStore;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versiones reducidas de las imágenes de las preguntas, para que un teléfono no descargue la
+ * imagen completa.
+ *
+ * <p>Cuando se guarda una imagen se encola su procesamiento en el bulkhead {@code IMAGES}: se
+ * decodifica una sola vez y se escala de mayor a menor ancho ({@code survey.images.variant-widths}),
+ * cada versión a partir de la anterior y reduciendo a lo sumo a la mitad por paso. Se codifica
+ * en JPEG, o en PNG si la imagen tiene transparencia; una versión que no pesa menos que la
+ * original se descarta. Solo se reducen PNG y JPEG (las GIF pueden ser animadas) y las imágenes
+ * de más de {@code survey.images.variant-max-pixels} no se decodifican.</p>
+ *
+ * <p>Las URL de las versiones son {@code <referencia>?w=<ancho>}. La encuesta pública anuncia
+ * solo las que existen, así que cambia cuando terminan de generarse; una URL pedida antes de
+ * tiempo sirve la original.</p>
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    private static final Set<String> SOURCE_TYPES = Set.of("image/png", "image/jpeg");
+    private static final int MAX_RESOLVED = 4096;
+
+    private final ImageStore imageStore;
+    private final BulkheadRegistry bulkheads;
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Resolved> resolved = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Resolved> eldest) {
+                    return size() > MAX_RESOLVED;
+                }
+            });
+    private final Counter generatedCounter;
+    private final Counter rejectedCounter;
+
+    public ImageVariantService(
+            ImageStore imageStore,
+            BulkheadRegistry bulkheads,
+            MeterRegistry meterRegistry,
+            @Value("${survey.images.variant-widths:320,640,1024}") int[] widths,
+            @Value("${survey.images.variant-jpeg-quality:0.8}") float jpegQuality,
+            @Value("${survey.images.variant-max-pixels:40000000}") long maxPixels
+    ) {
+        this.imageStore = imageStore;
+        this.bulkheads = bulkheads;
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).distinct().sorted().boxed().toList();
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.generatedCounter = meterRegistry.counter("survey.images.variants.generated");
+        this.rejectedCounter = meterRegistry.counter("survey.images.variants.rejected");
+    }
+
+    /**
+     * Anchos configurados, de menor a mayor.
+     */
+    public List<Integer> widths() {
+        return widths;
+    }
+
+    /**
+     * Encola la generación de las versiones si todavía no existen. Si el pool está lleno se
+     * omite: se vuelve a pedir al servir la imagen o en el mantenimiento.
+     */
+    public void generateAsync(String hash) {
+        if (!inFlight.add(hash)) {
+            return;
+        }
+        try {
+            bulkheads.submit(BulkheadType.IMAGES, () -> generate(hash))
+                    .whenComplete((variants, error) -> {
+                        inFlight.remove(hash);
+                        if (error != null) {
+                            log.warn("No se pudieron generar las versiones de la imagen {}: {}", hash, error.getMessage());
+                        }
+                    });
+        } catch (BulkheadFullException e) {
+            inFlight.remove(hash);
+            rejectedCounter.increment();
+        }
+    }
+
+    /**
+     * Versiones generadas de la imagen; si todavía no existen se encola su generación.
+     */
+    public Optional<ImageVariants> variants(String hash) {
+        Optional<ImageVariants> variants = imageStore.findVariants(hash);
+        if (variants.isEmpty()) {
+            generateAsync(hash);
+        }
+        return variants;
+    }
+
+    /**
+     * Imagen que corresponde servir para el ancho pedido: la versión más angosta que lo cubre
+     * o la original. {@code immutable} es falso mientras las versiones no se han generado.
+     *
+     * <p>Los datos de una imagen y de sus versiones no cambian una vez guardados, así que se
+     * recuerdan y una imagen pedida con frecuencia se resuelve sin tocar el almacén.</p>
+     */
+    public Optional<Selection> select(String hash, Integer width) {
+        Resolved entry = resolved.get(hash);
+        if (entry == null) {
+            Optional<StoredImage> original = imageStore.find(hash);
+            if (original.isEmpty()) {
+                return Optional.empty();
+            }
+            entry = new Resolved(original.get(), null);
+            resolved.put(hash, entry);
+        }
+        if (width == null) {
+            return Optional.of(new Selection(entry.original(), true));
+        }
+
+        if (entry.variants() == null) {
+            Optional<ImageVariants> variants = imageStore.findVariants(hash);
+            if (variants.isEmpty()) {
+                generateAsync(hash);
+                return Optional.of(new Selection(entry.original(), false));
+            }
+            entry = new Resolved(entry.original(), stored(variants.get()));
+            resolved.put(hash, entry);
+        }
+        for (Resolved.Variant variant : entry.variants()) {
+            if (variant.width() >= width) {
+                return Optional.of(new Selection(variant.image(), true));
+            }
+        }
+        return Optional.of(new Selection(entry.original(), true));
+    }
+
+    /**
+     * Olvida lo que se recordaba de la imagen, por ejemplo porque se eliminó del almacén.
+     */
+    public void forget(String hash) {
+        resolved.remove(hash);
+    }
+
+    private List<Resolved.Variant> stored(ImageVariants variants) {
+        List<Resolved.Variant> stored = new ArrayList<>();
+        for (ImageVariants.Variant variant : variants.getVariants()) {
+            imageStore.find(variant.getHash())
+                    .ifPresent(image -> stored.add(new Resolved.Variant(variant.getWidth(), image)));
+        }
+        return List.copyOf(stored);
+    }
+
+    ImageVariants generate(String hash) {
+        Optional<ImageVariants> existing = imageStore.findVariants(hash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Optional<StoredImage> image = imageStore.find(hash);
+        Optional<byte[]> data = imageStore.read(hash);
+        if (image.isEmpty() || data.isEmpty()) {
+            return null;
+        }
+
+        ImageVariants variants = new ImageVariants();
+        if (SOURCE_TYPES.contains(image.get().getMediaType())) {
+            try {
+                variants = reduce(data.get());
+            } catch (IOException | RuntimeException e) {
+                // Imagen que ImageIO no puede procesar: se sirve siempre la original
+                log.warn("Imagen {} sin versiones reducidas: {}", hash, e.getMessage());
+                variants = new ImageVariants();
+            }
+        }
+        imageStore.saveVariants(hash, variants);
+        generatedCounter.increment(variants.getVariants().size());
+        return variants;
+    }
+
+    private ImageVariants reduce(byte[] data) throws IOException {
+        BufferedImage source = decode(data);
+        if (source == null) {
+            return new ImageVariants();
+        }
+        ImageVariants result = ImageVariants.builder()
+                .width(source.getWidth())
+                .height(source.getHeight())
+                .build();
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        BufferedImage current = source;
+        for (int i = widths.size() - 1; i >= 0; i--) {
+            int width = widths.get(i);
+            if (width >= source.getWidth()) {
+                continue;
+            }
+            current = scale(current, width, alpha);
+            byte[] encoded = encode(current, alpha);
+            if (encoded.length >= data.length) {
+                continue;
+            }
+            String hash = imageStore.save(alpha ? "image/png" : "image/jpeg", encoded).getHash();
+            result.getVariants().add(0, new ImageVariants.Variant(width, hash));
+        }
+        return result;
+    }
+
+    private BufferedImage decode(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Las dimensiones salen del encabezado: se comprueban antes de reservar los píxeles
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Imagen de {} píxeles, no se generan versiones reducidas", pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        do {
+            // Reducir más de la mitad de una vez con interpolación bilineal pierde detalle
+            int nextWidth = Math.max(width, current.getWidth() / 2);
+            int nextHeight = nextWidth == width ? height : Math.max(height, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, nextWidth, nextHeight);
+                }
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > width);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean alpha) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (alpha) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Imagen elegida para servir; si no es inmutable no debe guardarse en caché por mucho tiempo.
+     */
+    public record Selection(StoredImage image, boolean immutable) {
+    }
+
+    /**
+     * Datos de una imagen y de sus versiones guardadas, de menor a mayor ancho; sin versiones
+     * ({@code null}) mientras no se han generado.
+     */
+    private record Resolved(StoredImage original, List<Variant> variants) {
+
+        private record Variant(int width, StoredImage image) {
+        }
+    }
+}
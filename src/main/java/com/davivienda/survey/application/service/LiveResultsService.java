@@ -0,0 +1,415 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.SurveyResults;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseFeed;
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream (SSE) de resultados en vivo para el creador de una encuesta.
+ *
+ * <p>Por encuesta hay un único canal con una sola suscripción a {@link ResponseFeed},
+ * compartida por todas las conexiones abiertas. Cada conexión recibe primero un
+ * {@code snapshot} con los totales y después eventos {@code delta} con los incrementos,
+ * agrupados cada {@code flush-interval-ms}; se envía un heartbeat periódico para que
+ * proxies y clientes no cierren la conexión.</p>
+ *
+ * <p>Los envíos se hacen en hilos virtuales, uno activo por conexión. Si una conexión
+ * sigue ocupada cuando llega un nuevo incremento, este se suma al pendiente en lugar de
+ * encolarse, así que la memoria por conexión lenta está acotada; si un envío queda
+ * bloqueado más de {@code stall-timeout-ms} la conexión se cierra y el cliente reconecta
+ * con un snapshot nuevo. El número de conexiones por instancia está limitado.</p>
+ */
+@Service
+@Slf4j
+public class LiveResultsService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+
+    private final ResponseFeed responseFeed;
+    private final SurveyService surveyService;
+    private final int maxConnections;
+    private final long timeoutMs;
+    private final long heartbeatIntervalMs;
+    private final long stallTimeoutMs;
+    private final Map<String, ResultsChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService sender;
+    private final Counter droppedCounter;
+
+    public LiveResultsService(
+            ResponseFeed responseFeed,
+            SurveyService surveyService,
+            MeterRegistry meterRegistry,
+            @Value("${survey.results-stream.max-connections:500}") int maxConnections,
+            @Value("${survey.results-stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${survey.results-stream.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${survey.results-stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+            @Value("${survey.results-stream.stall-timeout-ms:30000}") long stallTimeoutMs
+    ) {
+        this.responseFeed = responseFeed;
+        this.surveyService = surveyService;
+        this.maxConnections = maxConnections;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "results-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("results-stream-", 0).factory());
+        this.droppedCounter = meterRegistry.counter("survey.results.stream.dropped");
+        meterRegistry.gauge("survey.results.stream.connections", connections);
+    }
+
+    /**
+     * Abre un stream de resultados. Solo el creador de la encuesta puede suscribirse.
+     *
+     * @throws BulkheadFullException si la instancia ya tiene el máximo de conexiones
+     */
+    public SseEmitter subscribe(String surveyId, String userId) {
+        Survey survey = surveyService.getSurvey(surveyId);
+        if (!survey.getCreatedBy().equals(userId)) {
+            throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
+        }
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new BulkheadFullException("results-stream");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> leave(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> leave(subscriber));
+        try {
+            join(survey, subscriber);
+        } catch (RuntimeException e) {
+            leave(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    int activeConnections() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        channels.values().forEach(channel -> {
+            List<Subscriber> subscribers;
+            synchronized (channel) {
+                subscribers = new ArrayList<>(channel.subscribers);
+                channel.close();
+            }
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        });
+        sender.shutdown();
+    }
+
+    private void join(Survey survey, Subscriber subscriber) {
+        while (true) {
+            ResultsChannel channel = channels.computeIfAbsent(survey.getId(), id -> openChannel(survey));
+            synchronized (channel) {
+                if (channel.closed) {
+                    continue;
+                }
+                // Los incrementos pendientes ya están en los totales: se reparten antes de
+                // tomar el snapshot para que el nuevo suscriptor no los cuente dos veces
+                channel.flush();
+                channel.subscribers.add(subscriber);
+                subscriber.channel = channel;
+                if (channel.ready) {
+                    subscriber.offerSnapshot(channel.snapshot());
+                }
+                return;
+            }
+        }
+    }
+
+    private ResultsChannel openChannel(Survey survey) {
+        Map<String, QuestionType> questionTypes = new HashMap<>();
+        if (survey.getQuestions() != null) {
+            for (Question question : survey.getQuestions()) {
+                questionTypes.put(question.getId(), question.getType());
+            }
+        }
+        ResultsChannel channel = new ResultsChannel(survey.getId(), questionTypes);
+        channel.subscription = responseFeed.subscribe(survey.getId(), channel);
+        log.debug("Stream de resultados abierto para encuesta {}", survey.getId());
+        return channel;
+    }
+
+    private void leave(Subscriber subscriber) {
+        if (!subscriber.left.compareAndSet(false, true)) {
+            return;
+        }
+        connections.decrementAndGet();
+        subscriber.stop();
+
+        ResultsChannel channel = subscriber.channel;
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            channel.subscribers.remove(subscriber);
+            if (channel.subscribers.isEmpty()) {
+                channel.close();
+            }
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (ResultsChannel channel : channels.values()) {
+            try {
+                synchronized (channel) {
+                    channel.flush();
+                    if (now - channel.lastHeartbeat >= heartbeatIntervalMs) {
+                        channel.lastHeartbeat = now;
+                        channel.subscribers.forEach(Subscriber::offerHeartbeat);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Error enviando resultados de la encuesta {}", channel.surveyId, e);
+            }
+        }
+    }
+
+    private final class ResultsChannel implements ResponseFeed.Listener {
+
+        private final String surveyId;
+        private final Map<String, QuestionType> questionTypes;
+        // Se puede salir de la lista mientras se recorre (una conexión que se cierra al
+        // recibir un envío); las altas y bajas son raras frente a los recorridos
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ResultsTally totals;
+        private ResultsTally pending;
+        private ResponseFeed.Subscription subscription;
+        private boolean ready;
+        private boolean closed;
+        private long lastHeartbeat = System.currentTimeMillis();
+
+        private ResultsChannel(String surveyId, Map<String, QuestionType> questionTypes) {
+            this.surveyId = surveyId;
+            this.questionTypes = questionTypes;
+            this.totals = new ResultsTally(questionTypes);
+            this.pending = new ResultsTally(questionTypes);
+        }
+
+        @Override
+        public synchronized void onResponse(SurveyResponse response) {
+            if (closed) {
+                return;
+            }
+            totals.add(response);
+            if (ready) {
+                pending.add(response);
+            }
+        }
+
+        @Override
+        public synchronized void onInitialLoadComplete() {
+            if (closed || ready) {
+                return;
+            }
+            ready = true;
+            SurveyResults snapshot = snapshot();
+            subscribers.forEach(subscriber -> subscriber.offerSnapshot(snapshot));
+        }
+
+        @Override
+        public void onError(Exception error) {
+            log.warn("Se perdió la suscripción a respuestas de la encuesta {}", surveyId, error);
+            List<Subscriber> dropped;
+            synchronized (this) {
+                dropped = new ArrayList<>(subscribers);
+                close();
+            }
+            dropped.forEach(subscriber -> subscriber.emitter.completeWithError(error));
+        }
+
+        private SurveyResults snapshot() {
+            return totals.toResults(surveyId, totals.responses());
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ResultsTally delta = pending;
+            pending = new ResultsTally(questionTypes);
+            subscribers.forEach(subscriber -> subscriber.offerDelta(delta, totals.responses()));
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            channels.remove(surveyId, this);
+            if (subscription != null) {
+                subscription.close();
+            }
+            log.debug("Stream de resultados cerrado para encuesta {}", surveyId);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean left = new AtomicBoolean();
+        private volatile ResultsChannel channel;
+        private SurveyResults snapshot;
+        private ResultsTally delta;
+        private long responseCount;
+        private boolean heartbeat;
+        private boolean sending;
+        private long sendingSince;
+        private boolean stopped;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offerSnapshot(SurveyResults results) {
+            synchronized (this) {
+                snapshot = results;
+                delta = null;
+            }
+            schedule();
+        }
+
+        private void offerDelta(ResultsTally increment, long total) {
+            synchronized (this) {
+                if (delta == null) {
+                    delta = increment.copy();
+                } else {
+                    delta.addAll(increment);
+                }
+                responseCount = total;
+            }
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            synchronized (this) {
+                heartbeat = true;
+            }
+            schedule();
+        }
+
+        private void stop() {
+            synchronized (this) {
+                stopped = true;
+                snapshot = null;
+                delta = null;
+            }
+        }
+
+        private void schedule() {
+            boolean stalled;
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                stalled = sending && System.currentTimeMillis() - sendingSince > stallTimeoutMs;
+                if (!stalled) {
+                    if (sending) {
+                        return;
+                    }
+                    sending = true;
+                    sendingSince = System.currentTimeMillis();
+                }
+            }
+
+            if (stalled) {
+                droppedCounter.increment();
+                log.info("Cerrando stream de resultados lento de la encuesta {}", channel.surveyId);
+                leave(this);
+                emitter.complete();
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // El servicio se está cerrando: la conexión libera su cupo y termina
+                leave(this);
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = stopped ? null : nextEvent();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                    sendingSince = System.currentTimeMillis();
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    stop();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        // Llamado con el lock tomado; el snapshot siempre sale antes que los incrementos
+        private SseEmitter.SseEventBuilder nextEvent() {
+            if (snapshot != null) {
+                SurveyResults results = snapshot;
+                snapshot = null;
+                return SseEmitter.event().name(SNAPSHOT_EVENT).data(results);
+            }
+            if (delta != null) {
+                SurveyResults results = delta.toResults(channel.surveyId, responseCount);
+                delta = null;
+                return SseEmitter.event().name(DELTA_EVENT).data(results);
+            }
+            if (heartbeat) {
+                heartbeat = false;
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versiones conocidas de las encuestas públicas y del listado de publicadas.
+ *
+ * <p>La versión (ETag) de una encuesta se deriva de su {@code updatedAt} ({@link #etagOf}); la del listado
+ * combina las versiones de todas las encuestas que lo componen, por vista. Con la versión en memoria,
+ * una petición condicional ({@code If-None-Match}) se responde con 304 sin leer la
+ * encuesta de Firebase. Las escrituras de esta instancia invalidan la entrada al momento;
+ * las de otras instancias se ven al vencer el TTL.</p>
+ *
+ * <p>También guarda el JSON ya serializado de cada encuesta pública, asociado a su ETag,
+ * para que las lecturas repetidas sean una copia de memoria en lugar de volver a
+ * serializar (con Jackson) imágenes en base64 de varios MB, junto con su variante gzip
+ * comprimida una sola vez. Esta caché está acotada por bytes y descarta primero lo usado
+ * hace más tiempo.</p>
+ */
+@Component
+public class PublicSurveyCache {
+
+    private final long ttlMs;
+    private final long maxSerializedBytes;
+    private final Map<String, Version> surveys = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, SerializedSurvey> serialized = new LinkedHashMap<>(16, 0.75f, true);
+    private long serializedBytes;
+    private final Map<String, Version> publishedListings = new ConcurrentHashMap<>();
+
+    public PublicSurveyCache(
+            @Value("${survey.public-cache.version-ttl-ms:60000}") long ttlMs,
+            @Value("${survey.public-cache.max-bytes:67108864}") long maxSerializedBytes
+    ) {
+        this.ttlMs = ttlMs;
+        this.maxSerializedBytes = maxSerializedBytes;
+    }
+
+    /**
+     * ETag de la encuesta pública si se conoce en memoria y sigue vigente.
+     */
+    public String surveyETag(String surveyId) {
+        Version version = surveys.get(surveyId);
+        if (version == null || !version.isFresh()) {
+            return null;
+        }
+        if (version.expiresAt() != null && LocalDateTime.now().isAfter(version.expiresAt())) {
+            surveys.remove(surveyId, version);
+            return null;
+        }
+        return version.etag();
+    }
+
+    /**
+     * Registra la versión de una encuesta pública recién leída y devuelve su ETag.
+     */
+    public String rememberSurvey(Survey survey) {
+        String etag = etagOf(survey);
+        surveys.put(survey.getId(), new Version(etag, survey.getExpiresAt(), System.currentTimeMillis() + ttlMs));
+        return etag;
+    }
+
+    /**
+     * ETag del listado de publicadas en la vista indicada (resumen o completa).
+     */
+    public String publishedListingETag(String view) {
+        Version version = publishedListings.get(view);
+        return version != null && version.isFresh() ? version.etag() : null;
+    }
+
+    public void rememberPublishedListing(String view, String etag) {
+        publishedListings.put(view, new Version(etag, null, System.currentTimeMillis() + ttlMs));
+    }
+
+    /**
+     * Olvida la versión del listado de publicadas: su ETag incluye el conteo de respuestas,
+     * que cambia con cada envío. En modo WAL el conteo sube recién cuando la respuesta llega
+     * a Firebase; una lectura en ese intervalo queda en memoria hasta que vence el TTL, igual
+     * que las escrituras de otras instancias.
+     */
+    public void invalidatePublishedListings() {
+        publishedListings.clear();
+    }
+
+    /**
+     * JSON serializado de la encuesta en la versión indicada, o null si no está en caché.
+     */
+    public SerializedSurvey serializedSurvey(String surveyId, String etag) {
+        synchronized (serialized) {
+            SerializedSurvey entry = serialized.get(surveyId);
+            return entry != null && entry.etag().equals(etag) ? entry : null;
+        }
+    }
+
+    public void rememberSerializedSurvey(String surveyId, SerializedSurvey entry) {
+        if (entry.size() > maxSerializedBytes) {
+            return;
+        }
+        synchronized (serialized) {
+            removeSerialized(surveyId);
+            serialized.put(surveyId, entry);
+            serializedBytes += entry.size();
+
+            Iterator<Map.Entry<String, SerializedSurvey>> eldest = serialized.entrySet().iterator();
+            while (serializedBytes > maxSerializedBytes && eldest.hasNext()) {
+                serializedBytes -= eldest.next().getValue().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Olvida la versión y el JSON de la encuesta (y la versión del listado) tras una escritura.
+     */
+    public void invalidate(String surveyId) {
+        surveys.remove(surveyId);
+        publishedListings.clear();
+        synchronized (serialized) {
+            removeSerialized(surveyId);
+        }
+    }
+
+    private void removeSerialized(String surveyId) {
+        SerializedSurvey previous = serialized.remove(surveyId);
+        if (previous != null) {
+            serializedBytes -= previous.size();
+        }
+    }
+
+    /**
+     * ETag de la encuesta: su {@code updatedAt} y, en la vista pública, cuántas candidatas
+     * {@code srcset} lleva, que aumentan sin cambiar la encuesta al generarse las versiones
+     * reducidas de sus imágenes.
+     */
+    public static String etagOf(Survey survey) {
+        if (survey.getUpdatedAt() != null) {
+            int sources = srcsetSize(survey);
+            return "\"" + Long.toString(toEpochMicros(survey.getUpdatedAt()), 36)
+                    + (sources > 0 ? "." + Integer.toString(sources, 36) : "") + "\"";
+        }
+        return "\"h" + Integer.toHexString(survey.hashCode()) + "\"";
+    }
+
+    public static String etagOfSurveys(List<Survey> surveys) {
+        MessageDigest sha256 = sha256();
+        for (Survey survey : surveys) {
+            update(sha256, survey.getId(), etagOf(survey));
+        }
+        return "\"l" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * ETag de un listado de resúmenes; incluye el conteo de respuestas, que cambia sin
+     * cambiar {@code updatedAt}.
+     */
+    public static String etagOfSummaries(List<SurveySummary> summaries) {
+        MessageDigest sha256 = sha256();
+        for (SurveySummary summary : summaries) {
+            String version = summary.getUpdatedAt() != null ? summary.getUpdatedAt().toString() : "";
+            update(sha256, summary.getId(), version + "/" + summary.getResponseCount());
+        }
+        return "\"s" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+    }
+
+    private static int srcsetSize(Survey survey) {
+        if (survey.getQuestions() == null) {
+            return 0;
+        }
+        int sources = 0;
+        for (Question question : survey.getQuestions()) {
+            if (question.getImageSrcset() != null) {
+                sources += question.getImageSrcset().size();
+            }
+        }
+        return sources;
+    }
+
+    private static void update(MessageDigest digest, String id, String version) {
+        digest.update(id.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(version.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    /**
+     * JSON de una versión de la encuesta y, si vale la pena, su variante gzip ya comprimida.
+     */
+    public record SerializedSurvey(String etag, byte[] json, byte[] gzip) {
+
+        public long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private record Version(String etag, LocalDateTime expiresAt, long validUntil) {
+
+        private boolean isFresh() {
+            return validUntil > System.currentTimeMillis();
+        }
+    }
+}
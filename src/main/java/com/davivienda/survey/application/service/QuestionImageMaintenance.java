@@ -0,0 +1,187 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.AppConstants;
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ImageStore;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Migración y limpieza del almacén de imágenes.
+ *
+ * <p>Al iniciar y luego cada {@code survey.images.maintenance-interval-hours} recorre todas las
+ * encuestas: las imágenes que siguen en línea (guardadas antes del almacén) se pasan a
+ * referencias, y se cuentan las referencias de cada imagen. Las versiones reducidas de una
+ * imagen en uso se conservan (y se generan si faltan). Las imágenes sin referencias se
+ * eliminan, salvo las guardadas o referenciadas de nuevo en las últimas
+ * {@code survey.images.orphan-grace-hours}: pueden pertenecer a una edición que todavía no se
+ * persistió.</p>
+ *
+ * <p>Los conteos se recalculan desde las encuestas en lugar de llevarse en cada escritura;
+ * las escrituras se agrupan y se reaplican tras un conflicto, y un contador incremental se
+ * desviaría sin que nadie lo note.</p>
+ */
+@Service
+@Slf4j
+public class QuestionImageMaintenance {
+
+    private final SurveyRepository surveyRepository;
+    private final SurveyWriteCoalescer surveyWriteCoalescer;
+    private final QuestionImageService questionImageService;
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+    private final long intervalHours;
+    private final Duration orphanGrace;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong referencedImages = new AtomicLong();
+    private final Counter migratedCounter;
+    private final Counter deletedCounter;
+
+    public QuestionImageMaintenance(
+            SurveyRepository surveyRepository,
+            SurveyWriteCoalescer surveyWriteCoalescer,
+            QuestionImageService questionImageService,
+            ImageStore imageStore,
+            ImageVariantService imageVariantService,
+            MeterRegistry meterRegistry,
+            @Value("${survey.images.maintenance-interval-hours:24}") long intervalHours,
+            @Value("${survey.images.orphan-grace-hours:24}") long orphanGraceHours
+    ) {
+        this.surveyRepository = surveyRepository;
+        this.surveyWriteCoalescer = surveyWriteCoalescer;
+        this.questionImageService = questionImageService;
+        this.imageStore = imageStore;
+        this.imageVariantService = imageVariantService;
+        this.intervalHours = intervalHours;
+        this.orphanGrace = Duration.ofHours(orphanGraceHours);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("survey.images.referenced", referencedImages);
+        this.migratedCounter = meterRegistry.counter("survey.images.migrated");
+        this.deletedCounter = meterRegistry.counter("survey.images.deleted");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::run, 0, intervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Una pasada completa; devuelve el conteo de referencias por hash.
+     */
+    Map<String, Long> run() {
+        List<Survey> surveys;
+        try {
+            surveys = surveyRepository.findAll();
+        } catch (RuntimeException e) {
+            // Sin el listado completo no se puede saber qué imágenes siguen en uso
+            log.warn("No se pudieron leer las encuestas para el mantenimiento de imágenes: {}", e.getMessage());
+            return Map.of();
+        }
+
+        Map<String, Long> references = new HashMap<>();
+        int migrated = 0;
+        for (Survey survey : surveys) {
+            Survey current = survey;
+            try {
+                Survey updated = migrate(survey);
+                if (updated != survey) {
+                    migrated++;
+                    current = updated;
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron migrar las imágenes de la encuesta {}: {}", survey.getId(), e.getMessage());
+            }
+            questionImageService.countReferences(current, references);
+        }
+        migratedCounter.increment(migrated);
+        referencedImages.set(references.size());
+
+        Set<String> keep = new HashSet<>(references.keySet());
+        for (String hash : references.keySet()) {
+            Optional<ImageVariants> variants = imageStore.findVariants(hash);
+            if (variants.isPresent()) {
+                variants.get().getVariants().forEach(variant -> keep.add(variant.getHash()));
+            } else {
+                imageVariantService.generateAsync(hash);
+            }
+        }
+        int deleted = imageStore.deleteUnreferenced(keep, Instant.now().minus(orphanGrace));
+        deletedCounter.increment(deleted);
+        log.info("Mantenimiento de imágenes: {} encuestas migradas, {} imágenes en uso, {} eliminadas",
+                migrated, references.size(), deleted);
+        return references;
+    }
+
+    /**
+     * Reemplaza las imágenes en línea de la encuesta por referencias; devuelve la misma
+     * instancia si no había nada que migrar.
+     */
+    private Survey migrate(Survey survey) {
+        if (survey.getQuestions() == null) {
+            return survey;
+        }
+        Map<String, String> replacements = new HashMap<>();
+        for (Question question : survey.getQuestions()) {
+            String imageUrl = question.getImageUrl();
+            if (imageUrl == null || !imageUrl.startsWith(AppConstants.BASE64_IMAGE_PREFIX)
+                    || replacements.containsKey(imageUrl)) {
+                continue;
+            }
+            try {
+                String reference = questionImageService.externalize(imageUrl);
+                if (!reference.equals(imageUrl)) {
+                    replacements.put(imageUrl, reference);
+                }
+            } catch (RuntimeException e) {
+                // Imagen inválida o demasiado grande: se queda como estaba
+                log.warn("Imagen de la pregunta {} no migrada: {}", question.getId(), e.getMessage());
+            }
+        }
+        if (replacements.isEmpty()) {
+            return survey;
+        }
+
+        // Sin If-Match ni cambio de updatedAt: no es una edición del autor
+        return surveyWriteCoalescer.commit(survey, null, target -> {
+            if (target.getQuestions() != null) {
+                for (Question question : target.getQuestions()) {
+                    String reference = replacements.get(question.getImageUrl());
+                    if (reference != null) {
+                        question.setImageUrl(reference);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.AppConstants;
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.ImageUploadResponse;
+import com.davivienda.survey.domain.model.ImageSource;
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.StoredImage;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ImageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Saca las imágenes de las preguntas del documento de la encuesta.
+ *
+ * <p>Un data-URI en base64 se decodifica, se guarda en el {@link ImageStore} y se reemplaza
+ * por una referencia corta ({@code <context-path>/images/<sha256>}) que el cliente descarga
+ * aparte. La misma imagen en varias preguntas se guarda una sola vez. Las URL externas y los
+ * tipos que no están en {@link AppConstants#STORED_IMAGE_TYPES} se dejan como vienen. Cada
+ * imagen nueva encola la generación de sus versiones reducidas ({@link ImageVariantService}).</p>
+ *
+ * <p>El tipo de la imagen se toma de sus primeros bytes ({@link ImageTypes}) y no del que
+ * declara el cliente, ni en el data-URI ni en la subida directa ({@link #upload}).</p>
+ */
+@Service
+@Slf4j
+public class QuestionImageService {
+
+    static final String IMAGES_PATH = "/images/";
+
+    private static final String BASE64_MARKER = ";base64,";
+    private static final Pattern HASH = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+    private final HotImageCache hotImageCache;
+    private final String referencePrefix;
+
+    public QuestionImageService(
+            ImageStore imageStore,
+            ImageVariantService imageVariantService,
+            HotImageCache hotImageCache,
+            @Value("${server.servlet.context-path:}") String contextPath
+    ) {
+        this.imageStore = imageStore;
+        this.imageVariantService = imageVariantService;
+        this.hotImageCache = hotImageCache;
+        this.referencePrefix = contextPath + IMAGES_PATH;
+    }
+
+    /**
+     * Reemplaza la imagen en línea de la pregunta por su referencia.
+     */
+    public void externalize(Question question) {
+        if (question != null && question.getImageUrl() != null) {
+            question.setImageUrl(externalize(question.getImageUrl()));
+        }
+    }
+
+    /**
+     * Referencia de la imagen si {@code imageUrl} es un data-URI que se puede guardar; en
+     * otro caso devuelve el mismo valor. El tamaño se valida sobre los bytes decodificados.
+     */
+    public String externalize(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Optional<String> referenced = hashOf(imageUrl);
+        if (referenced.isPresent()) {
+            // Una referencia copiada de otra pregunta debe apuntar a una imagen existente; se
+            // marca como recién guardada para que la limpieza no la elimine si hasta ahora
+            // era huérfana y la edición todavía no se persistió
+            if (!imageStore.touch(referenced.get())) {
+                throw new RuntimeException(ErrorMessages.IMAGE_NOT_FOUND);
+            }
+            return imageUrl;
+        }
+        if (!imageUrl.startsWith(AppConstants.BASE64_IMAGE_PREFIX)) {
+            return imageUrl;
+        }
+
+        int marker = imageUrl.indexOf(BASE64_MARKER);
+        if (marker < 0) {
+            throw new RuntimeException(ErrorMessages.IMAGE_INVALID);
+        }
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(imageUrl.substring(marker + BASE64_MARKER.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(ErrorMessages.IMAGE_INVALID);
+        }
+        if (data.length > AppConstants.MAX_IMAGE_SIZE_BYTES) {
+            log.warn("Image size exceeded: {} bytes", data.length);
+            throw new RuntimeException(ErrorMessages.IMAGE_SIZE_EXCEEDED);
+        }
+
+        Optional<String> mediaType = ImageTypes.sniff(data, data.length)
+                .filter(AppConstants.STORED_IMAGE_TYPES::contains);
+        if (mediaType.isEmpty()) {
+            return imageUrl;
+        }
+        String hash = imageStore.save(mediaType.get(), data).getHash();
+        imageVariantService.generateAsync(hash);
+        return referenceOf(hash);
+    }
+
+    /**
+     * Guarda una imagen subida como archivo y devuelve la referencia para {@code imageUrl}.
+     * Los bytes van directo al almacén y la lectura se corta en cuanto se pasa del máximo,
+     * así que la imagen nunca está completa en memoria.
+     */
+    public ImageUploadResponse upload(InputStream data) {
+        try (InputStream in = new BufferedInputStream(data)) {
+            in.mark(ImageTypes.HEADER_LENGTH);
+            byte[] header = in.readNBytes(ImageTypes.HEADER_LENGTH);
+            in.reset();
+            String mediaType = ImageTypes.sniff(header, header.length)
+                    .filter(AppConstants.STORED_IMAGE_TYPES::contains)
+                    .orElseThrow(() -> new RuntimeException(ErrorMessages.IMAGE_TYPE_NOT_SUPPORTED));
+
+            StoredImage image = imageStore.save(mediaType,
+                    new SizeLimitedInputStream(in, AppConstants.MAX_IMAGE_SIZE_BYTES));
+            imageVariantService.generateAsync(image.getHash());
+            log.info("Imagen subida: {} ({}, {} bytes)", image.getHash(), mediaType, image.getSize());
+            return ImageUploadResponse.builder()
+                    .imageUrl(referenceOf(image.getHash()))
+                    .hash(image.getHash())
+                    .mediaType(mediaType)
+                    .size(image.getSize())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading uploaded image", e);
+        }
+    }
+
+    /**
+     * Agrega a las preguntas con imagen del almacén la lista {@code srcset} de sus versiones
+     * reducidas y de la original con su ancho. Solo se anuncian las versiones que existen,
+     * todas más angostas que la original; una imagen que no se reduce (GIF, WebP) o cuyas
+     * versiones todavía no se generan queda sin lista.
+     */
+    public void addSrcset(Survey survey) {
+        if (survey.getQuestions() == null) {
+            return;
+        }
+        for (Question question : survey.getQuestions()) {
+            Optional<String> hash = hashOf(question.getImageUrl());
+            if (hash.isPresent()) {
+                question.setImageSrcset(srcset(question.getImageUrl(), hash.get()));
+            }
+        }
+    }
+
+    private List<ImageSource> srcset(String imageUrl, String hash) {
+        Optional<ImageVariants> variants = imageVariantService.variants(hash);
+        if (variants.isEmpty() || variants.get().getWidth() == null || variants.get().getVariants().isEmpty()) {
+            return null;
+        }
+        List<ImageSource> sources = new ArrayList<>();
+        for (ImageVariants.Variant variant : variants.get().getVariants()) {
+            sources.add(new ImageSource(imageUrl + "?w=" + variant.getWidth(), variant.getWidth()));
+        }
+        sources.add(new ImageSource(imageUrl, variants.get().getWidth()));
+        return sources;
+    }
+
+    public String referenceOf(String hash) {
+        return referencePrefix + hash;
+    }
+
+    /**
+     * Hash de la imagen si {@code imageUrl} es una referencia al almacén.
+     */
+    public Optional<String> hashOf(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(referencePrefix)) {
+            return Optional.empty();
+        }
+        String hash = imageUrl.substring(referencePrefix.length());
+        return HASH.matcher(hash).matches() ? Optional.of(hash) : Optional.empty();
+    }
+
+    /**
+     * Suma al conteo las referencias de las preguntas de la encuesta.
+     */
+    public void countReferences(Survey survey, Map<String, Long> counts) {
+        if (survey.getQuestions() == null) {
+            return;
+        }
+        for (Question question : survey.getQuestions()) {
+            hashOf(question.getImageUrl()).ifPresent(hash -> counts.merge(hash, 1L, Long::sum));
+        }
+    }
+
+    /**
+     * Contenido de la imagen para enviarlo: desde la memoria si es una imagen pequeña y
+     * frecuente ({@link HotImageCache}), si no el archivo local, y como último recurso los
+     * bytes leídos del almacén.
+     */
+    public Optional<ImageContent> content(StoredImage image) {
+        String hash = image.getHash();
+        byte[] cached = hotImageCache.get(hash);
+        if (cached != null) {
+            return Optional.of(new ImageContent(cached, null, cached.length));
+        }
+        if (hotImageCache.admit(hash, image.getSize())) {
+            Optional<byte[]> data = imageStore.read(hash);
+            data.ifPresent(bytes -> hotImageCache.put(hash, bytes));
+            return data.map(bytes -> new ImageContent(bytes, null, bytes.length));
+        }
+        Optional<Path> file = imageStore.locate(hash);
+        if (file.isPresent()) {
+            return Optional.of(new ImageContent(null, file.get(), image.getSize()));
+        }
+        return imageStore.read(hash).map(bytes -> new ImageContent(bytes, null, bytes.length));
+    }
+
+    /**
+     * Bytes de una imagen, en memoria ({@code data}) o en un archivo local ({@code file}).
+     */
+    public record ImageContent(byte[] data, Path file, long length) {
+
+        public boolean inMemory() {
+            return data != null;
+        }
+
+        /**
+         * Copia de {@code count} bytes desde {@code start}.
+         */
+        public byte[] read(long start, int count) {
+            if (inMemory()) {
+                return start == 0 && count == data.length
+                        ? data
+                        : Arrays.copyOfRange(data, (int) start, (int) start + count);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(count);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new EOFException("Image truncated: " + file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading image", e);
+            }
+            return buffer.array();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ResponseQuotaRepository;
+import com.davivienda.survey.infrastructure.concurrency.StripedPermits;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controla el máximo de respuestas por encuesta ({@link Survey#getMaxResponses()}).
+ *
+ * <p>Cada instancia reserva bloques de cupo en el contador persistido
+ * ({@link ResponseQuotaRepository}) y los consume localmente con un contador repartido
+ * en celdas, así que la ruta de envío solo hace una transacción en Firebase por bloque.
+ * Como solo se consumen cupos reservados, el total entre instancias nunca supera el
+ * máximo; los cupos no usados se devuelven al apagar la instancia o cuando cambia el
+ * máximo de la encuesta.</p>
+ */
+@Service
+@Slf4j
+public class ResponseQuotaService {
+
+    private final ResponseQuotaRepository responseQuotaRepository;
+    private final int leaseBlockSize;
+    private final int stripes;
+    private final long exhaustedRetryMs;
+    private final Map<String, SurveyQuota> quotas = new ConcurrentHashMap<>();
+
+    public ResponseQuotaService(
+            ResponseQuotaRepository responseQuotaRepository,
+            @Value("${survey.quota.lease-block-size:50}") int leaseBlockSize,
+            @Value("${survey.quota.stripes:8}") int stripes,
+            @Value("${survey.quota.exhausted-retry-ms:30000}") long exhaustedRetryMs
+    ) {
+        this.responseQuotaRepository = responseQuotaRepository;
+        this.leaseBlockSize = leaseBlockSize;
+        this.stripes = stripes;
+        this.exhaustedRetryMs = exhaustedRetryMs;
+    }
+
+    /**
+     * Reserva un cupo para una respuesta.
+     *
+     * @return false si la encuesta ya alcanzó su máximo de respuestas
+     */
+    public boolean tryAcquire(Survey survey) {
+        Integer maxResponses = survey.getMaxResponses();
+        if (maxResponses == null || maxResponses <= 0) {
+            return true;
+        }
+
+        String surveyId = survey.getId();
+        SurveyQuota quota = quotas.computeIfAbsent(surveyId, id -> new SurveyQuota(new StripedPermits(stripes), maxResponses));
+        if (quota.maxResponses != maxResponses) {
+            resize(surveyId, quota, maxResponses);
+        }
+
+        if (quota.permits.tryAcquire()) {
+            return true;
+        }
+        if (quota.isExhausted()) {
+            return false;
+        }
+
+        synchronized (quota) {
+            if (quota.permits.tryAcquire()) {
+                return true;
+            }
+            if (quota.isExhausted()) {
+                return false;
+            }
+
+            long granted = responseQuotaRepository.lease(surveyId, leaseBlockSize, quota.maxResponses);
+            if (granted <= 0) {
+                quota.exhaustedUntil = System.currentTimeMillis() + exhaustedRetryMs;
+                log.info("Encuesta {} alcanzó su máximo de {} respuestas", surveyId, quota.maxResponses);
+                return false;
+            }
+
+            quota.exhaustedUntil = 0;
+            quota.permits.add(granted - 1);
+            return true;
+        }
+    }
+
+    /**
+     * Devuelve cupos tomados con {@link #tryAcquire} para respuestas que no se llegaron a
+     * guardar. Quedan disponibles en esta instancia; si el máximo cambió entretanto, el
+     * próximo ajuste los devuelve al contador persistido.
+     */
+    public void release(Survey survey, int permits) {
+        Integer maxResponses = survey.getMaxResponses();
+        if (permits <= 0 || maxResponses == null || maxResponses <= 0) {
+            return;
+        }
+        SurveyQuota quota = quotas.get(survey.getId());
+        if (quota != null) {
+            quota.permits.add(permits);
+        }
+    }
+
+    /**
+     * Olvida el estado local y persistido de la cuota de una encuesta eliminada.
+     */
+    public void discard(String surveyId) {
+        quotas.remove(surveyId);
+        responseQuotaRepository.deleteBySurveyId(surveyId);
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        quotas.forEach(this::releaseUnused);
+        quotas.clear();
+    }
+
+    private void resize(String surveyId, SurveyQuota quota, int maxResponses) {
+        synchronized (quota) {
+            if (quota.maxResponses == maxResponses) {
+                return;
+            }
+            // Los cupos reservados con el máximo anterior podrían exceder el nuevo máximo
+            releaseUnused(surveyId, quota);
+            quota.maxResponses = maxResponses;
+            quota.exhaustedUntil = 0;
+        }
+    }
+
+    private void releaseUnused(String surveyId, SurveyQuota quota) {
+        long unused = quota.permits.drain();
+        if (unused <= 0) {
+            return;
+        }
+        try {
+            responseQuotaRepository.release(surveyId, unused);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron devolver {} cupos de la encuesta {}", unused, surveyId, e);
+        }
+    }
+
+    private static final class SurveyQuota {
+
+        private final StripedPermits permits;
+        private volatile int maxResponses;
+        private volatile long exhaustedUntil;
+
+        private SurveyQuota(StripedPermits permits, int maxResponses) {
+            this.permits = permits;
+            this.maxResponses = maxResponses;
+        }
+
+        private boolean isExhausted() {
+            return exhaustedUntil > System.currentTimeMillis();
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.davivienda.survey.application.service;
 
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.BatchResponseResult;
 import com.davivienda.survey.application.dto.SurveyResponseRequest;
 import com.davivienda.survey.domain.model.Survey;
 import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseIngestionLog;
 import com.davivienda.survey.domain.port.ResponseRepository;
+import com.davivienda.survey.infrastructure.exception.IngestionNotDurableException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -18,17 +29,162 @@ public class ResponseService {
     
     private final ResponseRepository responseRepository;
     private final SurveyService surveyService;
+    private final SurveyExpirationService surveyExpirationService;
+    private final ResponseQuotaService responseQuotaService;
+    private final PublicSurveyCache publicSurveyCache;
+    private final Optional<ResponseIngestionLog> ingestionLog;
+    private final Validator validator;
+    
+    @Value("${ingestion.batch.max-size:500}")
+    private int maxBatchSize;
     
     public SurveyResponse submitResponse(String surveyId, SurveyResponseRequest request) {
+        Survey survey = getOpenSurvey(surveyId);
+        
+        if (!responseQuotaService.tryAcquire(survey)) {
+            throw new RuntimeException(ErrorMessages.SURVEY_QUOTA_REACHED);
+        }
+        
+        SurveyResponse response = toResponse(surveyId, UUID.randomUUID().toString(), request);
+        
+        try {
+            SurveyResponse saved;
+            if (ingestionLog.isPresent()) {
+                ingestionLog.get().append(response);
+                saved = response;
+            } else {
+                saved = responseRepository.save(response);
+            }
+            publicSurveyCache.invalidatePublishedListings();
+            return saved;
+        } catch (IngestionNotDurableException e) {
+            // Quedó en el log y probablemente se persista: el cupo sigue tomado
+            throw e;
+        } catch (RuntimeException e) {
+            // La respuesta no se guardó: el cupo vuelve a estar disponible
+            responseQuotaService.release(survey, 1);
+            throw e;
+        }
+    }
+    
+    /**
+     * Envío por lotes (clientes que respondieron sin conexión): la encuesta se lee y valida
+     * una sola vez y las respuestas aceptadas se envían juntas al repositorio.
+     * Cada respuesta se valida por separado; las que traen un ID ya recibido se informan
+     * como duplicadas y no se vuelven a guardar, así que el cliente puede reintentar el lote.
+     */
+    public List<BatchResponseResult> submitBatch(String surveyId, List<SurveyResponseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException(ErrorMessages.BATCH_EMPTY);
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new RuntimeException(String.format(ErrorMessages.BATCH_TOO_LARGE, maxBatchSize));
+        }
+        
+        Survey survey = getOpenSurvey(surveyId);
+        
+        // Se valida antes de buscar los IDs: uno mal formado no es una ruta válida en Firebase
+        List<String> violations = new ArrayList<>(requests.size());
+        Set<String> clientIds = new HashSet<>();
+        for (SurveyResponseRequest request : requests) {
+            String violation = validate(request);
+            violations.add(violation);
+            if (violation == null && request.getId() != null) {
+                clientIds.add(request.getId());
+            }
+        }
+        Set<String> existingIds = findExistingIds(clientIds);
+        
+        List<BatchResponseResult> results = new ArrayList<>(requests.size());
+        List<SurveyResponse> accepted = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SurveyResponseRequest request = requests.get(i);
+            String id = request != null && request.getId() != null ? request.getId() : UUID.randomUUID().toString();
+            
+            String violation = violations.get(i);
+            if (violation != null) {
+                results.add(result(i, id, BatchResponseResult.Status.REJECTED, violation));
+            } else if (existingIds.contains(id) || !seenIds.add(id)) {
+                results.add(result(i, id, BatchResponseResult.Status.DUPLICATE, null));
+            } else if (!responseQuotaService.tryAcquire(survey)) {
+                results.add(result(i, id, BatchResponseResult.Status.REJECTED, ErrorMessages.SURVEY_QUOTA_REACHED));
+            } else {
+                accepted.add(toResponse(surveyId, id, request));
+                results.add(result(i, id, BatchResponseResult.Status.CREATED, null));
+            }
+        }
+        
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        try {
+            if (ingestionLog.isPresent()) {
+                ingestionLog.get().appendAll(accepted);
+            } else {
+                responseRepository.saveAll(accepted);
+            }
+        } catch (IngestionNotDurableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // El lote no se guardó: los cupos tomados vuelven a estar disponibles
+            responseQuotaService.release(survey, accepted.size());
+            throw e;
+        }
+        publicSurveyCache.invalidatePublishedListings();
+        return results;
+    }
+    
+    /**
+     * Indica si las respuestas se aceptan en el WAL local y se envían a Firebase en segundo plano
+     */
+    public boolean isAsyncIngestion() {
+        return ingestionLog.isPresent();
+    }
+    
+    public List<SurveyResponse> getSurveyResponses(String surveyId) {
+        return responseRepository.findBySurveyId(surveyId);
+    }
+    
+    private Survey getOpenSurvey(String surveyId) {
+        if (surveyExpirationService.isClosed(surveyId)) {
+            throw new RuntimeException(ErrorMessages.SURVEY_EXPIRED);
+        }
+        
         Survey survey = surveyService.getSurvey(surveyId);
         
+        if (Boolean.TRUE.equals(survey.getIsClosed())) {
+            throw new RuntimeException(ErrorMessages.SURVEY_EXPIRED);
+        }
+        
         if (survey.getExpiresAt() != null) {
             LocalDateTime now = LocalDateTime.now();
             if (now.isAfter(survey.getExpiresAt())) {
                 throw new RuntimeException("Esta encuesta ha expirado y ya no acepta respuestas");
             }
         }
-        
+        return survey;
+    }
+    
+    /**
+     * IDs ya recibidos: los guardados y, en modo WAL, los aceptados que todavía no llegan a
+     * Firebase (un reintento durante una caída de Firebase no debe crearlos de nuevo).
+     */
+    private Set<String> findExistingIds(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>();
+        ingestionLog.ifPresent(log -> existing.addAll(log.findPendingIds(ids)));
+        Set<String> remaining = new HashSet<>(ids);
+        remaining.removeAll(existing);
+        if (!remaining.isEmpty()) {
+            existing.addAll(responseRepository.findExistingIds(remaining));
+        }
+        return existing;
+    }
+    
+    private SurveyResponse toResponse(String surveyId, String id, SurveyResponseRequest request) {
         List<SurveyResponse.Answer> answers = request.getAnswers().stream()
                 .map(a -> SurveyResponse.Answer.builder()
                         .questionId(a.getQuestionId())
@@ -36,18 +192,35 @@ public class ResponseService {
                         .build())
                 .collect(Collectors.toList());
         
-        SurveyResponse response = SurveyResponse.builder()
-                .id(UUID.randomUUID().toString())
+        return SurveyResponse.builder()
+                .id(id)
                 .surveyId(surveyId)
                 .respondentId(request.getRespondentEmail())
                 .answers(answers)
                 .completedAt(LocalDateTime.now())
                 .build();
-        
-        return responseRepository.save(response);
     }
     
-    public List<SurveyResponse> getSurveyResponses(String surveyId) {
-        return responseRepository.findBySurveyId(surveyId);
+    private String validate(SurveyResponseRequest request) {
+        if (request == null) {
+            return ErrorMessages.BATCH_ITEM_EMPTY;
+        }
+        Set<ConstraintViolation<SurveyResponseRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private static BatchResponseResult result(int index, String id, BatchResponseResult.Status status, String message) {
+        return BatchResponseResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .message(message)
+                .build();
     }
 }
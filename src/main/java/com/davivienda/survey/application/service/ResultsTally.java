@@ -0,0 +1,90 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.dto.SurveyResults;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.SurveyResponse;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conteos por pregunta de un conjunto de respuestas. No es thread-safe.
+ *
+ * <p>Las preguntas de texto libre solo cuentan cuántas veces se respondieron; el resto
+ * cuenta además cada opción elegida. Dos conteos se pueden sumar, así que un suscriptor
+ * lento recibe un único incremento combinado en lugar de una cola de eventos.</p>
+ */
+final class ResultsTally {
+
+    private final Map<String, QuestionType> questionTypes;
+    private final Map<String, QuestionTally> questions = new LinkedHashMap<>();
+    private long responses;
+
+    ResultsTally(Map<String, QuestionType> questionTypes) {
+        this.questionTypes = questionTypes;
+    }
+
+    void add(SurveyResponse response) {
+        responses++;
+        if (response.getAnswers() == null) {
+            return;
+        }
+        for (SurveyResponse.Answer answer : response.getAnswers()) {
+            if (answer.getQuestionId() == null || answer.getValue() == null || answer.getValue().isEmpty()) {
+                continue;
+            }
+            QuestionTally tally = questions.computeIfAbsent(answer.getQuestionId(), id -> new QuestionTally());
+            tally.answered++;
+            QuestionType type = questionTypes.get(answer.getQuestionId());
+            if (type == null || type == QuestionType.TEXT) {
+                continue;
+            }
+            for (String value : answer.getValue()) {
+                tally.options.merge(value, 1L, Long::sum);
+            }
+        }
+    }
+
+    void addAll(ResultsTally other) {
+        responses += other.responses;
+        other.questions.forEach((questionId, otherTally) -> {
+            QuestionTally tally = questions.computeIfAbsent(questionId, id -> new QuestionTally());
+            tally.answered += otherTally.answered;
+            otherTally.options.forEach((option, count) -> tally.options.merge(option, count, Long::sum));
+        });
+    }
+
+    ResultsTally copy() {
+        ResultsTally copy = new ResultsTally(questionTypes);
+        copy.addAll(this);
+        return copy;
+    }
+
+    boolean isEmpty() {
+        return responses == 0;
+    }
+
+    long responses() {
+        return responses;
+    }
+
+    SurveyResults toResults(String surveyId, long responseCount) {
+        Map<String, SurveyResults.QuestionResults> results = new LinkedHashMap<>();
+        questions.forEach((questionId, tally) -> results.put(questionId, SurveyResults.QuestionResults.builder()
+                .answered(tally.answered)
+                .options(new HashMap<>(tally.options))
+                .build()));
+        return SurveyResults.builder()
+                .surveyId(surveyId)
+                .responseCount(responseCount)
+                .newResponses(responses)
+                .questions(results)
+                .build();
+    }
+
+    private static final class QuestionTally {
+        private long answered;
+        private final Map<String, Long> options = new HashMap<>();
+    }
+}
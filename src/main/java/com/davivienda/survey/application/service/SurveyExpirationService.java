@@ -0,0 +1,144 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import com.davivienda.survey.infrastructure.scheduling.HashedTimerWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cierra las encuestas publicadas en su fecha de expiración.
+ *
+ * <p>Cada encuesta publicada con {@code expiresAt} tiene un temporizador en una
+ * {@link HashedTimerWheel}; al vencer, la encuesta se marca cerrada en Firebase y se
+ * agrega al conjunto en memoria de encuestas cerradas, que permite rechazar respuestas
+ * sin leer la base de datos. El estado se reconstruye al iniciar la aplicación.</p>
+ */
+@Service
+@Slf4j
+public class SurveyExpirationService {
+
+    private final SurveyRepository surveyRepository;
+    private final PublicSurveyCache publicSurveyCache;
+    private final ExecutorService expirationExecutor;
+    private final HashedTimerWheel timerWheel;
+    private final Map<String, Tracked> scheduled = new ConcurrentHashMap<>();
+    private final Set<String> closed = ConcurrentHashMap.newKeySet();
+
+    public SurveyExpirationService(
+            SurveyRepository surveyRepository,
+            PublicSurveyCache publicSurveyCache,
+            @Value("${survey.expiration.tick-ms:1000}") long tickMs,
+            @Value("${survey.expiration.wheel-size:512}") int wheelSize
+    ) {
+        this.surveyRepository = surveyRepository;
+        this.publicSurveyCache = publicSurveyCache;
+        this.expirationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "survey-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timerWheel = new HashedTimerWheel("survey-expiration-wheel", tickMs, TimeUnit.MILLISECONDS,
+                wheelSize, expirationExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Survey> published = surveyRepository.findByIsPublished(true);
+            published.forEach(this::track);
+            log.info("Expiración de encuestas: {} programadas, {} cerradas", scheduled.size(), closed.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reconstruir la rueda de expiración: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra (o actualiza) el temporizador de una encuesta según su estado actual.
+     */
+    public void track(Survey survey) {
+        String id = survey.getId();
+        cancel(id);
+
+        if (Boolean.TRUE.equals(survey.getIsClosed())) {
+            closed.add(id);
+            return;
+        }
+        closed.remove(id);
+
+        if (!Boolean.TRUE.equals(survey.getIsPublished()) || survey.getExpiresAt() == null) {
+            return;
+        }
+
+        LocalDateTime expiresAt = survey.getExpiresAt();
+        long delayMs = Duration.between(LocalDateTime.now(), expiresAt).toMillis();
+        if (delayMs <= 0) {
+            closed.add(id);
+            expirationExecutor.execute(() -> markClosed(id));
+            return;
+        }
+
+        HashedTimerWheel.Timeout timeout = timerWheel.schedule(() -> expire(id, expiresAt), delayMs, TimeUnit.MILLISECONDS);
+        scheduled.put(id, new Tracked(expiresAt, timeout));
+    }
+
+    public void untrack(String surveyId) {
+        cancel(surveyId);
+        closed.remove(surveyId);
+    }
+
+    public boolean isClosed(String surveyId) {
+        return closed.contains(surveyId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.stop();
+        expirationExecutor.shutdown();
+    }
+
+    private void expire(String surveyId, LocalDateTime expiresAt) {
+        Tracked tracked = scheduled.get(surveyId);
+        if (tracked == null || !tracked.expiresAt().equals(expiresAt)) {
+            // La encuesta fue reprogramada o eliminada después de crear este temporizador
+            return;
+        }
+        scheduled.remove(surveyId, tracked);
+        closed.add(surveyId);
+        markClosed(surveyId);
+    }
+
+    private void markClosed(String surveyId) {
+        publicSurveyCache.invalidate(surveyId);
+        try {
+            surveyRepository.markClosed(surveyId);
+            log.info("Encuesta {} cerrada por expiración", surveyId);
+        } catch (RuntimeException e) {
+            log.error("Error marcando la encuesta {} como cerrada", surveyId, e);
+        }
+    }
+
+    private void cancel(String surveyId) {
+        Tracked tracked = scheduled.remove(surveyId);
+        if (tracked != null) {
+            tracked.timeout().cancel();
+        }
+    }
+
+    private record Tracked(LocalDateTime expiresAt, HashedTimerWheel.Timeout timeout) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveyChangeSet;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica un documento JSON merge-patch (RFC 7396) sobre una encuesta y registra qué cambió.
+ *
+ * <p>Un miembro ausente no se toca y un {@code null} borra el valor. {@code questions} es un
+ * objeto indexado por ID de pregunta: cada pregunta se combina con el mismo criterio, un
+ * {@code null} la elimina y un ID desconocido crea una pregunta nueva (que debe traer
+ * {@code title} y {@code type}). Reemplazar la lista completa con un arreglo lo resuelve
+ * {@link SurveyService}. Solo se registran los campos cuyo valor cambia realmente.</p>
+ */
+final class SurveyMergePatch {
+
+    static final String QUESTIONS = "questions";
+
+    private static final Set<String> SERVER_ASSIGNED = Set.of("id", "surveyId", "order");
+    private static final Pattern QUESTION_ID = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+
+    private SurveyMergePatch() {
+    }
+
+    static SurveyChangeSet apply(Survey survey, JsonNode patch) {
+        SurveyChangeSet changes = new SurveyChangeSet();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String field = member.getKey();
+            JsonNode value = member.getValue();
+            switch (field) {
+                case "title" -> {
+                    if (!value.isTextual() || value.asText().isBlank()) {
+                        throw invalid(field);
+                    }
+                    set(changes, field, survey.getTitle(), value.asText(), survey::setTitle);
+                }
+                case "description" -> set(changes, field, survey.getDescription(), text(value, field), survey::setDescription);
+                case "durationValue" -> set(changes, field, survey.getDurationValue(), integer(value, field), survey::setDurationValue);
+                case "durationUnit" -> set(changes, field, survey.getDurationUnit(), text(value, field), survey::setDurationUnit);
+                case "maxResponses" -> {
+                    Integer maxResponses = integer(value, field);
+                    if (maxResponses != null && maxResponses <= 0) {
+                        throw invalid(field);
+                    }
+                    set(changes, field, survey.getMaxResponses(), maxResponses, survey::setMaxResponses);
+                }
+                case QUESTIONS -> applyQuestions(survey, value, changes);
+                default -> throw new RuntimeException(String.format(ErrorMessages.PATCH_FIELD_NOT_ALLOWED, field));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Pregunta a partir de un elemento JSON, con los mismos campos editables que el patch.
+     */
+    static Question toQuestion(JsonNode node, String path) {
+        if (!node.isObject()) {
+            throw invalid(path);
+        }
+        Question question = new Question();
+        JsonNode id = node.get("id");
+        if (id != null && !id.isNull()) {
+            question.setId(text(id, path + ".id"));
+        }
+        Iterator<Map.Entry<String, JsonNode>> members = node.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            // surveyId y order los asigna el servidor; se aceptan para poder reenviar lo que devolvió un GET
+            if (!SERVER_ASSIGNED.contains(member.getKey())) {
+                applyQuestionField(question, member.getKey(), member.getValue(), path, new SurveyChangeSet());
+            }
+        }
+        return question;
+    }
+
+    private static void applyQuestions(Survey survey, JsonNode value, SurveyChangeSet changes) {
+        if (!value.isObject()) {
+            throw invalid(QUESTIONS);
+        }
+        if (survey.getQuestions() == null) {
+            survey.setQuestions(new ArrayList<>());
+        }
+        List<Question> questions = survey.getQuestions();
+
+        Iterator<Map.Entry<String, JsonNode>> members = value.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String questionId = member.getKey();
+            String path = QUESTIONS + "." + questionId;
+            Optional<Question> existing = questions.stream()
+                    .filter(question -> questionId.equals(question.getId()))
+                    .findFirst();
+
+            if (member.getValue().isNull()) {
+                // Borrar deja un hueco en el arreglo de Firebase: la lista se reescribe completa
+                if (existing.isPresent()) {
+                    questions.remove(existing.get());
+                    changes.replaceQuestions();
+                }
+                continue;
+            }
+            if (!member.getValue().isObject()) {
+                throw invalid(path);
+            }
+
+            if (existing.isPresent()) {
+                Question question = existing.get();
+                SurveyChangeSet questionChanges = new SurveyChangeSet();
+                member.getValue().fields().forEachRemaining(field ->
+                        applyQuestionField(question, field.getKey(), field.getValue(), path, questionChanges));
+                if (!questionChanges.isEmpty()) {
+                    changes.question(questionId);
+                }
+            } else {
+                if (!QUESTION_ID.matcher(questionId).matches()) {
+                    throw invalid(path);
+                }
+                Question question = toQuestion(member.getValue(), path);
+                if (question.getTitle() == null || question.getType() == null) {
+                    throw invalid(path);
+                }
+                question.setId(questionId);
+                question.setSurveyId(survey.getId());
+                question.setOrder(questions.size() + 1);
+                questions.add(question);
+                changes.question(questionId);
+            }
+        }
+    }
+
+    private static void applyQuestionField(Question question, String field, JsonNode value, String parent,
+                                           SurveyChangeSet changes) {
+        String path = parent + "." + field;
+        switch (field) {
+            case "title" -> {
+                if (!value.isTextual() || value.asText().isBlank()) {
+                    throw invalid(path);
+                }
+                set(changes, field, question.getTitle(), value.asText(), question::setTitle);
+            }
+            case "type" -> {
+                if (!value.isTextual()) {
+                    throw invalid(path);
+                }
+                QuestionType type;
+                try {
+                    type = QuestionType.valueOf(value.asText());
+                } catch (IllegalArgumentException e) {
+                    throw invalid(path);
+                }
+                set(changes, field, question.getType(), type, question::setType);
+            }
+            case "options" -> {
+                // Un arreglo se reemplaza completo (RFC 7396)
+                List<String> options = new ArrayList<>();
+                if (!value.isNull()) {
+                    if (!value.isArray()) {
+                        throw invalid(path);
+                    }
+                    for (JsonNode option : value) {
+                        if (!option.isTextual()) {
+                            throw invalid(path);
+                        }
+                        options.add(option.asText());
+                    }
+                }
+                set(changes, field, question.getOptions(), options, question::setOptions);
+            }
+            case "required" -> {
+                if (!value.isNull() && !value.isBoolean()) {
+                    throw invalid(path);
+                }
+                set(changes, field, question.getRequired(), value.isNull() ? null : value.asBoolean(), question::setRequired);
+            }
+            case "imageUrl" -> set(changes, field, question.getImageUrl(), text(value, path), question::setImageUrl);
+            default -> throw new RuntimeException(String.format(ErrorMessages.PATCH_FIELD_NOT_ALLOWED, path));
+        }
+    }
+
+    private static <T> void set(SurveyChangeSet changes, String field, T current, T value, Consumer<T> setter) {
+        if (!Objects.equals(current, value)) {
+            setter.accept(value);
+            changes.field(field);
+        }
+    }
+
+    private static String text(JsonNode value, String path) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw invalid(path);
+        }
+        return value.asText();
+    }
+
+    private static Integer integer(JsonNode value, String path) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isIntegralNumber() || !value.canConvertToInt()) {
+            throw invalid(path);
+        }
+        return value.asInt();
+    }
+
+    private static RuntimeException invalid(String path) {
+        return new RuntimeException(String.format(ErrorMessages.PATCH_INVALID_VALUE, path));
+    }
+}
@@ -2,20 +2,36 @@ package com.davivienda.survey.application.service;
 
 import com.davivienda.survey.application.constants.AppConstants;
 import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.SurveyBatchResult;
 import com.davivienda.survey.application.dto.SurveyRequest;
 import com.davivienda.survey.domain.model.Question;
 import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveyChangeSet;
 import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.model.SurveySummary;
 import com.davivienda.survey.domain.port.ResponseRepository;
 import com.davivienda.survey.domain.port.SurveyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -24,26 +40,22 @@ public class SurveyService {
     
     private final SurveyRepository surveyRepository;
     private final ResponseRepository responseRepository;
+    private final SurveyExpirationService surveyExpirationService;
+    private final ResponseQuotaService responseQuotaService;
+    private final SurveyWriteCoalescer surveyWriteCoalescer;
+    private final PublicSurveyCache publicSurveyCache;
+    private final QuestionImageService questionImageService;
+    
+    @Value("${survey.batch-get.max-ids:100}")
+    private int batchGetMaxIds;
+    
+    @Value("${survey.batch-get.parallelism:16}")
+    private int batchGetParallelism;
     
     public Survey createSurvey(SurveyRequest request, String userId) {
         log.info("Creating survey for user: {}", userId);
         
-        LocalDateTime expiresAt = null;
-        if (request.getDurationUnit() != null && !AppConstants.DURATION_UNIT_NONE.equals(request.getDurationUnit()) 
-            && request.getDurationValue() != null && request.getDurationValue() > 0) {
-            LocalDateTime now = LocalDateTime.now();
-            switch (request.getDurationUnit()) {
-                case AppConstants.DURATION_UNIT_MINUTES:
-                    expiresAt = now.plusMinutes(request.getDurationValue());
-                    break;
-                case AppConstants.DURATION_UNIT_HOURS:
-                    expiresAt = now.plusHours(request.getDurationValue());
-                    break;
-                case AppConstants.DURATION_UNIT_DAYS:
-                    expiresAt = now.plusDays(request.getDurationValue());
-                    break;
-            }
-        }
+        LocalDateTime expiresAt = computeExpiresAt(request.getDurationUnit(), request.getDurationValue(), LocalDateTime.now());
         
         Survey survey = Survey.builder()
                 .id(UUID.randomUUID().toString())
@@ -56,18 +68,76 @@ public class SurveyService {
                 .durationValue(request.getDurationValue())
                 .durationUnit(request.getDurationUnit())
                 .expiresAt(expiresAt)
+                .maxResponses(request.getMaxResponses())
                 .questions(new ArrayList<>())
+                .version(0L)
                 .build();
         
         return surveyRepository.save(survey);
     }
     
     public Survey getSurvey(String id) {
-        return surveyRepository.findById(id)
+        return surveyWriteCoalescer.pending(id)
+                .or(() -> surveyRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException(ErrorMessages.SURVEY_NOT_FOUND));
     }
     
+    /**
+     * Obtiene varias encuestas en una sola petición. Las lecturas a la base de datos se
+     * lanzan en paralelo (como máximo {@code survey.batch-get.parallelism} a la vez), así que
+     * el costo total es cercano al de una lectura. Las ediciones pendientes de persistir se
+     * sirven desde memoria, los IDs repetidos o vacíos se ignoran y se respeta el orden pedido.
+     */
+    public SurveyBatchResult getSurveys(List<String> ids) {
+        if (ids.size() > batchGetMaxIds) {
+            throw new RuntimeException(String.format(ErrorMessages.BATCH_GET_TOO_LARGE, batchGetMaxIds));
+        }
+        
+        Map<String, CompletableFuture<Optional<Survey>>> lookups = new LinkedHashMap<>();
+        Semaphore inFlight = new Semaphore(Math.max(1, batchGetParallelism));
+        try {
+            for (String id : ids) {
+                if (id == null || id.isBlank() || lookups.containsKey(id)) {
+                    continue;
+                }
+                Optional<Survey> pending = surveyWriteCoalescer.pending(id);
+                if (pending.isPresent()) {
+                    lookups.put(id, CompletableFuture.completedFuture(pending));
+                    continue;
+                }
+                inFlight.acquire();
+                lookups.put(id, surveyRepository.findByIdAsync(id).whenComplete((survey, error) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error finding surveys", e);
+        }
+        
+        List<Survey> surveys = new ArrayList<>(lookups.size());
+        List<String> missing = new ArrayList<>();
+        try {
+            for (Map.Entry<String, CompletableFuture<Optional<Survey>>> lookup : lookups.entrySet()) {
+                Optional<Survey> survey = lookup.getValue().join();
+                if (survey.isPresent()) {
+                    surveys.add(survey.get());
+                } else {
+                    missing.add(lookup.getKey());
+                }
+            }
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error finding surveys", e.getCause());
+        }
+        return SurveyBatchResult.builder()
+                .surveys(surveys)
+                .missing(missing)
+                .build();
+    }
+    
     public Survey getPublicSurvey(String id) {
+        if (surveyExpirationService.isClosed(id)) {
+            throw new RuntimeException(ErrorMessages.SURVEY_EXPIRED);
+        }
+        
         Survey survey = surveyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(ErrorMessages.SURVEY_NOT_FOUND));
         
@@ -75,6 +145,10 @@ public class SurveyService {
             throw new RuntimeException(ErrorMessages.SURVEY_NOT_PUBLISHED);
         }
         
+        if (Boolean.TRUE.equals(survey.getIsClosed())) {
+            throw new RuntimeException(ErrorMessages.SURVEY_EXPIRED);
+        }
+        
         if (survey.getExpiresAt() != null) {
             LocalDateTime now = LocalDateTime.now();
             if (now.isAfter(survey.getExpiresAt())) {
@@ -82,192 +156,463 @@ public class SurveyService {
             }
         }
         
+        questionImageService.addSrcset(survey);
+        publicSurveyCache.rememberSurvey(survey);
         return survey;
     }
     
+    /**
+     * ETag de la encuesta pública si ya se conoce en memoria, sin leer Firebase.
+     */
+    public Optional<String> getKnownPublicSurveyETag(String id) {
+        if (surveyExpirationService.isClosed(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(publicSurveyCache.surveyETag(id));
+    }
+    
+    /**
+     * ETag del listado de publicadas en la vista indicada, si ya se conoce en memoria.
+     */
+    public Optional<String> getKnownPublishedSurveysETag(String view) {
+        return Optional.ofNullable(publicSurveyCache.publishedListingETag(view));
+    }
+    
+    public String getETag(Survey survey) {
+        return PublicSurveyCache.etagOf(survey);
+    }
+    
+    public String getSurveysETag(List<Survey> surveys) {
+        return PublicSurveyCache.etagOfSurveys(surveys);
+    }
+    
+    public String getSummariesETag(List<SurveySummary> summaries) {
+        return PublicSurveyCache.etagOfSummaries(summaries);
+    }
+    
     public List<Survey> getAllSurveys() {
-        return surveyRepository.findAll();
+        return surveyWriteCoalescer.overlay(surveyRepository.findAll());
     }
     
     public List<Survey> getUserSurveys(String userId) {
-        return surveyRepository.findByCreatedBy(userId);
+        return surveyWriteCoalescer.overlay(surveyRepository.findByCreatedBy(userId));
     }
     
     public List<Survey> getPublishedSurveys() {
-        return surveyRepository.findByIsPublished(true);
+        List<Survey> published = surveyRepository.findByIsPublished(true).stream()
+                .filter(survey -> !Boolean.TRUE.equals(survey.getIsClosed()))
+                .filter(survey -> !surveyExpirationService.isClosed(survey.getId()))
+                .toList();
+        published.forEach(questionImageService::addSrcset);
+        publicSurveyCache.rememberPublishedListing(AppConstants.LISTING_VIEW_FULL, getSurveysETag(published));
+        return published;
+    }
+    
+    public List<SurveySummary> getAllSurveySummaries() {
+        return surveyWriteCoalescer.overlaySummaries(surveyRepository.findAllSummaries());
+    }
+    
+    public List<SurveySummary> getUserSurveySummaries(String userId) {
+        return surveyWriteCoalescer.overlaySummaries(surveyRepository.findSummariesByCreatedBy(userId));
+    }
+    
+    public List<SurveySummary> getPublishedSurveySummaries() {
+        List<SurveySummary> published = surveyRepository.findSummariesByIsPublished(true).stream()
+                .filter(summary -> !Boolean.TRUE.equals(summary.getIsClosed()))
+                .filter(summary -> !surveyExpirationService.isClosed(summary.getId()))
+                .toList();
+        publicSurveyCache.rememberPublishedListing(AppConstants.LISTING_VIEW_SUMMARY, getSummariesETag(published));
+        return published;
     }
     
-    public Survey updateSurvey(String id, SurveyRequest request, String userId) {
+    public Survey updateSurvey(String id, SurveyRequest request, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(id);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        survey.setTitle(request.getTitle());
-        survey.setDescription(request.getDescription());
-        survey.setDurationValue(request.getDurationValue());
-        survey.setDurationUnit(request.getDurationUnit());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = computeExpiresAt(request.getDurationUnit(), request.getDurationValue(), now);
+        
+        return stage(survey, expectedVersions, target -> {
+            target.setTitle(request.getTitle());
+            target.setDescription(request.getDescription());
+            target.setDurationValue(request.getDurationValue());
+            target.setDurationUnit(request.getDurationUnit());
+            target.setMaxResponses(request.getMaxResponses());
+            target.setExpiresAt(expiresAt);
+            target.setIsClosed(false);
+            markEdited(target, now);
+        });
+    }
+    
+    /**
+     * Edición parcial con semántica JSON merge-patch (RFC 7396). Cambiar la duración recalcula
+     * la expiración y reabre la encuesta como en {@link #updateSurvey}, y cualquier cambio la
+     * despublica; un patch sin cambios no escribe. {@code questions} puede ser un objeto por ID
+     * (edición de preguntas sueltas) o un arreglo que reemplaza la lista con las reglas de
+     * {@link #replaceQuestions}.
+     */
+    public Survey patchSurvey(String id, JsonNode patch, String userId, Set<Long> expectedVersions) {
+        if (patch == null || !patch.isObject()) {
+            throw new RuntimeException(ErrorMessages.PATCH_NOT_OBJECT);
+        }
+        
+        Survey survey = getSurvey(id);
         
-        LocalDateTime expiresAt = null;
-        if (request.getDurationUnit() != null && !AppConstants.DURATION_UNIT_NONE.equals(request.getDurationUnit()) 
-            && request.getDurationValue() != null && request.getDurationValue() > 0) {
-            LocalDateTime now = LocalDateTime.now();
-            switch (request.getDurationUnit()) {
-                case AppConstants.DURATION_UNIT_MINUTES:
-                    expiresAt = now.plusMinutes(request.getDurationValue());
-                    break;
-                case AppConstants.DURATION_UNIT_HOURS:
-                    expiresAt = now.plusHours(request.getDurationValue());
-                    break;
-                case AppConstants.DURATION_UNIT_DAYS:
-                    expiresAt = now.plusDays(request.getDurationValue());
-                    break;
+        if (!survey.getCreatedBy().equals(userId)) {
+            throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
+        }
+        
+        patch = externalizeImages(patch);
+        
+        // Un arreglo en questions se convierte una sola vez, con los IDs de las preguntas nuevas
+        // ya asignados, para que reaplicar el patch tras un conflicto dé el mismo resultado
+        JsonNode questionsNode = patch.get(SurveyMergePatch.QUESTIONS);
+        List<Question> replacement = null;
+        List<String> newIds = null;
+        JsonNode fieldsPatch = patch;
+        if (questionsNode != null && questionsNode.isArray()) {
+            replacement = new ArrayList<>();
+            for (int i = 0; i < questionsNode.size(); i++) {
+                replacement.add(SurveyMergePatch.toQuestion(questionsNode.get(i), SurveyMergePatch.QUESTIONS + "[" + i + "]"));
             }
+            newIds = generateIds(replacement);
+            fieldsPatch = ((ObjectNode) patch.deepCopy()).without(SurveyMergePatch.QUESTIONS);
         }
-        survey.setExpiresAt(expiresAt);
         
-        survey.setUpdatedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        List<Question> questions = replacement;
+        List<String> ids = newIds;
+        JsonNode fields = fieldsPatch;
+        Consumer<Survey> mutation = target -> applyPatch(target, fields, questions, ids, now);
         
-        if (Boolean.TRUE.equals(survey.getIsPublished())) {
-            survey.setIsPublished(false);
+        // Se valida sobre una copia: un patch sin cambios no genera escritura ni nueva versión
+        Survey preview = survey.toBuilder()
+                .questions(survey.getQuestions() != null ? new ArrayList<>(survey.getQuestions().stream()
+                        .map(question -> question.toBuilder().build()).toList()) : null)
+                .build();
+        if (applyPatch(preview, fields, questions, ids, now).isEmpty()) {
+            return survey;
         }
         
-        return surveyRepository.save(survey);
+        log.info("Patching survey {}", id);
+        return commit(survey, expectedVersions, mutation);
+    }
+    
+    private SurveyChangeSet applyPatch(Survey target, JsonNode fields, List<Question> replacement,
+                                       List<String> newIds, LocalDateTime now) {
+        SurveyChangeSet changes = SurveyMergePatch.apply(target, fields);
+        if (replacement != null) {
+            target.setQuestions(resolveQuestions(target, replacement, newIds));
+            changes.replaceQuestions();
+        }
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        
+        if (target.getQuestions() != null && target.getQuestions().size() > AppConstants.MAX_QUESTIONS_PER_SURVEY) {
+            throw new RuntimeException(
+                String.format(ErrorMessages.SURVEY_MAX_QUESTIONS_EXCEEDED, AppConstants.MAX_QUESTIONS_PER_SURVEY)
+            );
+        }
+        if (changes.getFields().contains("durationValue") || changes.getFields().contains("durationUnit")) {
+            target.setExpiresAt(computeExpiresAt(target.getDurationUnit(), target.getDurationValue(), now));
+            target.setIsClosed(false);
+        }
+        markEdited(target, now);
+        return changes;
     }
     
-    public void deleteSurvey(String id, String userId) {
+    public void deleteSurvey(String id, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(id);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
+        long currentVersion = survey.getVersion() != null ? survey.getVersion() : 0L;
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw new RuntimeException(String.format(ErrorMessages.SURVEY_VERSION_MISMATCH, currentVersion));
+        }
+        
+        if (expectedVersions == null) {
+            surveyWriteCoalescer.discard(id);
+            surveyRepository.deleteById(id);
+        } else {
+            // La versión que vio el editor incluye los autoguardados pendientes: se guardan antes
+            // para que el compare-and-set la compare con la almacenada
+            surveyWriteCoalescer.flushNow(id);
+            if (!surveyRepository.deleteIfVersion(id, currentVersion)) {
+                long storedVersion = surveyRepository.findById(id)
+                        .map(stored -> stored.getVersion() != null ? stored.getVersion() : 0L)
+                        .orElseThrow(() -> new RuntimeException(ErrorMessages.SURVEY_NOT_FOUND));
+                throw new RuntimeException(String.format(ErrorMessages.SURVEY_VERSION_MISMATCH, storedVersion));
+            }
+        }
         
         List<SurveyResponse> responses = responseRepository.findBySurveyId(id);
         for (SurveyResponse response : responses) {
             responseRepository.deleteById(response.getId());
         }
         
-        surveyRepository.deleteById(id);
+        publicSurveyCache.invalidate(id);
+        surveyExpirationService.untrack(id);
+        responseQuotaService.discard(id);
     }
     
-    public Survey publishSurvey(String id, String userId) {
+    public Survey publishSurvey(String id, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(id);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        if (survey.getQuestions() == null || survey.getQuestions().isEmpty()) {
-            throw new RuntimeException(ErrorMessages.SURVEY_NO_QUESTIONS);
-        }
-        
-        survey.setIsPublished(true);
-        survey.setUpdatedAt(LocalDateTime.now());
-        
-        return surveyRepository.save(survey);
+        LocalDateTime now = LocalDateTime.now();
+        return commit(survey, expectedVersions, target -> {
+            if (target.getQuestions() == null || target.getQuestions().isEmpty()) {
+                throw new RuntimeException(ErrorMessages.SURVEY_NO_QUESTIONS);
+            }
+            target.setIsPublished(true);
+            target.setUpdatedAt(now);
+        });
     }
     
-    public Survey addQuestion(String surveyId, Question question, String userId) {
+    public Survey addQuestion(String surveyId, Question question, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(surveyId);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        // Validar límite de preguntas por encuesta
-        if (survey.getQuestions() != null && survey.getQuestions().size() >= AppConstants.MAX_QUESTIONS_PER_SURVEY) {
-            throw new RuntimeException(
-                String.format(ErrorMessages.SURVEY_MAX_QUESTIONS_EXCEEDED, AppConstants.MAX_QUESTIONS_PER_SURVEY)
-            );
-        }
-        
-        // Validar tamaño de imagen en base64 (máximo 2MB)
-        if (question.getImageUrl() != null && question.getImageUrl().startsWith(AppConstants.BASE64_IMAGE_PREFIX)) {
-            validateBase64ImageSize(question.getImageUrl());
-        }
-        
-        question.setId(UUID.randomUUID().toString());
-        question.setSurveyId(surveyId);
-        
-        if (survey.getQuestions() == null) {
-            survey.setQuestions(new ArrayList<>());
-        }
-        
-        log.info("Adding question {} to survey {}", question.getId(), surveyId);
-        survey.getQuestions().add(question);
-        survey.setUpdatedAt(LocalDateTime.now());
+        Question added = question.toBuilder()
+                .id(UUID.randomUUID().toString())
+                .surveyId(surveyId)
+                .build();
+        questionImageService.externalize(added);
+        LocalDateTime now = LocalDateTime.now();
+        
+        log.info("Adding question {} to survey {}", added.getId(), surveyId);
+        return commit(survey, expectedVersions, target -> {
+            // Reaplicada sobre un estado que ya la tiene (la escritura anterior sí llegó): no se duplica
+            if (target.getQuestions() != null
+                    && target.getQuestions().stream().anyMatch(q -> added.getId().equals(q.getId()))) {
+                return;
+            }
+            // Validar límite de preguntas por encuesta
+            if (target.getQuestions() != null && target.getQuestions().size() >= AppConstants.MAX_QUESTIONS_PER_SURVEY) {
+                throw new RuntimeException(
+                    String.format(ErrorMessages.SURVEY_MAX_QUESTIONS_EXCEEDED, AppConstants.MAX_QUESTIONS_PER_SURVEY)
+                );
+            }
+            if (target.getQuestions() == null) {
+                target.setQuestions(new ArrayList<>());
+            }
+            target.getQuestions().add(added.toBuilder().build());
+            markEdited(target, now);
+        });
+    }
+    
+    public Survey updateQuestion(String surveyId, String questionId, Question updatedQuestion, String userId,
+                                 Set<Long> expectedVersions) {
+        Survey survey = getSurvey(surveyId);
         
-        if (Boolean.TRUE.equals(survey.getIsPublished())) {
-            survey.setIsPublished(false);
+        if (!survey.getCreatedBy().equals(userId)) {
+            throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        return surveyRepository.save(survey);
+        Question replacement = updatedQuestion.toBuilder()
+                .id(questionId)
+                .surveyId(surveyId)
+                .build();
+        questionImageService.externalize(replacement);
+        LocalDateTime now = LocalDateTime.now();
+        
+        return stage(survey, expectedVersions, target -> {
+            List<Question> questions = target.getQuestions() != null ? target.getQuestions() : List.of();
+            for (int i = 0; i < questions.size(); i++) {
+                if (questions.get(i).getId().equals(questionId)) {
+                    questions.set(i, replacement.toBuilder().build());
+                    break;
+                }
+            }
+            markEdited(target, now);
+        });
     }
     
-    public Survey updateQuestion(String surveyId, String questionId, Question updatedQuestion, String userId) {
+    /**
+     * Reemplaza todas las preguntas en una sola validación y una sola escritura.
+     * La lista define el orden final ({@code order} = posición, desde 1): las preguntas con
+     * {@code id} existente se reemplazan, las que no traen {@code id} se crean y las que no
+     * aparecen se eliminan. Una pregunta existente enviada solo con su {@code id} conserva su
+     * contenido, así reordenar no requiere reenviar imágenes.
+     */
+    public Survey replaceQuestions(String surveyId, List<Question> questions, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(surveyId);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        // Validar tamaño de imagen en base64 (máximo 2MB)
-        if (updatedQuestion.getImageUrl() != null && updatedQuestion.getImageUrl().startsWith(AppConstants.BASE64_IMAGE_PREFIX)) {
-            validateBase64ImageSize(updatedQuestion.getImageUrl());
+        if (questions == null) {
+            throw new RuntimeException(ErrorMessages.QUESTIONS_REQUIRED);
         }
         
-        List<Question> questions = survey.getQuestions();
-        for (int i = 0; i < questions.size(); i++) {
-            if (questions.get(i).getId().equals(questionId)) {
-                updatedQuestion.setId(questionId);
-                updatedQuestion.setSurveyId(surveyId);
-                questions.set(i, updatedQuestion);
-                break;
-            }
+        questions.forEach(questionImageService::externalize);
+        List<String> newIds = generateIds(questions);
+        LocalDateTime now = LocalDateTime.now();
+        
+        log.info("Replacing questions of survey {}: {} questions", surveyId, questions.size());
+        return commit(survey, expectedVersions, target -> {
+            target.setQuestions(resolveQuestions(target, questions, newIds));
+            markEdited(target, now);
+        });
+    }
+    
+    /**
+     * Valida la lista completa y construye las preguntas finales en ese orden; no modifica
+     * la encuesta. Las preguntas sin {@code id} reciben el de {@code newIds} en su posición.
+     */
+    private List<Question> resolveQuestions(Survey survey, List<Question> questions, List<String> newIds) {
+        if (questions.size() > AppConstants.MAX_QUESTIONS_PER_SURVEY) {
+            throw new RuntimeException(
+                String.format(ErrorMessages.SURVEY_MAX_QUESTIONS_EXCEEDED, AppConstants.MAX_QUESTIONS_PER_SURVEY)
+            );
         }
         
-        survey.setUpdatedAt(LocalDateTime.now());
+        Map<String, Question> existing = new HashMap<>();
+        if (survey.getQuestions() != null) {
+            survey.getQuestions().forEach(question -> existing.put(question.getId(), question));
+        }
         
-        if (Boolean.TRUE.equals(survey.getIsPublished())) {
-            survey.setIsPublished(false);
+        // Se valida todo antes de modificar la encuesta
+        Set<String> seenIds = new HashSet<>();
+        for (Question question : questions) {
+            if (question.getId() != null) {
+                if (!existing.containsKey(question.getId())) {
+                    throw new RuntimeException(ErrorMessages.QUESTION_NOT_FOUND + ": " + question.getId());
+                }
+                if (!seenIds.add(question.getId())) {
+                    throw new RuntimeException(ErrorMessages.QUESTION_DUPLICATED + ": " + question.getId());
+                }
+            }
         }
         
-        return surveyRepository.save(survey);
+        List<Question> result = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            Question next;
+            if (question.getId() == null) {
+                next = question.toBuilder().id(newIds.get(i)).build();
+            } else if (isReferenceOnly(question)) {
+                next = existing.get(question.getId()).toBuilder().build();
+            } else {
+                next = question.toBuilder().build();
+            }
+            next.setSurveyId(survey.getId());
+            next.setOrder(result.size() + 1);
+            result.add(next);
+        }
+        return result;
     }
     
-    public Survey deleteQuestion(String surveyId, String questionId, String userId) {
+    public Survey deleteQuestion(String surveyId, String questionId, String userId, Set<Long> expectedVersions) {
         Survey survey = getSurvey(surveyId);
         
         if (!survey.getCreatedBy().equals(userId)) {
             throw new RuntimeException(ErrorMessages.UNAUTHORIZED);
         }
         
-        survey.getQuestions().removeIf(q -> q.getId().equals(questionId));
-        survey.setUpdatedAt(LocalDateTime.now());
-        
+        LocalDateTime now = LocalDateTime.now();
+        return commit(survey, expectedVersions, target -> {
+            if (target.getQuestions() != null) {
+                target.getQuestions().removeIf(q -> q.getId().equals(questionId));
+            }
+            markEdited(target, now);
+        });
+    }
+    
+    /**
+     * Fecha de expiración a partir de la duración configurada, o null si no expira
+     */
+    private static LocalDateTime computeExpiresAt(String durationUnit, Integer durationValue, LocalDateTime now) {
+        if (durationUnit == null || AppConstants.DURATION_UNIT_NONE.equals(durationUnit)
+            || durationValue == null || durationValue <= 0) {
+            return null;
+        }
+        switch (durationUnit) {
+            case AppConstants.DURATION_UNIT_MINUTES:
+                return now.plusMinutes(durationValue);
+            case AppConstants.DURATION_UNIT_HOURS:
+                return now.plusHours(durationValue);
+            case AppConstants.DURATION_UNIT_DAYS:
+                return now.plusDays(durationValue);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Marca la edición; una encuesta publicada que se modifica vuelve a borrador
+     */
+    private static void markEdited(Survey survey, LocalDateTime now) {
+        survey.setUpdatedAt(now);
         if (Boolean.TRUE.equals(survey.getIsPublished())) {
             survey.setIsPublished(false);
         }
-        
-        return surveyRepository.save(survey);
+    }
+    
+    private static List<String> generateIds(List<Question> questions) {
+        List<String> ids = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            ids.add(question.getId() == null ? UUID.randomUUID().toString() : null);
+        }
+        return ids;
+    }
+    
+    /**
+     * Aplica la modificación y la guarda de inmediato con compare-and-set (junto con los
+     * autoguardados pendientes), y actualiza el temporizador de expiración
+     */
+    private Survey commit(Survey survey, Set<Long> expectedVersions, Consumer<Survey> mutation) {
+        Survey saved = surveyWriteCoalescer.commit(survey, expectedVersions, mutation);
+        surveyExpirationService.track(saved);
+        return saved;
     }
     
     /**
-     * Valida que el tamaño de la imagen en base64 no exceda los 2MB
+     * Registra una edición de autoguardado; se persiste agrupada con las siguientes
      */
-    private void validateBase64ImageSize(String base64Image) {
-        if (base64Image == null || base64Image.isEmpty()) {
-            return;
+    private Survey stage(Survey survey, Set<Long> expectedVersions, Consumer<Survey> mutation) {
+        Survey staged = surveyWriteCoalescer.stage(survey, expectedVersions, mutation);
+        surveyExpirationService.track(staged);
+        return staged;
+    }
+    
+    /**
+     * Copia del patch con las imágenes en línea de {@code questions} ya guardadas en el
+     * almacén; se hace antes de aplicarlo para que reaplicarlo no vuelva a guardarlas.
+     */
+    private JsonNode externalizeImages(JsonNode patch) {
+        JsonNode questionsNode = patch.get(SurveyMergePatch.QUESTIONS);
+        if (questionsNode == null || !questionsNode.isContainerNode()) {
+            return patch;
         }
-        
-        // Calcular tamaño aproximado del base64 (cada carácter base64 = 6 bits)
-        // Tamaño real = (longitud * 3) / 4
-        long estimatedSize = (base64Image.length() * 3L) / 4;
-        
-        if (estimatedSize > AppConstants.MAX_IMAGE_SIZE_BYTES) {
-            log.warn("Image size exceeded: {} bytes", estimatedSize);
-            throw new RuntimeException(ErrorMessages.IMAGE_SIZE_EXCEEDED);
+        ObjectNode copy = patch.deepCopy();
+        for (JsonNode question : copy.get(SurveyMergePatch.QUESTIONS)) {
+            JsonNode imageUrl = question.get("imageUrl");
+            if (question.isObject() && imageUrl != null && imageUrl.isTextual()) {
+                ((ObjectNode) question).put("imageUrl", questionImageService.externalize(imageUrl.asText()));
+            }
         }
+        return copy;
+    }
+    
+    private static boolean isReferenceOnly(Question question) {
+        return question.getTitle() == null
+                && question.getType() == null
+                && question.getOptions() == null
+                && question.getRequired() == null
+                && question.getImageUrl() == null;
     }
 }
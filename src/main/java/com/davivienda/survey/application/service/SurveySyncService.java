@@ -0,0 +1,198 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.SurveyChanges;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.domain.model.SurveyTombstone;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed de cambios de encuestas para clientes que guardan el catálogo localmente.
+ *
+ * <p>Los resúmenes y las marcas de eliminación llevan un {@code changedAt} con la hora del
+ * servidor de Firebase. El feed los recorre ordenados por ({@code changedAt}, ID) y el token
+ * lleva la última posición entregada, así que dos cambios en el mismo milisegundo no se
+ * pierden entre páginas. El token es opaco para el cliente.</p>
+ *
+ * <p>Las marcas de eliminación se conservan {@code survey.changes.tombstone-retention-days}.
+ * El token también lleva la hora del servidor en que el cliente quedó al día (la de la primera
+ * página mientras quedan más); si es más antigua que la retención ya no se puede garantizar
+ * que vea todas las eliminaciones y el feed vuelve a empezar con {@code fullResync}. No se usa
+ * la posición para esto: en un catálogo sin cambios recientes la posición es antigua aunque
+ * el cliente sincronice a diario.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SurveySyncService {
+
+    private static final Position START = new Position(0, null);
+    private static final long PRUNE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final SurveyRepository surveyRepository;
+    private final AtomicLong lastPrune = new AtomicLong();
+
+    @Value("${survey.changes.page-size:200}")
+    private int pageSize;
+
+    @Value("${survey.changes.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    /**
+     * Cambios posteriores al token (o todo el catálogo si es null). El usuario ve sus propias
+     * encuestas en cualquier estado y las de otros solo mientras estén publicadas y abiertas;
+     * el resto de cambios se informa como eliminación.
+     */
+    public SurveyChanges getChanges(String token, String userId) {
+        Token cursor = parse(token);
+        Position position = cursor.position();
+        long now = System.currentTimeMillis();
+        long retentionCutoff = now - TimeUnit.DAYS.toMillis(tombstoneRetentionDays);
+        // Un token en 0 no ha visto nada todavía: empezar de nuevo no le hace perder eliminaciones
+        boolean fullResync = cursor.syncedAt() > 0 && cursor.syncedAt() < retentionCutoff;
+        if (fullResync) {
+            position = START;
+        }
+        pruneTombstones(retentionCutoff);
+
+        List<SurveySummary> summaries = surveyRepository.findSummariesChangedSince(
+                position.changedAt(), position.afterId(), pageSize);
+        List<SurveyTombstone> tombstones = surveyRepository.findTombstonesSince(
+                position.changedAt(), position.afterId(), pageSize);
+
+        List<SurveySummary> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        Position last = position;
+        int s = 0;
+        int t = 0;
+        while ((s < summaries.size() || t < tombstones.size()) && changed.size() + removed.size() < pageSize) {
+            boolean takeSummary = t >= tombstones.size() || (s < summaries.size()
+                    && compare(summaries.get(s).getChangedAt(), summaries.get(s).getId(),
+                            tombstones.get(t).getChangedAt(), tombstones.get(t).getId()) <= 0);
+            if (takeSummary) {
+                SurveySummary summary = summaries.get(s++);
+                if (isVisible(summary, userId)) {
+                    changed.add(summary);
+                } else {
+                    removed.add(summary.getId());
+                }
+                last = new Position(orZero(summary.getChangedAt()), summary.getId());
+            } else {
+                SurveyTombstone tombstone = tombstones.get(t++);
+                removed.add(tombstone.getId());
+                last = new Position(orZero(tombstone.getChangedAt()), tombstone.getId());
+            }
+        }
+
+        // Si una de las dos listas llegó al límite puede haber más elementos detrás
+        boolean hasMore = s < summaries.size() || t < tombstones.size()
+                || summaries.size() >= pageSize || tombstones.size() >= pageSize;
+        // Mientras quedan páginas el cliente sigue al día solo hasta donde empezó a leer
+        long syncedAt = hasMore && !fullResync && cursor.syncedAt() > 0 ? cursor.syncedAt() : now;
+
+        return SurveyChanges.builder()
+                .token(encode(new Token(syncedAt, last)))
+                .changed(changed)
+                .removed(removed)
+                .fullResync(fullResync)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static boolean isVisible(SurveySummary summary, String userId) {
+        if (userId != null && userId.equals(summary.getCreatedBy())) {
+            return true;
+        }
+        return Boolean.TRUE.equals(summary.getIsPublished()) && !Boolean.TRUE.equals(summary.getIsClosed());
+    }
+
+    /**
+     * Depura las marcas vencidas como mucho una vez por hora, sin bloquear la petición.
+     */
+    private void pruneTombstones(long cutoff) {
+        long now = System.currentTimeMillis();
+        long previous = lastPrune.get();
+        if (now - previous < PRUNE_INTERVAL_MS || !lastPrune.compareAndSet(previous, now)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> surveyRepository.deleteTombstonesBefore(cutoff))
+                .exceptionally(e -> {
+                    log.warn("No se pudieron depurar las marcas de encuestas eliminadas: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private static int compare(Long changedAt, String id, Long otherChangedAt, String otherId) {
+        int byTime = Long.compare(orZero(changedAt), orZero(otherChangedAt));
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    static String encode(Token token) {
+        Position position = token.position();
+        return Long.toString(token.syncedAt(), Character.MAX_RADIX) + "."
+                + Long.toString(position.changedAt(), Character.MAX_RADIX) + "."
+                + (position.afterId() != null ? position.afterId() : "");
+    }
+
+    static Token parse(String token) {
+        if (token == null || token.isBlank()) {
+            return new Token(0, START);
+        }
+        int first = token.indexOf('.');
+        int second = first > 0 ? token.indexOf('.', first + 1) : -1;
+        if (second < 0) {
+            // Formato anterior, sin la hora de sincronización: se usa la de la posición
+            long changedAt = timestamp(token, 0, first);
+            return new Token(changedAt, position(changedAt, token.substring(first + 1)));
+        }
+        long syncedAt = timestamp(token, 0, first);
+        long changedAt = timestamp(token, first + 1, second);
+        return new Token(syncedAt, position(changedAt, token.substring(second + 1)));
+    }
+
+    private static long timestamp(String token, int start, int end) {
+        if (end <= start) {
+            throw new RuntimeException(ErrorMessages.SYNC_TOKEN_INVALID);
+        }
+        long value;
+        try {
+            value = Long.parseLong(token.substring(start, end), Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(ErrorMessages.SYNC_TOKEN_INVALID);
+        }
+        if (value < 0) {
+            throw new RuntimeException(ErrorMessages.SYNC_TOKEN_INVALID);
+        }
+        return value;
+    }
+
+    private static Position position(long changedAt, String afterId) {
+        return afterId.isEmpty() ? new Position(changedAt, null) : new Position(changedAt, afterId);
+    }
+
+    /**
+     * Hora del servidor en que el cliente quedó al día y posición desde la que sigue leyendo.
+     */
+    record Token(long syncedAt, Position position) {
+    }
+
+    /**
+     * Última posición entregada en el orden ({@code changedAt}, ID).
+     */
+    record Position(long changedAt, String afterId) {
+    }
+}
@@ -0,0 +1,387 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Agrupa las ediciones de autoguardado del editor de encuestas y hace todas las escrituras
+ * de encuestas existentes con compare-and-set.
+ *
+ * <p>Cada edición se registra como una modificación ({@link Consumer}) además de aplicarse al
+ * estado visible. Las ediciones de una misma encuesta dentro de la ventana configurada se
+ * persisten con una sola escritura al cerrar la ventana; mientras tanto {@link #pending(String)}
+ * devuelve el estado combinado para que las lecturas vean las propias escrituras. Al escribir
+ * se guarda la encuesta solo si su versión no cambió; si otra instancia escribió antes, se
+ * vuelve a leer y se reaplican las modificaciones sobre el estado nuevo, como mucho
+ * {@code survey.write.max-attempts} veces. Así dos editores que agregan preguntas a la vez no
+ * se pisan, sin bloqueos globales.</p>
+ *
+ * <p>Las ediciones con {@code If-Match} no se reaplican: se comprobaron contra una versión que
+ * ya no es la guardada. Si la escritura pierde el compare-and-set, una edición inmediata
+ * ({@link #commit}) con {@code If-Match} responde 412 y un autoguardado con {@code If-Match}
+ * se descarta (el editor lo nota en su siguiente escritura, con la versión nueva).</p>
+ *
+ * <p>Cada modificación suma uno a la versión, de modo que la versión que ve el editor coincide
+ * con la que queda guardada si nadie más escribió. Las modificaciones deben poder aplicarse de
+ * nuevo sobre otro estado: buscan por ID y no dependen de posiciones ni de la hora de
+ * aplicación.</p>
+ */
+@Service
+@Slf4j
+public class SurveyWriteCoalescer {
+
+    private final SurveyRepository surveyRepository;
+    private final PublicSurveyCache publicSurveyCache;
+    private final long windowMs;
+    private final int maxAttempts;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Counter stagedCounter;
+    private final Counter flushedCounter;
+    private final Counter conflictCounter;
+
+    public SurveyWriteCoalescer(
+            SurveyRepository surveyRepository,
+            PublicSurveyCache publicSurveyCache,
+            MeterRegistry meterRegistry,
+            @Value("${survey.write-coalescing.window-ms:500}") long windowMs,
+            @Value("${survey.write.max-attempts:5}") int maxAttempts
+    ) {
+        this.surveyRepository = surveyRepository;
+        this.publicSurveyCache = publicSurveyCache;
+        this.windowMs = windowMs;
+        this.maxAttempts = maxAttempts;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "survey-write-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.stagedCounter = meterRegistry.counter("survey.writes.staged");
+        this.flushedCounter = meterRegistry.counter("survey.writes.flushed");
+        this.conflictCounter = meterRegistry.counter("survey.writes.conflicts");
+    }
+
+    /**
+     * Registra una edición de autoguardado; se persistirá al cerrar la ventana.
+     *
+     * @param current         estado leído por la petición (se usa si no hay nada pendiente)
+     * @param expectedVersions versiones aceptadas por {@code If-Match}, o null
+     */
+    public Survey stage(Survey current, Set<Long> expectedVersions, Consumer<Survey> mutation) {
+        String surveyId = current.getId();
+        while (true) {
+            PendingWrite entry = pending.computeIfAbsent(surveyId, id -> new PendingWrite());
+            synchronized (entry) {
+                if (entry.completed) {
+                    continue;
+                }
+                Survey next = record(surveyId, entry, current, expectedVersions, mutation);
+                if (entry.flushTask == null) {
+                    entry.flushTask = scheduler.schedule(() -> flush(surveyId, entry), windowMs, TimeUnit.MILLISECONDS);
+                }
+                stagedCounter.increment();
+                return copy(next);
+            }
+        }
+    }
+
+    /**
+     * Aplica la edición y la persiste de inmediato junto con lo pendiente.
+     *
+     * @param current         estado leído por la petición (se usa si no hay nada pendiente)
+     * @param expectedVersions versiones aceptadas por {@code If-Match}, o null
+     */
+    public Survey commit(Survey current, Set<Long> expectedVersions, Consumer<Survey> mutation) {
+        String surveyId = current.getId();
+        while (true) {
+            PendingWrite entry = pending.computeIfAbsent(surveyId, id -> new PendingWrite());
+            synchronized (entry) {
+                if (entry.completed) {
+                    continue;
+                }
+                Survey previous = entry.preview;
+                record(surveyId, entry, current, expectedVersions, mutation);
+                Edit edit = entry.edits.get(entry.edits.size() - 1);
+                try {
+                    return copy(write(surveyId, entry, edit));
+                } catch (RuntimeException e) {
+                    // Lo ya pendiente se sigue intentando en segundo plano; esta edición no
+                    // (si perdió el compare-and-set con If-Match ya se quitó al releer)
+                    if (entry.edits.remove(edit)) {
+                        entry.preview = previous;
+                    }
+                    if (entry.edits.isEmpty() || isNotFound(e)) {
+                        complete(surveyId, entry);
+                    }
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Estado combinado pendiente de persistir, si existe.
+     */
+    public Optional<Survey> pending(String surveyId) {
+        PendingWrite entry = pending.get(surveyId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        synchronized (entry) {
+            return entry.completed || entry.preview == null ? Optional.empty() : Optional.of(copy(entry.preview));
+        }
+    }
+
+    /**
+     * Reemplaza en la lista las encuestas que tienen ediciones pendientes.
+     */
+    public List<Survey> overlay(List<Survey> surveys) {
+        if (pending.isEmpty()) {
+            return surveys;
+        }
+        return surveys.stream()
+                .map(survey -> pending(survey.getId()).orElse(survey))
+                .toList();
+    }
+
+    /**
+     * Reemplaza en la lista de resúmenes los de encuestas con ediciones pendientes,
+     * conservando el conteo de respuestas guardado.
+     */
+    public List<SurveySummary> overlaySummaries(List<SurveySummary> summaries) {
+        if (pending.isEmpty()) {
+            return summaries;
+        }
+        return summaries.stream()
+                .map(summary -> pending(summary.getId())
+                        .map(survey -> SurveySummary.from(survey).toBuilder()
+                                .responseCount(summary.getResponseCount())
+                                .build())
+                        .orElse(summary))
+                .toList();
+    }
+
+    /**
+     * Descarta las ediciones pendientes, p. ej. antes de una escritura directa o una eliminación.
+     * Si la encuesta se está persistiendo en este momento, espera a que termine.
+     */
+    public void discard(String surveyId) {
+        PendingWrite entry = pending.get(surveyId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            complete(surveyId, entry);
+        }
+    }
+
+    /**
+     * Persiste ya las ediciones pendientes de la encuesta, p. ej. antes de una eliminación
+     * condicionada a la versión que ve el editor.
+     */
+    public void flushNow(String surveyId) {
+        PendingWrite entry = pending.get(surveyId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (!entry.completed) {
+                write(surveyId, entry, null);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        scheduler.shutdown();
+        pending.forEach(this::flush);
+    }
+
+    private void flush(String surveyId, PendingWrite entry) {
+        synchronized (entry) {
+            if (entry.completed) {
+                return;
+            }
+            try {
+                write(surveyId, entry, null);
+            } catch (RuntimeException e) {
+                if (isNotFound(e)) {
+                    log.warn("La encuesta {} se eliminó con ediciones pendientes, se descartan", surveyId);
+                    complete(surveyId, entry);
+                    return;
+                }
+                log.error("Error persistiendo ediciones agrupadas de la encuesta {}, se reintentará", surveyId, e);
+                if (!scheduler.isShutdown()) {
+                    entry.flushTask = scheduler.schedule(() -> flush(surveyId, entry), windowMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplica la edición al estado visible y la agrega a las pendientes. Se llama con el lock de la entrada.
+     */
+    private Survey record(String surveyId, PendingWrite entry, Survey current, Set<Long> expectedVersions,
+                          Consumer<Survey> mutation) {
+        Survey visible = entry.preview != null ? entry.preview : current;
+        long visibleVersion = versionOf(visible);
+        Survey next = copy(visible);
+        try {
+            if (expectedVersions != null && !expectedVersions.contains(visibleVersion)) {
+                throw new RuntimeException(String.format(ErrorMessages.SURVEY_VERSION_MISMATCH, visibleVersion));
+            }
+            mutation.accept(next);
+        } catch (RuntimeException e) {
+            // Una entrada recién creada no debe quedar vacía en el mapa
+            if (entry.edits.isEmpty()) {
+                complete(surveyId, entry);
+            }
+            throw e;
+        }
+        next.setVersion(visibleVersion + 1);
+        if (entry.preview == null) {
+            entry.base = copy(current);
+        }
+        entry.edits.add(new Edit(mutation, expectedVersions != null));
+        entry.preview = next;
+        return next;
+    }
+
+    /**
+     * Compare-and-set con reintentos: ante un conflicto se relee la encuesta y se reaplican
+     * las modificaciones sin {@code If-Match}. Se llama con el lock de la entrada.
+     *
+     * @param required edición de la petición en curso, o null al persistir en segundo plano
+     */
+    private Survey write(String surveyId, PendingWrite entry, Edit required) {
+        Survey stored = entry.base;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (stored == null) {
+                stored = find(surveyId);
+            }
+            long storedVersion = versionOf(stored);
+            Survey next = apply(stored, entry.edits);
+            if (surveyRepository.compareAndSet(next, storedVersion)) {
+                publicSurveyCache.invalidate(surveyId);
+                flushedCounter.increment();
+                complete(surveyId, entry);
+                return next;
+            }
+            conflictCounter.increment();
+            stored = find(surveyId);
+            if (entry.edits.removeIf(Edit::conditional)) {
+                entry.base = stored;
+                entry.preview = apply(stored, entry.edits);
+                if (required != null && required.conditional()) {
+                    throw new RuntimeException(String.format(ErrorMessages.SURVEY_VERSION_MISMATCH, versionOf(stored)));
+                }
+                log.warn("La encuesta {} cambió a la versión {}, se descartan los autoguardados con If-Match",
+                        surveyId, versionOf(stored));
+                if (entry.edits.isEmpty()) {
+                    complete(surveyId, entry);
+                    return stored;
+                }
+            }
+            log.info("Conflicto de versión en la encuesta {} (intento {}), se reaplican {} ediciones",
+                    surveyId, attempt, entry.edits.size());
+        }
+        entry.base = null;
+        throw new RuntimeException(ErrorMessages.SURVEY_WRITE_CONFLICT);
+    }
+
+    private Survey find(String surveyId) {
+        return surveyRepository.findById(surveyId)
+                .orElseThrow(() -> new RuntimeException(ErrorMessages.SURVEY_NOT_FOUND));
+    }
+
+    /**
+     * Estado guardado con las ediciones aplicadas; cada una suma uno a la versión.
+     */
+    private static Survey apply(Survey stored, List<Edit> edits) {
+        Survey next = copy(stored);
+        edits.forEach(edit -> edit.mutation().accept(next));
+        next.setVersion(versionOf(stored) + edits.size());
+        return next;
+    }
+
+    private static boolean isNotFound(RuntimeException e) {
+        return e.getMessage() != null && e.getMessage().contains(ErrorMessages.SURVEY_NOT_FOUND);
+    }
+
+    private static long versionOf(Survey survey) {
+        return survey.getVersion() != null ? survey.getVersion() : 0L;
+    }
+
+    private void complete(String surveyId, PendingWrite entry) {
+        entry.completed = true;
+        if (entry.flushTask != null) {
+            entry.flushTask.cancel(false);
+        }
+        pending.remove(surveyId, entry);
+    }
+
+    private static Survey copy(Survey survey) {
+        List<Question> questions = null;
+        if (survey.getQuestions() != null) {
+            questions = new ArrayList<>(survey.getQuestions().size());
+            for (Question question : survey.getQuestions()) {
+                questions.add(question.toBuilder()
+                        .options(question.getOptions() != null ? new ArrayList<>(question.getOptions()) : null)
+                        .build());
+            }
+        }
+        return survey.toBuilder().questions(questions).build();
+    }
+
+    private static final class PendingWrite {
+        // Último estado leído de la base de datos y estado visible con las ediciones aplicadas
+        private Survey base;
+        private Survey preview;
+        private final List<Edit> edits = new ArrayList<>();
+        private ScheduledFuture<?> flushTask;
+        private boolean completed;
+    }
+
+    /**
+     * Modificación pendiente; {@code conditional} si se envió con {@code If-Match}. Se compara
+     * por identidad: la misma lambda puede estar en dos ediciones.
+     */
+    private static final class Edit {
+        private final Consumer<Survey> mutation;
+        private final boolean conditional;
+
+        private Edit(Consumer<Survey> mutation, boolean conditional) {
+            this.mutation = mutation;
+            this.conditional = conditional;
+        }
+
+        private Consumer<Survey> mutation() {
+            return mutation;
+        }
+
+        private boolean conditional() {
+            return conditional;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Candidata de un {@code srcset}: URL de una versión de la imagen y su ancho en píxeles.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageSource {
+    private String url;
+    private Integer width;
+}
@@ -0,0 +1,33 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versiones reducidas generadas para una imagen del almacén. Sin dimensiones la imagen no se
+ * pudo decodificar (o su tipo no se reduce) y se sirve siempre la original.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariants {
+    private Integer width;
+    private Integer height;
+    // Ordenadas de menor a mayor ancho; todas más angostas que la original
+    @Builder.Default
+    private List<Variant> variants = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variant {
+        private int width;
+        private String hash;
+    }
+}
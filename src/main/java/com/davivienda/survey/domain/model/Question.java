@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Question {
@@ -20,4 +20,6 @@ public class Question {
     private Boolean required;
     private Integer order;
     private String imageUrl;
+    // Versiones reducidas de la imagen para los encuestados; se calcula al leer, no se guarda
+    private List<ImageSource> imageSrcset;
 }
@@ -0,0 +1,20 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Imagen guardada en el almacén de imágenes, identificada por el SHA-256 de su contenido.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredImage {
+    // SHA-256 del contenido en hexadecimal (minúsculas)
+    private String hash;
+    private String mediaType;
+    private long size;
+}
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Survey {
@@ -20,8 +20,12 @@ public class Survey {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean isPublished;
+    private Boolean isClosed;
     private Integer durationValue;
     private String durationUnit; 
     private LocalDateTime expiresAt;
+    private Integer maxResponses;
     private List<Question> questions;
+    // Se incrementa en cada escritura; base del compare-and-set y de If-Match
+    private Long version;
 }
@@ -0,0 +1,50 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Campos de una encuesta modificados por una edición parcial: indica si el patch cambia algo
+ * (uno sin cambios no genera escritura ni nueva versión) y qué recalcular, como la expiración
+ * al cambiar la duración.
+ *
+ * <p>No se usa para escribir solo esas rutas: la edición se guarda con el compare-and-set de
+ * la versión, y una transacción de Firebase escribe el nodo completo de la encuesta.</p>
+ *
+ * <p>Las preguntas se identifican por ID. Si la lista cambia de tamaño u orden (una pregunta
+ * eliminada) se marca como reemplazada.</p>
+ */
+@Getter
+public class SurveyChangeSet {
+
+    private final Set<String> fields = new LinkedHashSet<>();
+    private final Set<String> questionIds = new LinkedHashSet<>();
+    private boolean questionsReplaced;
+
+    public void field(String name) {
+        fields.add(name);
+    }
+
+    public void question(String questionId) {
+        questionIds.add(questionId);
+    }
+
+    public void replaceQuestions() {
+        questionsReplaced = true;
+    }
+
+    public Set<String> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    public Set<String> getQuestionIds() {
+        return Collections.unmodifiableSet(questionIds);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty() && questionIds.isEmpty() && !questionsReplaced;
+    }
+}
@@ -0,0 +1,48 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección liviana de una encuesta para los listados: sin preguntas ni imágenes.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveySummary {
+    private String id;
+    private String title;
+    private String description;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Boolean isPublished;
+    private Boolean isClosed;
+    private LocalDateTime expiresAt;
+    private Integer maxResponses;
+    private Integer questionCount;
+    private Long responseCount;
+    // Marca de tiempo del servidor (ms) del último cambio; la asigna el repositorio al guardar
+    private Long changedAt;
+
+    public static SurveySummary from(Survey survey) {
+        return SurveySummary.builder()
+                .id(survey.getId())
+                .title(survey.getTitle())
+                .description(survey.getDescription())
+                .createdBy(survey.getCreatedBy())
+                .createdAt(survey.getCreatedAt())
+                .updatedAt(survey.getUpdatedAt())
+                .isPublished(survey.getIsPublished())
+                .isClosed(survey.getIsClosed())
+                .expiresAt(survey.getExpiresAt())
+                .maxResponses(survey.getMaxResponses())
+                .questionCount(survey.getQuestions() != null ? survey.getQuestions().size() : 0)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.davivienda.survey.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marca de una encuesta eliminada, para que el feed de cambios pueda informar la eliminación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveyTombstone {
+    private String id;
+    // Marca de tiempo del servidor (ms) de la eliminación
+    private Long changedAt;
+}
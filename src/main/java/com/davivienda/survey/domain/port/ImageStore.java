@@ -0,0 +1,55 @@
+package com.davivienda.survey.domain.port;
+
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.StoredImage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Almacén de imágenes direccionado por contenido: la clave es el SHA-256 de los bytes, así
+ * que guardar dos veces la misma imagen no ocupa espacio extra.
+ */
+public interface ImageStore {
+    /**
+     * Guarda la imagen leyendo el flujo hasta el final, sin tenerla completa en memoria.
+     * Si la lectura falla no queda nada guardado.
+     */
+    StoredImage save(String mediaType, InputStream data);
+
+    default StoredImage save(String mediaType, byte[] data) {
+        return save(mediaType, new ByteArrayInputStream(data));
+    }
+
+    Optional<StoredImage> find(String hash);
+
+    /**
+     * Marca la imagen como recién guardada, igual que guardarla de nuevo, para que la
+     * limpieza no la elimine; devuelve false si no existe.
+     */
+    boolean touch(String hash);
+
+    Optional<byte[]> read(String hash);
+
+    /**
+     * Archivo local con los bytes de la imagen, para enviarlo sin pasar por memoria. Vacío
+     * si la imagen no existe o el almacén no está en el disco de esta instancia.
+     */
+    default Optional<Path> locate(String hash) {
+        return Optional.empty();
+    }
+
+    void saveVariants(String hash, ImageVariants variants);
+    Optional<ImageVariants> findVariants(String hash);
+
+    /**
+     * Elimina las imágenes que no están en {@code referenced} y se guardaron antes de
+     * {@code storedBefore}, junto con su registro de versiones reducidas; devuelve cuántas
+     * se eliminaron.
+     */
+    int deleteUnreferenced(Set<String> referenced, Instant storedBefore);
+}
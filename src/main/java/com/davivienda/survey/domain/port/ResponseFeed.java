@@ -0,0 +1,25 @@
+package com.davivienda.survey.domain.port;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+
+/**
+ * Suscripción a las respuestas de una encuesta a medida que se guardan (en cualquier instancia).
+ */
+public interface ResponseFeed {
+
+    /**
+     * Entrega primero las respuestas ya guardadas, luego {@link Listener#onInitialLoadComplete()}
+     * y después cada respuesta nueva.
+     */
+    Subscription subscribe(String surveyId, Listener listener);
+
+    interface Listener {
+        void onResponse(SurveyResponse response);
+        void onInitialLoadComplete();
+        void onError(Exception error);
+    }
+
+    interface Subscription {
+        void close();
+    }
+}
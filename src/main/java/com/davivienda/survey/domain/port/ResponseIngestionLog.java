@@ -0,0 +1,21 @@
+package com.davivienda.survey.domain.port;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface ResponseIngestionLog {
+    void append(SurveyResponse response);
+    
+    /**
+     * Anexa un lote de respuestas con una sola confirmación de durabilidad.
+     */
+    void appendAll(List<SurveyResponse> responses);
+    
+    /**
+     * IDs de {@code ids} que ya están en el log y todavía no llegan al repositorio.
+     */
+    Set<String> findPendingIds(Collection<String> ids);
+}
@@ -0,0 +1,7 @@
+package com.davivienda.survey.domain.port;
+
+public interface ResponseQuotaRepository {
+    long lease(String surveyId, long requested, long maxResponses);
+    void release(String surveyId, long unused);
+    void deleteBySurveyId(String surveyId);
+}
@@ -2,10 +2,14 @@ package com.davivienda.survey.domain.port;
 
 import com.davivienda.survey.domain.model.SurveyResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ResponseRepository {
     SurveyResponse save(SurveyResponse response);
+    List<SurveyResponse> saveAll(List<SurveyResponse> responses);
     List<SurveyResponse> findBySurveyId(String surveyId);
+    Set<String> findExistingIds(Collection<String> ids);
     void deleteById(String id);
 }
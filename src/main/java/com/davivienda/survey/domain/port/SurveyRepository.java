@@ -1,15 +1,50 @@
 package com.davivienda.survey.domain.port;
 
 import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.domain.model.SurveyTombstone;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface SurveyRepository {
     Survey save(Survey survey);
+    
+    /**
+     * Guarda la encuesta solo si la versión almacenada sigue siendo {@code expectedVersion}
+     * (compare-and-set). Devuelve false si otra escritura la cambió antes; lanza una excepción
+     * si la encuesta ya no existe.
+     */
+    boolean compareAndSet(Survey survey, long expectedVersion);
     Optional<Survey> findById(String id);
+    CompletableFuture<Optional<Survey>> findByIdAsync(String id);
     List<Survey> findAll();
     List<Survey> findByCreatedBy(String userId);
     List<Survey> findByIsPublished(boolean isPublished);
     void deleteById(String id);
+    
+    /**
+     * Elimina la encuesta solo si la versión almacenada sigue siendo {@code expectedVersion}.
+     * Devuelve false si otra escritura la cambió antes; lanza una excepción si ya no existe.
+     */
+    boolean deleteIfVersion(String id, long expectedVersion);
+    void markClosed(String id);
+    List<SurveySummary> findAllSummaries();
+    List<SurveySummary> findSummariesByCreatedBy(String userId);
+    List<SurveySummary> findSummariesByIsPublished(boolean isPublished);
+    
+    /**
+     * Resúmenes con cambios posteriores a la posición ({@code changedAt}, {@code afterId}),
+     * ordenados por {@code changedAt} y luego por ID. {@code afterId} puede ser null.
+     */
+    List<SurveySummary> findSummariesChangedSince(long changedAt, String afterId, int limit);
+    
+    /**
+     * Encuestas eliminadas después de la posición indicada, con el mismo orden que
+     * {@link #findSummariesChangedSince(long, String, int)}.
+     */
+    List<SurveyTombstone> findTombstonesSince(long changedAt, String afterId, int limit);
+    
+    void deleteTombstonesBefore(long changedAt);
 }
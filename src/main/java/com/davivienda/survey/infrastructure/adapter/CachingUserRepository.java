@@ -0,0 +1,151 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.model.User;
+import com.davivienda.survey.domain.port.UserRepository;
+import com.davivienda.survey.infrastructure.cache.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché delante de {@link FirebaseUserRepository}.
+ *
+ * <p>Guarda los usuarios por id y por email (LRU acotada con TTL) y recuerda por poco
+ * tiempo los emails que no existen, para absorber intentos de login masivos con cuentas
+ * inventadas. {@code save} y {@code deleteById} invalidan las entradas afectadas en esta
+ * instancia; en otras instancias los cambios se ven al vencer el TTL.</p>
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "firebase.enabled", havingValue = "true")
+public class CachingUserRepository implements UserRepository {
+    
+    private final FirebaseUserRepository delegate;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final BoundedTtlCache<String, User> usersById;
+    private final BoundedTtlCache<String, User> usersByEmail;
+    private final BoundedTtlCache<String, Boolean> unknownEmails;
+    // Cambia en cada escritura; una lectura que se cruzó con una escritura no se cachea
+    private final AtomicLong writes = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter negativeHits;
+    
+    public CachingUserRepository(
+            FirebaseUserRepository delegate,
+            MeterRegistry meterRegistry,
+            @Value("${user-cache.max-entries:10000}") int maxEntries,
+            @Value("${user-cache.ttl-ms:300000}") long ttlMs,
+            @Value("${user-cache.negative-ttl-ms:30000}") long negativeTtlMs
+    ) {
+        this.delegate = delegate;
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.usersById = new BoundedTtlCache<>(maxEntries);
+        this.usersByEmail = new BoundedTtlCache<>(maxEntries);
+        this.unknownEmails = new BoundedTtlCache<>(maxEntries);
+        this.hits = meterRegistry.counter("user.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("user.cache.requests", "result", "miss");
+        this.negativeHits = meterRegistry.counter("user.cache.requests", "result", "negative_hit");
+    }
+    
+    @Override
+    public User save(User user) {
+        User previous = usersById.get(user.getId());
+        writes.incrementAndGet();
+        User saved = delegate.save(user);
+        
+        if (previous != null) {
+            usersByEmail.invalidate(previous.getEmail());
+        }
+        unknownEmails.invalidate(saved.getEmail());
+        cache(saved);
+        return saved;
+    }
+    
+    @Override
+    public Optional<User> findById(String id) {
+        User cached = usersById.get(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(copy(cached));
+        }
+        
+        misses.increment();
+        return load(() -> delegate.findById(id), null);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        User cached = usersByEmail.get(email);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(copy(cached));
+        }
+        if (unknownEmails.get(email) != null) {
+            negativeHits.increment();
+            return Optional.empty();
+        }
+        
+        misses.increment();
+        return load(() -> delegate.findByEmail(email), email);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+    
+    @Override
+    public void deleteById(String id) {
+        User existing = usersById.get(id);
+        if (existing == null) {
+            // Se necesita el email para invalidar también esa entrada
+            existing = delegate.findById(id).orElse(null);
+        }
+        writes.incrementAndGet();
+        delegate.deleteById(id);
+        
+        usersById.invalidate(id);
+        if (existing != null) {
+            usersByEmail.invalidate(existing.getEmail());
+        }
+    }
+    
+    private Optional<User> load(Supplier<Optional<User>> query, String email) {
+        long writesBefore = writes.get();
+        Optional<User> user = query.get();
+        if (writes.get() != writesBefore) {
+            return user;
+        }
+        
+        if (user.isPresent()) {
+            cache(user.get());
+            return Optional.of(copy(user.get()));
+        }
+        if (email != null) {
+            unknownEmails.put(email, Boolean.TRUE, System.currentTimeMillis() + negativeTtlMs);
+        }
+        return user;
+    }
+    
+    private void cache(User user) {
+        // Se guarda una copia: los llamadores pueden modificar el usuario devuelto
+        User copy = copy(user);
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        usersById.put(copy.getId(), copy, expiresAt);
+        usersByEmail.put(copy.getEmail(), copy, expiresAt);
+    }
+    
+    private static User copy(User user) {
+        return user.toBuilder().build();
+    }
+}
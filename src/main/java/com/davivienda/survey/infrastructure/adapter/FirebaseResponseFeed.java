@@ -0,0 +1,85 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseFeed;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Escucha {@code responses} filtrado por {@code surveyId} (requiere {@code ".indexOn": ["surveyId"]}
+ * en las reglas de la base de datos). Firebase entrega primero las respuestas existentes como
+ * {@code onChildAdded}; el listener de valor único registrado después se dispara cuando
+ * terminó esa carga inicial.
+ */
+@Component
+@Slf4j
+public class FirebaseResponseFeed implements ResponseFeed {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Subscription subscribe(String surveyId, Listener listener) {
+        Query query = FirebaseDatabase.getInstance().getReference()
+                .child("responses")
+                .orderByChild("surveyId")
+                .equalTo(surveyId);
+
+        ChildEventListener childListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                Object value = snapshot.getValue();
+                if (!(value instanceof Map)) {
+                    return;
+                }
+                SurveyResponse response;
+                try {
+                    response = FirebaseResponseRepository.mapToResponse((Map<String, Object>) value);
+                } catch (RuntimeException e) {
+                    log.warn("Respuesta {} con formato inválido, se ignora", snapshot.getKey(), e);
+                    return;
+                }
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                // Las respuestas no se modifican después de enviarse
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+
+        query.addChildEventListener(childListener);
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                listener.onInitialLoadComplete();
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        });
+
+        return () -> query.removeEventListener(childListener);
+    }
+}
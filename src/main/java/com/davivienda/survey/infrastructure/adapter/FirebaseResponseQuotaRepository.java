@@ -0,0 +1,94 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.port.ResponseQuotaRepository;
+import com.google.firebase.database.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Contador persistido de cupos de respuestas entregados a las instancias.
+ * Guarda en {@code responseQuotas/{surveyId}/leased} el total ya concedido y lo modifica
+ * con transacciones de Firebase, por lo que la suma de cupos nunca supera el máximo.
+ */
+@Repository
+@Slf4j
+public class FirebaseResponseQuotaRepository implements ResponseQuotaRepository {
+
+    private static final String COLLECTION_NAME = "responseQuotas";
+
+    private DatabaseReference getDatabase() {
+        return FirebaseDatabase.getInstance().getReference();
+    }
+
+    @Override
+    public long lease(String surveyId, long requested, long maxResponses) {
+        AtomicLong granted = new AtomicLong();
+
+        runTransaction(surveyId, leased -> {
+            long grant = Math.max(0, Math.min(requested, maxResponses - leased));
+            granted.set(grant);
+            return leased + grant;
+        });
+
+        log.debug("Cupo de respuestas concedido para encuesta {}: {}", surveyId, granted.get());
+        return granted.get();
+    }
+
+    @Override
+    public void release(String surveyId, long unused) {
+        runTransaction(surveyId, leased -> Math.max(0, leased - unused));
+    }
+
+    @Override
+    public void deleteBySurveyId(String surveyId) {
+        try {
+            getDatabase().child(COLLECTION_NAME).child(surveyId).removeValueAsync().get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error deleting response quota", e);
+            throw new RuntimeException("Error deleting response quota", e);
+        }
+    }
+
+    private void runTransaction(String surveyId, LongUnaryOperator update) {
+        try {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+
+            getDatabase()
+                    .child(COLLECTION_NAME)
+                    .child(surveyId)
+                    .child("leased")
+                    .runTransaction(new Transaction.Handler() {
+                        @Override
+                        public Transaction.Result doTransaction(MutableData currentData) {
+                            // Nunca se aborta: si el valor local está desactualizado Firebase
+                            // vuelve a ejecutar la transacción con el valor del servidor
+                            Object value = currentData.getValue();
+                            long leased = value instanceof Number number ? number.longValue() : 0L;
+                            currentData.setValue(update.applyAsLong(leased));
+                            return Transaction.success(currentData);
+                        }
+
+                        @Override
+                        public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                            if (error != null) {
+                                future.completeExceptionally(error.toException());
+                            } else if (!committed) {
+                                future.completeExceptionally(new IllegalStateException("Quota transaction not committed"));
+                            } else {
+                                future.complete(null);
+                            }
+                        }
+                    });
+
+            future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error updating response quota", e);
+            throw new RuntimeException("Error updating response quota", e);
+        }
+    }
+}
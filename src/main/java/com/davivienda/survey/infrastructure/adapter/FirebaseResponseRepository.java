@@ -6,15 +6,20 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -23,37 +28,99 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class FirebaseResponseRepository implements ResponseRepository {
     
+    private final FirebaseSurveyRepository surveyRepository;
+    
     private DatabaseReference getDatabase() {
         return FirebaseDatabase.getInstance().getReference();
     }
     
     @Override
     public SurveyResponse save(SurveyResponse response) {
-        try {
-            DatabaseReference ref = getDatabase().child("responses").child(response.getId());
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("id", response.getId());
-            data.put("surveyId", response.getSurveyId());
-            data.put("respondentId", response.getRespondentId());
-            data.put("completedAt", response.getCompletedAt().toString());
-            
-            List<Map<String, Object>> answersData = response.getAnswers().stream()
-                .map(answer -> {
-                    Map<String, Object> answerMap = new HashMap<>();
-                    answerMap.put("questionId", answer.getQuestionId());
-                    answerMap.put("value", answer.getValue());
-                    return answerMap;
-                })
-                .collect(Collectors.toList());
-            
-            data.put("answers", answersData);
-            
-            ref.setValueAsync(data).get();
-            return response;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error saving response", e);
+        saveAll(List.of(response));
+        return response;
+    }
+    
+    /**
+     * Crea cada respuesta con una transacción sobre {@code responses/{id}} que no hace nada si
+     * ya existe, y suma al contador de la encuesta solo las creadas. Así reenviar un lote
+     * (el WAL entrega al-menos-una-vez, y un cliente reintenta con los mismos IDs) no cuenta
+     * dos veces la misma respuesta. Las transacciones se envían todas juntas.
+     */
+    @Override
+    public List<SurveyResponse> saveAll(List<SurveyResponse> responses) {
+        if (responses.isEmpty()) {
+            return responses;
+        }
+        
+        List<CompletableFuture<Boolean>> creations = new ArrayList<>(responses.size());
+        for (SurveyResponse response : responses) {
+            creations.add(createIfAbsent(response));
+        }
+        
+        Map<String, Long> created = new HashMap<>();
+        RuntimeException failure = null;
+        for (int i = 0; i < responses.size(); i++) {
+            try {
+                if (creations.get(i).get()) {
+                    created.merge(responses.get(i).getSurveyId(), 1L, Long::sum);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                failure = new RuntimeException("Error saving responses", e);
+            }
+        }
+        // Las creadas se cuentan aunque otras fallen: al reintentar ya existen y no suman
+        created.forEach(surveyRepository::incrementResponseCount);
+        if (failure != null) {
+            throw failure;
         }
+        return responses;
+    }
+    
+    private CompletableFuture<Boolean> createIfAbsent(SurveyResponse response) {
+        Map<String, Object> data = responseToMap(response);
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        getDatabase().child("responses").child(response.getId()).runTransaction(new Transaction.Handler() {
+            @Override
+            public Transaction.Result doTransaction(MutableData currentData) {
+                // Con el valor local vacío se escribe; si el servidor ya tiene la respuesta,
+                // Firebase reintenta con el valor real y se aborta
+                if (currentData.getValue() != null) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(data);
+                return Transaction.success(currentData);
+            }
+            
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    future.completeExceptionally(error.toException());
+                } else {
+                    future.complete(committed);
+                }
+            }
+        });
+        return future;
+    }
+    
+    private Map<String, Object> responseToMap(SurveyResponse response) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", response.getId());
+        data.put("surveyId", response.getSurveyId());
+        data.put("respondentId", response.getRespondentId());
+        data.put("completedAt", response.getCompletedAt().toString());
+        
+        List<Map<String, Object>> answersData = response.getAnswers().stream()
+            .map(answer -> {
+                Map<String, Object> answerMap = new HashMap<>();
+                answerMap.put("questionId", answer.getQuestionId());
+                answerMap.put("value", answer.getValue());
+                return answerMap;
+            })
+            .collect(Collectors.toList());
+        
+        data.put("answers", answersData);
+        return data;
     }
     
     @Override
@@ -92,8 +159,42 @@ public class FirebaseResponseRepository implements ResponseRepository {
         }
     }
     
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        try {
+            // Lecturas en paralelo de responses/{id}/id: solo se descarga el ID, no la respuesta
+            Map<String, CompletableFuture<Boolean>> lookups = new HashMap<>();
+            for (String id : ids) {
+                CompletableFuture<Boolean> future = new CompletableFuture<>();
+                getDatabase().child("responses").child(id).child("id")
+                        .addListenerForSingleValueEvent(new ValueEventListener() {
+                            @Override
+                            public void onDataChange(DataSnapshot snapshot) {
+                                future.complete(snapshot.exists());
+                            }
+                            
+                            @Override
+                            public void onCancelled(DatabaseError error) {
+                                future.completeExceptionally(new RuntimeException(error.getMessage()));
+                            }
+                        });
+                lookups.put(id, future);
+            }
+            
+            Set<String> existing = new HashSet<>();
+            for (Map.Entry<String, CompletableFuture<Boolean>> lookup : lookups.entrySet()) {
+                if (lookup.getValue().get()) {
+                    existing.add(lookup.getKey());
+                }
+            }
+            return existing;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error checking existing responses", e);
+        }
+    }
+    
     @SuppressWarnings("unchecked")
-    private SurveyResponse mapToResponse(Map<String, Object> data) {
+    static SurveyResponse mapToResponse(Map<String, Object> data) {
         List<SurveyResponse.Answer> answers = new ArrayList<>();
         
         if (data.get("answers") instanceof List) {
@@ -3,6 +3,8 @@ package com.davivienda.survey.infrastructure.adapter;
 import com.davivienda.survey.domain.model.Question;
 import com.davivienda.survey.domain.model.QuestionType;
 import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.domain.model.SurveyTombstone;
 import com.davivienda.survey.domain.port.SurveyRepository;
 import com.google.firebase.database.*;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +14,9 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+import java.util.function.ObjLongConsumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -19,6 +24,9 @@ import java.util.stream.Collectors;
 public class FirebaseSurveyRepository implements SurveyRepository {
     
     private static final String COLLECTION_NAME = "surveys";
+    static final String SUMMARIES_COLLECTION = "surveySummaries";
+    private static final String TOMBSTONES_COLLECTION = "surveyTombstones";
+    static final String CHANGED_AT = "changedAt";
     
     private DatabaseReference getDatabase() {
         return FirebaseDatabase.getInstance().getReference();
@@ -35,12 +43,19 @@ public class FirebaseSurveyRepository implements SurveyRepository {
                 survey.getDurationUnit(), 
                 survey.getExpiresAt());
             
+            // Encuesta completa y su resumen en una sola escritura multi-path. El resumen se
+            // escribe campo por campo para no pisar el contador de respuestas
+            Map<String, Object> updates = new HashMap<>();
+            updates.put(COLLECTION_NAME + "/" + survey.getId(), surveyData);
+            summaryToMap(SurveySummary.from(survey)).forEach((field, value) ->
+                    updates.put(SUMMARIES_COLLECTION + "/" + survey.getId() + "/" + field, value));
+            updates.put(SUMMARIES_COLLECTION + "/" + survey.getId() + "/version",
+                    survey.getVersion() != null ? survey.getVersion() : 0L);
+            
             CompletableFuture<Void> future = new CompletableFuture<>();
             
             getDatabase()
-                    .child(COLLECTION_NAME)
-                    .child(survey.getId())
-                    .setValue(surveyData, (error, ref) -> {
+                    .updateChildren(updates, (error, ref) -> {
                         if (error != null) {
                             future.completeExceptionally(error.toException());
                         } else {
@@ -56,48 +71,125 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         }
     }
     
+    /**
+     * Escribe la encuesta si su versión es {@code expectedVersion} y después su resumen.
+     *
+     * <p>Las transacciones de Firebase cubren un solo nodo y el SDK de administración no
+     * aplica las reglas de seguridad, así que no hay una escritura multi-path condicionada a
+     * la versión: el resumen va en su propia transacción, que solo lo reemplaza si guarda una
+     * versión anterior (dos escrituras que terminan en desorden no dejan el resumen viejo).
+     * Una vez confirmada la encuesta este método no falla: si el resumen no se pudo escribir
+     * se registra y lo corrige la siguiente escritura.</p>
+     */
     @Override
-    public Optional<Survey> findById(String id) {
-        try {
-            CompletableFuture<Optional<Survey>> future = new CompletableFuture<>();
-            
-            getDatabase()
-                    .child(COLLECTION_NAME)
-                    .child(id)
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot snapshot) {
-                            if (!snapshot.exists()) {
-                                future.complete(Optional.empty());
-                                return;
-                            }
-                            
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> data = (Map<String, Object>) snapshot.getValue();
-                            Survey survey = mapToSurvey(data);
-                            
-                            log.info("📖 Recuperando encuesta de Firebase: ID={}, durationValue={}, durationUnit={}, expiresAt={}", 
-                                survey.getId(), 
-                                survey.getDurationValue(), 
-                                survey.getDurationUnit(), 
-                                survey.getExpiresAt());
-                            
-                            future.complete(Optional.of(survey));
+    public boolean compareAndSet(Survey survey, long expectedVersion) {
+        Map<String, Object> surveyData = surveyToMap(survey);
+        boolean written = runVersioned(survey.getId(), version -> version == expectedVersion,
+                (current, version) -> current.setValue(surveyData));
+        if (written) {
+            writeSummary(survey);
+        }
+        return written;
+    }
+    
+    private void writeSummary(Survey survey) {
+        long version = survey.getVersion() != null ? survey.getVersion() : 0L;
+        Map<String, Object> fields = summaryToMap(SurveySummary.from(survey));
+        fields.put("version", version);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        getDatabase()
+                .child(SUMMARIES_COLLECTION)
+                .child(survey.getId())
+                .runTransaction(new Transaction.Handler() {
+                    @Override
+                    public Transaction.Result doTransaction(MutableData currentData) {
+                        // Sin valor local se devuelve sin cambios: si el servidor tiene el resumen,
+                        // Firebase reintenta con el valor real; si no, la encuesta se eliminó
+                        if (currentData.getValue() == null) {
+                            return Transaction.success(currentData);
                         }
-                        
-                        @Override
-                        public void onCancelled(DatabaseError error) {
+                        Long stored = asLong(currentData.child("version").getValue());
+                        if (stored != null && stored >= version) {
+                            return Transaction.abort();
+                        }
+                        // Campo por campo para no pisar el contador de respuestas
+                        fields.forEach((field, value) -> currentData.child(field).setValue(value));
+                        return Transaction.success(currentData);
+                    }
+                    
+                    @Override
+                    public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                        if (error != null) {
                             future.completeExceptionally(error.toException());
+                        } else {
+                            future.complete(null);
                         }
-                    });
-            
-            return future.get();
+                    }
+                }, false);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted saving summary of survey {}", survey.getId());
+        } catch (ExecutionException e) {
+            log.warn("Error saving summary of survey {} (version {}): {}", survey.getId(), version, e.getMessage());
+        }
+    }
+    
+    @Override
+    public Optional<Survey> findById(String id) {
+        try {
+            return findByIdAsync(id).get();
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding survey by id", e);
             throw new RuntimeException("Error finding survey", e);
         }
     }
     
+    @Override
+    public CompletableFuture<Optional<Survey>> findByIdAsync(String id) {
+        CompletableFuture<Optional<Survey>> future = new CompletableFuture<>();
+        
+        getDatabase()
+                .child(COLLECTION_NAME)
+                .child(id)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot snapshot) {
+                        if (!snapshot.exists()) {
+                            future.complete(Optional.empty());
+                            return;
+                        }
+                        
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> data = (Map<String, Object>) snapshot.getValue();
+                        Survey survey;
+                        try {
+                            survey = mapToSurvey(data);
+                        } catch (RuntimeException e) {
+                            // Sin esto el futuro nunca se completaría
+                            future.completeExceptionally(e);
+                            return;
+                        }
+                        
+                        log.info("📖 Recuperando encuesta de Firebase: ID={}, durationValue={}, durationUnit={}, expiresAt={}", 
+                            survey.getId(), 
+                            survey.getDurationValue(), 
+                            survey.getDurationUnit(), 
+                            survey.getExpiresAt());
+                        
+                        future.complete(Optional.of(survey));
+                    }
+                    
+                    @Override
+                    public void onCancelled(DatabaseError error) {
+                        future.completeExceptionally(error.toException());
+                    }
+                });
+        
+        return future;
+    }
+    
     @Override
     public List<Survey> findAll() {
         try {
@@ -198,15 +290,52 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         }
     }
     
+    /**
+     * Elimina la encuesta si su versión es {@code expectedVersion}, con la misma transacción que
+     * {@link #compareAndSet}; el resumen y la marca de eliminación se escriben después, como el
+     * resumen en {@code compareAndSet}.
+     */
+    @Override
+    public boolean deleteIfVersion(String id, long expectedVersion) {
+        boolean deleted = runVersioned(id, version -> version == expectedVersion,
+                (current, version) -> current.setValue(null));
+        if (deleted) {
+            try {
+                getDatabase().updateChildrenAsync(summaryRemoval(id)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted removing summary of deleted survey {}", id);
+            } catch (ExecutionException e) {
+                log.error("Error removing summary of deleted survey {}", id, e);
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * Borrado del resumen y marca para el feed de cambios: sin ella los clientes no sabrían
+     * que la encuesta se eliminó.
+     */
+    private static Map<String, Object> summaryRemoval(String id) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(SUMMARIES_COLLECTION + "/" + id, null);
+        Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put("id", id);
+        tombstone.put(CHANGED_AT, ServerValue.TIMESTAMP);
+        updates.put(TOMBSTONES_COLLECTION + "/" + id, tombstone);
+        return updates;
+    }
+    
     @Override
     public void deleteById(String id) {
         try {
+            Map<String, Object> updates = summaryRemoval(id);
+            updates.put(COLLECTION_NAME + "/" + id, null);
+            
             CompletableFuture<Void> future = new CompletableFuture<>();
             
             getDatabase()
-                    .child(COLLECTION_NAME)
-                    .child(id)
-                    .removeValue((error, ref) -> {
+                    .updateChildren(updates, (error, ref) -> {
                         if (error != null) {
                             future.completeExceptionally(error.toException());
                         } else {
@@ -221,6 +350,289 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         }
     }
     
+    @Override
+    public void markClosed(String id) {
+        try {
+            // Con transacción para incrementar la versión: un compare-and-set basado en la
+            // encuesta abierta fallará en lugar de reabrirla
+            boolean closed = runVersioned(id, version -> true, (current, version) -> {
+                current.child("isClosed").setValue(true);
+                current.child("version").setValue(version + 1);
+            });
+            if (!closed) {
+                return;
+            }
+            Map<String, Object> updates = new HashMap<>();
+            updates.put(SUMMARIES_COLLECTION + "/" + id + "/isClosed", true);
+            updates.put(SUMMARIES_COLLECTION + "/" + id + "/" + CHANGED_AT, ServerValue.TIMESTAMP);
+            getDatabase().updateChildrenAsync(updates).get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error closing survey", e);
+            throw new RuntimeException("Error closing survey", e);
+        }
+    }
+    
+    @Override
+    public List<SurveySummary> findAllSummaries() {
+        return findSummaries(getDatabase().child(SUMMARIES_COLLECTION));
+    }
+    
+    @Override
+    public List<SurveySummary> findSummariesByCreatedBy(String userId) {
+        return findSummaries(getDatabase()
+                .child(SUMMARIES_COLLECTION)
+                .orderByChild("createdBy")
+                .equalTo(userId));
+    }
+    
+    @Override
+    public List<SurveySummary> findSummariesByIsPublished(boolean isPublished) {
+        return findSummaries(getDatabase()
+                .child(SUMMARIES_COLLECTION)
+                .orderByChild("isPublished")
+                .equalTo(isPublished));
+    }
+    
+    @Override
+    public List<SurveySummary> findSummariesChangedSince(long changedAt, String afterId, int limit) {
+        List<SurveySummary> summaries = findSummaries(changedSince(SUMMARIES_COLLECTION, changedAt, afterId, limit));
+        summaries.removeIf(summary -> isPosition(summary.getChangedAt(), summary.getId(), changedAt, afterId));
+        return summaries.size() > limit ? new ArrayList<>(summaries.subList(0, limit)) : summaries;
+    }
+    
+    @Override
+    public List<SurveyTombstone> findTombstonesSince(long changedAt, String afterId, int limit) {
+        try {
+            List<SurveyTombstone> tombstones = new ArrayList<>();
+            for (DataSnapshot child : read(changedSince(TOMBSTONES_COLLECTION, changedAt, afterId, limit)).getChildren()) {
+                SurveyTombstone tombstone = new SurveyTombstone(child.getKey(), asLong(child.child(CHANGED_AT).getValue()));
+                if (!isPosition(tombstone.getChangedAt(), tombstone.getId(), changedAt, afterId) && tombstones.size() < limit) {
+                    tombstones.add(tombstone);
+                }
+            }
+            return tombstones;
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding survey tombstones", e);
+            throw new RuntimeException("Error finding survey tombstones", e);
+        }
+    }
+    
+    @Override
+    public void deleteTombstonesBefore(long changedAt) {
+        try {
+            Query expired = getDatabase()
+                    .child(TOMBSTONES_COLLECTION)
+                    .orderByChild(CHANGED_AT)
+                    .endAt(changedAt);
+            Map<String, Object> updates = new HashMap<>();
+            for (DataSnapshot child : read(expired).getChildren()) {
+                updates.put(TOMBSTONES_COLLECTION + "/" + child.getKey(), null);
+            }
+            if (!updates.isEmpty()) {
+                getDatabase().updateChildrenAsync(updates).get();
+                log.info("Marcas de encuestas eliminadas depuradas: {}", updates.size());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error deleting survey tombstones", e);
+            throw new RuntimeException("Error deleting survey tombstones", e);
+        }
+    }
+    
+    /**
+     * Ejecuta {@code write} sobre el nodo de la encuesta en una transacción de Firebase si la
+     * versión almacenada cumple {@code accept}. Firebase reintenta la función cuando otra
+     * escritura llega primero, así que la comprobación se hace siempre sobre el valor real.
+     */
+    private boolean runVersioned(String id, LongPredicate accept, ObjLongConsumer<MutableData> write) {
+        try {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            AtomicBoolean applied = new AtomicBoolean();
+            getDatabase()
+                    .child(COLLECTION_NAME)
+                    .child(id)
+                    .runTransaction(new Transaction.Handler() {
+                        @Override
+                        public Transaction.Result doTransaction(MutableData currentData) {
+                            applied.set(false);
+                            // Sin valor local se devuelve sin cambios: si el servidor tiene la
+                            // encuesta, Firebase reintenta con el valor real
+                            if (currentData.getValue() == null) {
+                                return Transaction.success(currentData);
+                            }
+                            Long stored = asLong(currentData.child("version").getValue());
+                            long version = stored != null ? stored : 0L;
+                            if (!accept.test(version)) {
+                                return Transaction.abort();
+                            }
+                            write.accept(currentData, version);
+                            applied.set(true);
+                            return Transaction.success(currentData);
+                        }
+                        
+                        @Override
+                        public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                            // Vacía tras confirmar: no existía, salvo que la escritura la eliminara
+                            if (error != null) {
+                                future.completeExceptionally(error.toException());
+                            } else if (committed && !applied.get() && (currentData == null || !currentData.exists())) {
+                                future.completeExceptionally(new RuntimeException("Survey not found"));
+                            } else {
+                                future.complete(committed);
+                            }
+                        }
+                    }, false);
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause && "Survey not found".equals(cause.getMessage())) {
+                throw cause;
+            }
+            log.error("Error in survey transaction", e);
+            throw new RuntimeException("Error saving survey", e);
+        } catch (InterruptedException e) {
+            log.error("Error in survey transaction", e);
+            throw new RuntimeException("Error saving survey", e);
+        }
+    }
+    
+    /**
+     * Página ordenada por ({@code changedAt}, clave) desde la posición indicada, inclusive.
+     * Se pide un elemento extra porque la posición misma viene en el resultado.
+     */
+    private Query changedSince(String collection, long changedAt, String afterId, int limit) {
+        Query query = getDatabase().child(collection).orderByChild(CHANGED_AT);
+        query = afterId != null ? query.startAt(changedAt, afterId) : query.startAt(changedAt);
+        return query.limitToFirst(limit + 1);
+    }
+    
+    private static boolean isPosition(Long changedAt, String id, long positionChangedAt, String positionId) {
+        return positionId != null && changedAt != null && changedAt == positionChangedAt && positionId.equals(id);
+    }
+    
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+    
+    private DataSnapshot read(Query query) throws InterruptedException, ExecutionException {
+        CompletableFuture<DataSnapshot> future = new CompletableFuture<>();
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                future.complete(snapshot);
+            }
+            
+            @Override
+            public void onCancelled(DatabaseError error) {
+                future.completeExceptionally(error.toException());
+            }
+        });
+        return future.get();
+    }
+    
+    /**
+     * Suma (o resta) respuestas al contador del resumen de la encuesta. No espera la
+     * confirmación para no agregar latencia al envío de respuestas; si la encuesta ya no
+     * existe no crea el resumen.
+     */
+    public void incrementResponseCount(String surveyId, long delta) {
+        getDatabase()
+                .child(SUMMARIES_COLLECTION)
+                .child(surveyId)
+                .runTransaction(new Transaction.Handler() {
+                    @Override
+                    public Transaction.Result doTransaction(MutableData currentData) {
+                        // Con el valor local vacío se devuelve sin cambios: si el servidor
+                        // tiene el resumen, Firebase reintenta con el valor real
+                        if (currentData.getValue() == null) {
+                            return Transaction.success(currentData);
+                        }
+                        MutableData count = currentData.child("responseCount");
+                        long current = count.getValue() instanceof Number number ? number.longValue() : 0L;
+                        count.setValue(Math.max(0, current + delta));
+                        return Transaction.success(currentData);
+                    }
+                    
+                    @Override
+                    public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                        if (error != null) {
+                            log.warn("Error updating response count of survey {}: {}", surveyId, error.getMessage());
+                        }
+                    }
+                });
+    }
+    
+    private List<SurveySummary> findSummaries(Query query) {
+        try {
+            CompletableFuture<List<SurveySummary>> future = new CompletableFuture<>();
+            
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    List<SurveySummary> summaries = new ArrayList<>();
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> data = (Map<String, Object>) child.getValue();
+                        // Un contador huérfano (encuesta eliminada) no tiene el resto de campos
+                        if (data != null && data.get("id") != null) {
+                            summaries.add(mapToSummary(data));
+                        }
+                    }
+                    future.complete(summaries);
+                }
+                
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    future.completeExceptionally(error.toException());
+                }
+            });
+            
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding survey summaries", e);
+            throw new RuntimeException("Error finding survey summaries", e);
+        }
+    }
+    
+    Map<String, Object> summaryToMap(SurveySummary summary) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", summary.getId());
+        data.put("title", summary.getTitle());
+        data.put("description", summary.getDescription());
+        data.put("createdBy", summary.getCreatedBy());
+        data.put("createdAt", summary.getCreatedAt().toString());
+        data.put("updatedAt", summary.getUpdatedAt().toString());
+        data.put("isPublished", summary.getIsPublished());
+        data.put("isClosed", Boolean.TRUE.equals(summary.getIsClosed()));
+        data.put("expiresAt", summary.getExpiresAt() != null ? summary.getExpiresAt().toString() : null);
+        data.put("maxResponses", summary.getMaxResponses());
+        data.put("questionCount", summary.getQuestionCount());
+        // Hora del servidor, no la de esta instancia: el token del feed de cambios depende del orden
+        data.put(CHANGED_AT, ServerValue.TIMESTAMP);
+        return data;
+    }
+    
+    private SurveySummary mapToSummary(Map<String, Object> data) {
+        LocalDateTime expiresAt = null;
+        if (data.get("expiresAt") instanceof String value) {
+            expiresAt = LocalDateTime.parse(value);
+        }
+        
+        return SurveySummary.builder()
+                .id((String) data.get("id"))
+                .title((String) data.get("title"))
+                .description((String) data.get("description"))
+                .createdBy((String) data.get("createdBy"))
+                .createdAt(LocalDateTime.parse((String) data.get("createdAt")))
+                .updatedAt(LocalDateTime.parse((String) data.get("updatedAt")))
+                .isPublished((Boolean) data.get("isPublished"))
+                .isClosed(Boolean.TRUE.equals(data.get("isClosed")))
+                .expiresAt(expiresAt)
+                .maxResponses(data.get("maxResponses") instanceof Number number ? number.intValue() : null)
+                .questionCount(data.get("questionCount") instanceof Number number ? number.intValue() : 0)
+                .responseCount(data.get("responseCount") instanceof Number number ? number.longValue() : null)
+                .changedAt(asLong(data.get(CHANGED_AT)))
+                .build();
+    }
+    
     private Map<String, Object> surveyToMap(Survey survey) {
         Map<String, Object> data = new HashMap<>();
         data.put("id", survey.getId());
@@ -230,6 +642,7 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         data.put("createdAt", survey.getCreatedAt().toString());
         data.put("updatedAt", survey.getUpdatedAt().toString());
         data.put("isPublished", survey.getIsPublished());
+        data.put("isClosed", Boolean.TRUE.equals(survey.getIsClosed()));
         
         data.put("durationValue", survey.getDurationValue());
         data.put("durationUnit", survey.getDurationUnit());
@@ -238,6 +651,8 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         } else {
             data.put("expiresAt", null);
         }
+        data.put("maxResponses", survey.getMaxResponses());
+        data.put("version", survey.getVersion() != null ? survey.getVersion() : 0L);
         
         if (survey.getQuestions() != null) {
             List<Map<String, Object>> questions = survey.getQuestions().stream()
@@ -264,7 +679,7 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         return data;
     }
     
-    private Survey mapToSurvey(Map<String, Object> data) {
+    Survey mapToSurvey(Map<String, Object> data) {
         List<Question> questions = new ArrayList<>();
         if (data.get("questions") != null) {
             @SuppressWarnings("unchecked")
@@ -286,6 +701,11 @@ public class FirebaseSurveyRepository implements SurveyRepository {
         
         String durationUnit = (String) data.get("durationUnit");
         
+        Integer maxResponses = null;
+        if (data.get("maxResponses") instanceof Number number) {
+            maxResponses = number.intValue();
+        }
+        
         LocalDateTime expiresAt = null;
         if (data.get("expiresAt") != null && data.get("expiresAt") instanceof String) {
             expiresAt = LocalDateTime.parse((String) data.get("expiresAt"));
@@ -299,10 +719,13 @@ public class FirebaseSurveyRepository implements SurveyRepository {
                 .createdAt(LocalDateTime.parse((String) data.get("createdAt")))
                 .updatedAt(LocalDateTime.parse((String) data.get("updatedAt")))
                 .isPublished((Boolean) data.get("isPublished"))
+                .isClosed(Boolean.TRUE.equals(data.get("isClosed")))
                 .durationValue(durationValue)
                 .durationUnit(durationUnit)
                 .expiresAt(expiresAt)
+                .maxResponses(maxResponses)
                 .questions(questions)
+                .version(data.get("version") instanceof Number number ? number.longValue() : 0L)
                 .build();
     }
     
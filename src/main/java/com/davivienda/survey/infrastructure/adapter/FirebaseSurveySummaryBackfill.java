@@ -0,0 +1,118 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.ValueEventListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Genera el nodo {@code surveySummaries} para las encuestas guardadas antes de que
+ * existieran los resúmenes, incluido el conteo de respuestas.
+ *
+ * <p>Lee una sola vez todas las encuestas y respuestas, así que al terminar deja la marca
+ * {@code migrations/surveySummaries} y no vuelve a ejecutarse. Los resúmenes generados antes
+ * de que existiera el feed de cambios reciben además su {@code changedAt} (marca
+ * {@code migrations/surveySummariesChangedAt}); sin él no aparecerían en el feed.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "firebase.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class FirebaseSurveySummaryBackfill {
+    
+    private static final String MIGRATION_MARKER = "migrations/surveySummaries";
+    private static final String CHANGED_AT_MARKER = "migrations/surveySummariesChangedAt";
+    
+    private final FirebaseSurveyRepository surveyRepository;
+    
+    private DatabaseReference getDatabase() {
+        return FirebaseDatabase.getInstance().getReference();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            if (Boolean.TRUE.equals(read(getDatabase().child(MIGRATION_MARKER)).getValue())) {
+                backfillChangedAt();
+                return;
+            }
+            
+            Map<String, Long> responseCounts = new HashMap<>();
+            for (DataSnapshot response : read(getDatabase().child("responses")).getChildren()) {
+                Object surveyId = response.child("surveyId").getValue();
+                if (surveyId instanceof String id) {
+                    responseCounts.merge(id, 1L, Long::sum);
+                }
+            }
+            
+            Map<String, Object> updates = new HashMap<>();
+            for (DataSnapshot child : read(getDatabase().child("surveys")).getChildren()) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> data = (Map<String, Object>) child.getValue();
+                if (data == null) {
+                    continue;
+                }
+                Survey survey = surveyRepository.mapToSurvey(data);
+                Map<String, Object> summary = surveyRepository.summaryToMap(SurveySummary.from(survey));
+                summary.put("responseCount", responseCounts.getOrDefault(survey.getId(), 0L));
+                updates.put(FirebaseSurveyRepository.SUMMARIES_COLLECTION + "/" + survey.getId(), summary);
+            }
+            updates.put(MIGRATION_MARKER, true);
+            updates.put(CHANGED_AT_MARKER, true);
+            
+            getDatabase().updateChildrenAsync(updates).get();
+            log.info("Resúmenes de encuestas generados: {}", updates.size() - 1);
+        } catch (InterruptedException | ExecutionException | RuntimeException e) {
+            log.warn("No se pudieron generar los resúmenes de encuestas: {}", e.getMessage());
+        }
+    }
+    
+    private void backfillChangedAt() throws InterruptedException, ExecutionException {
+        if (Boolean.TRUE.equals(read(getDatabase().child(CHANGED_AT_MARKER)).getValue())) {
+            return;
+        }
+        
+        Map<String, Object> updates = new HashMap<>();
+        for (DataSnapshot child : read(getDatabase().child(FirebaseSurveyRepository.SUMMARIES_COLLECTION)).getChildren()) {
+            if (child.hasChild("id") && !child.hasChild(FirebaseSurveyRepository.CHANGED_AT)) {
+                updates.put(FirebaseSurveyRepository.SUMMARIES_COLLECTION + "/" + child.getKey() + "/"
+                        + FirebaseSurveyRepository.CHANGED_AT, ServerValue.TIMESTAMP);
+            }
+        }
+        updates.put(CHANGED_AT_MARKER, true);
+        
+        getDatabase().updateChildrenAsync(updates).get();
+        log.info("Resúmenes de encuestas con changedAt: {}", updates.size() - 1);
+    }
+    
+    private DataSnapshot read(DatabaseReference ref) throws InterruptedException, ExecutionException {
+        CompletableFuture<DataSnapshot> future = new CompletableFuture<>();
+        ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                future.complete(snapshot);
+            }
+            
+            @Override
+            public void onCancelled(DatabaseError error) {
+                future.completeExceptionally(error.toException());
+            }
+        });
+        return future.get();
+    }
+}
@@ -0,0 +1,87 @@
+package com.davivienda.survey.infrastructure.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria con número máximo de entradas y expiración por entrada.
+ *
+ * <p>Cuando se llena descarta la entrada usada hace más tiempo (LRU). Las entradas
+ * vencidas se eliminan al consultarlas. Con {@code maxEntries <= 0} la caché queda
+ * deshabilitada y nunca guarda nada.</p>
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public BoundedTtlCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    public BoundedTtlCache(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedTtlCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return el valor guardado, o null si no existe o ya venció
+     */
+    public V get(K key) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= clock.getAsLong()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    /**
+     * Guarda el valor hasta el instante indicado (epoch millis).
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (maxEntries <= 0 || expiresAt <= clock.getAsLong()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
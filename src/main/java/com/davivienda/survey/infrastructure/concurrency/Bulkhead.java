@@ -0,0 +1,122 @@
+package com.davivienda.survey.infrastructure.concurrency;
+
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool de hilos acotado (hilos y cola) para una clase de carga de trabajo.
+ * Cuando el pool y su cola están llenos la tarea se rechaza de inmediato
+ * con {@link BulkheadFullException} en lugar de bloquear el hilo de Tomcat.
+ */
+@Slf4j
+public class Bulkhead {
+
+    private final String name;
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+    private final Timer queueWaitTimer;
+    private final Timer executionTimer;
+
+    public Bulkhead(String name, int maxThreads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxThreads = maxThreads;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory(name),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("bulkhead.threads.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.queue.size", executor, e -> e.getQueue().size())
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, Bulkhead::saturation)
+                .tag("bulkhead", name)
+                .description("Fracción ocupada de hilos + cola (1.0 = rechazando)")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("bulkhead.rejected")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("bulkhead.queue.wait")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder("bulkhead.execution")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    future.complete(executionTimer.record(task));
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            log.warn("Bulkhead {} saturado: {} hilos activos, {} en cola", name, executor.getActiveCount(), executor.getQueue().size());
+            throw new BulkheadFullException(name);
+        }
+
+        return future;
+    }
+
+    public double saturation() {
+        int busy = executor.getActiveCount() + executor.getQueue().size();
+        return (double) busy / (maxThreads + queueCapacity);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.davivienda.survey.infrastructure.concurrency;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Acceso a los bulkheads configurados por clase de carga de trabajo.
+ */
+public class BulkheadRegistry {
+
+    private final Map<BulkheadType, Bulkhead> bulkheads;
+
+    public BulkheadRegistry(Map<BulkheadType, Bulkhead> bulkheads) {
+        this.bulkheads = new EnumMap<>(bulkheads);
+    }
+
+    public Bulkhead get(BulkheadType type) {
+        Bulkhead bulkhead = bulkheads.get(type);
+        if (bulkhead == null) {
+            throw new IllegalStateException("Bulkhead no configurado: " + type);
+        }
+        return bulkhead;
+    }
+
+    public <T> CompletableFuture<T> submit(BulkheadType type, Supplier<T> task) {
+        return get(type).submit(task);
+    }
+
+    public void shutdown() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
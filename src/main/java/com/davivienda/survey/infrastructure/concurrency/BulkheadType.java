@@ -0,0 +1,25 @@
+package com.davivienda.survey.infrastructure.concurrency;
+
+/**
+ * Clases de carga de trabajo con pool de hilos propio.
+ * PUBLIC agrupa las rutas sensibles a latencia de los encuestados;
+ * ANALYTICS agrupa las operaciones pesadas de los dueños de encuestas;
+ * HASHING limita el cálculo de BCrypt (login y registro) a tantos hilos como CPUs;
+ * IMAGES genera en segundo plano las versiones reducidas de las imágenes.
+ */
+public enum BulkheadType {
+    PUBLIC("public"),
+    ANALYTICS("analytics"),
+    HASHING("hashing"),
+    IMAGES("images");
+
+    private final String metricName;
+
+    BulkheadType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,69 @@
+package com.davivienda.survey.infrastructure.concurrency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de permisos repartido en celdas (al estilo de {@link java.util.concurrent.atomic.LongAdder}).
+ *
+ * <p>Cada hilo consume primero de su celda "hogar" y solo recorre las demás cuando la
+ * suya está vacía, de modo que los hilos concurrentes rara vez compiten por la misma
+ * línea de caché. A diferencia de LongAdder, una celda nunca baja de cero: un permiso
+ * solo se entrega si fue agregado antes.</p>
+ */
+public class StripedPermits {
+
+    // 8 longs = 64 bytes: cada celda ocupa su propia línea de caché
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    public StripedPermits(int stripes) {
+        this.stripes = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+    }
+
+    public boolean tryAcquire() {
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) & (stripes - 1)) * PADDING;
+            long available;
+            while ((available = cells.get(index)) > 0) {
+                if (cells.compareAndSet(index, available, available - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void add(long permits) {
+        if (permits > 0) {
+            cells.addAndGet(homeStripe() * PADDING, permits);
+        }
+    }
+
+    /**
+     * Retira y devuelve todos los permisos disponibles.
+     */
+    public long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    public long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    private int homeStripe() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (stripes - 1);
+    }
+}
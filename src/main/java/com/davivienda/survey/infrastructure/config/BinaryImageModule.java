@@ -0,0 +1,105 @@
+package com.davivienda.survey.infrastructure.config;
+
+import com.davivienda.survey.domain.model.Question;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Módulo de Jackson para los formatos binarios (CBOR / Smile).
+ *
+ * <p>Las imágenes de las preguntas se guardan como data-URI en base64. En los formatos
+ * binarios se envían como {@code {"mediaType": "...", "data": <bytes>}}, sin el 33% extra
+ * del base64 ni su decodificación en el cliente. Al leer se acepta tanto ese objeto como
+ * el texto original, y las URL normales se envían sin cambios.</p>
+ */
+public class BinaryImageModule extends SimpleModule {
+
+    static final String MEDIA_TYPE_FIELD = "mediaType";
+    static final String DATA_FIELD = "data";
+
+    private static final String DATA_URI_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64,";
+
+    public BinaryImageModule() {
+        super("BinaryImageModule");
+        setMixInAnnotation(Question.class, QuestionMixin.class);
+    }
+
+    abstract static class QuestionMixin {
+
+        @JsonSerialize(using = DataUriSerializer.class)
+        abstract String getImageUrl();
+
+        @JsonDeserialize(using = DataUriDeserializer.class)
+        abstract void setImageUrl(String imageUrl);
+    }
+
+    static class DataUriSerializer extends JsonSerializer<String> {
+
+        @Override
+        public void serialize(String value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            int marker = value.indexOf(BASE64_MARKER);
+            if (!gen.canWriteBinaryNatively() || !value.startsWith(DATA_URI_PREFIX) || marker < 0) {
+                gen.writeString(value);
+                return;
+            }
+
+            byte[] data;
+            try {
+                data = Base64.getMimeDecoder().decode(value.substring(marker + BASE64_MARKER.length()));
+            } catch (IllegalArgumentException e) {
+                // Base64 inválido: se envía tal cual se guardó
+                gen.writeString(value);
+                return;
+            }
+            gen.writeStartObject();
+            gen.writeStringField(MEDIA_TYPE_FIELD, value.substring(DATA_URI_PREFIX.length(), marker));
+            gen.writeFieldName(DATA_FIELD);
+            gen.writeBinary(data);
+            gen.writeEndObject();
+        }
+    }
+
+    static class DataUriDeserializer extends JsonDeserializer<String> {
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return p.getText();
+            }
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return (String) ctxt.handleUnexpectedToken(String.class, p);
+            }
+
+            String mediaType = null;
+            byte[] data = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                if (MEDIA_TYPE_FIELD.equals(field)) {
+                    mediaType = p.getValueAsString();
+                } else if (DATA_FIELD.equals(field)) {
+                    data = p.getBinaryValue();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (mediaType == null || data == null) {
+                return (String) ctxt.reportInputMismatch(String.class,
+                        "La imagen debe incluir '%s' y '%s'", MEDIA_TYPE_FIELD, DATA_FIELD);
+            }
+            return DATA_URI_PREFIX + mediaType + BASE64_MARKER + Base64.getEncoder().encodeToString(data);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.davivienda.survey.infrastructure.config;
+
+import com.davivienda.survey.infrastructure.concurrency.Bulkhead;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class BulkheadConfig {
+
+    @Value("${bulkhead.public.max-threads:32}")
+    private int publicMaxThreads;
+
+    @Value("${bulkhead.public.queue-capacity:200}")
+    private int publicQueueCapacity;
+
+    @Value("${bulkhead.analytics.max-threads:4}")
+    private int analyticsMaxThreads;
+
+    @Value("${bulkhead.analytics.queue-capacity:20}")
+    private int analyticsQueueCapacity;
+
+    // 0 = un hilo por CPU: el hash de contraseñas es trabajo de CPU puro
+    @Value("${bulkhead.hashing.max-threads:0}")
+    private int hashingMaxThreads;
+
+    @Value("${bulkhead.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${bulkhead.images.max-threads:2}")
+    private int imagesMaxThreads;
+
+    @Value("${bulkhead.images.queue-capacity:100}")
+    private int imagesQueueCapacity;
+
+    @Bean(destroyMethod = "shutdown")
+    public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry) {
+        Map<BulkheadType, Bulkhead> bulkheads = new EnumMap<>(BulkheadType.class);
+        bulkheads.put(BulkheadType.PUBLIC, new Bulkhead(
+                BulkheadType.PUBLIC.getMetricName(), publicMaxThreads, publicQueueCapacity, meterRegistry));
+        bulkheads.put(BulkheadType.ANALYTICS, new Bulkhead(
+                BulkheadType.ANALYTICS.getMetricName(), analyticsMaxThreads, analyticsQueueCapacity, meterRegistry));
+        int hashingThreads = hashingMaxThreads > 0 ? hashingMaxThreads : Runtime.getRuntime().availableProcessors();
+        bulkheads.put(BulkheadType.HASHING, new Bulkhead(
+                BulkheadType.HASHING.getMetricName(), hashingThreads, hashingQueueCapacity, meterRegistry));
+        bulkheads.put(BulkheadType.IMAGES, new Bulkhead(
+                BulkheadType.IMAGES.getMetricName(), imagesMaxThreads, imagesQueueCapacity, meterRegistry));
+        return new BulkheadRegistry(bulkheads);
+    }
+}
@@ -2,10 +2,18 @@ package com.davivienda.survey.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
 
 @Configuration
 public class JacksonConfig {
@@ -21,4 +29,49 @@ public class JacksonConfig {
         
         return mapper;
     }
+
+    /**
+     * Mapper para {@code application/cbor}: mismas reglas que el JSON, con imágenes en binario.
+     */
+    @Bean
+    public CBORMapper cborMapper() {
+        CBORMapper mapper = new CBORMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BinaryImageModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * Mapper para {@code application/x-jackson-smile}: mismas reglas que el JSON, con imágenes en binario.
+     */
+    @Bean
+    public SmileMapper smileMapper() {
+        SmileMapper mapper = new SmileMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BinaryImageModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * Spring MVC registra los conversores CBOR y Smile cuando sus librerías están en el classpath,
+     * después del de JSON (que sigue siendo el formato por defecto). Aquí solo se les asignan
+     * los mappers anteriores.
+     */
+    @Bean
+    public WebMvcConfigurer binaryFormatsConfigurer(CBORMapper cborMapper, SmileMapper smileMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                for (HttpMessageConverter<?> converter : converters) {
+                    if (converter instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                        cbor.setObjectMapper(cborMapper);
+                    } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+                        smile.setObjectMapper(smileMapper);
+                    }
+                }
+            }
+        };
+    }
 }
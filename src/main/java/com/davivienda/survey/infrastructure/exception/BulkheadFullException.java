@@ -0,0 +1,18 @@
+package com.davivienda.survey.infrastructure.exception;
+
+/**
+ * Se lanza cuando un bulkhead no tiene hilos ni espacio en cola disponibles.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkheadName;
+
+    public BulkheadFullException(String bulkheadName) {
+        super("Service temporarily overloaded (" + bulkheadName + ")");
+        this.bulkheadName = bulkheadName;
+    }
+
+    public String getBulkheadName() {
+        return bulkheadName;
+    }
+}
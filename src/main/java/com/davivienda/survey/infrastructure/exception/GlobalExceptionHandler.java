@@ -1,11 +1,15 @@
 package com.davivienda.survey.infrastructure.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -15,24 +19,61 @@ import java.util.Map;
 public class GlobalExceptionHandler {
     
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex) {
+    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex, HttpServletRequest request) {
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", LocalDateTime.now());
         error.put("message", ex.getMessage());
         
         HttpStatus status;
-        if (ex.getMessage().contains("not found")) {
+        if (ex.getMessage().startsWith("Precondition failed")) {
+            status = HttpStatus.PRECONDITION_FAILED;
+        } else if (ex.getMessage().startsWith("Write conflict")) {
+            status = HttpStatus.CONFLICT;
+        } else if (ex.getMessage().contains("not found")) {
             status = HttpStatus.NOT_FOUND;
         } else if (ex.getMessage().contains("Unauthorized")) {
             status = HttpStatus.FORBIDDEN;
         } else if (ex.getMessage().contains("not published")) {
             status = HttpStatus.FORBIDDEN;
+        } else if (ex.getMessage().contains("excede el tamaño máximo")) {
+            status = HttpStatus.PAYLOAD_TOO_LARGE;
         } else {
             status = HttpStatus.BAD_REQUEST;
         }
         
         error.put("status", status.value());
-        return ResponseEntity.status(status).body(error);
+        return withErrorContentType(ResponseEntity.status(status), request).body(error);
+    }
+    
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFull(BulkheadFullException ex, HttpServletRequest request) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", "El servicio está temporalmente saturado, intente nuevamente");
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return withErrorContentType(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE), request)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
+    @ExceptionHandler(IngestionNotDurableException.class)
+    public ResponseEntity<Map<String, Object>> handleIngestionNotDurable(IngestionNotDurableException ex, HttpServletRequest request) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", "No se pudo confirmar el guardado de la respuesta; reintente con el mismo id");
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return withErrorContentType(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE), request)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", "El archivo excede el tamaño máximo permitido");
+        error.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
     }
     
     @ExceptionHandler(BadCredentialsException.class)
@@ -59,4 +100,16 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.badRequest().body(response);
     }
+    
+    /**
+     * Los clientes SSE solo aceptan text/event-stream, que no sirve para el cuerpo del error:
+     * en ese caso se fija JSON para que el estado HTTP llegue con su mensaje.
+     */
+    private static ResponseEntity.BodyBuilder withErrorContentType(ResponseEntity.BodyBuilder builder, HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            builder.contentType(MediaType.APPLICATION_JSON);
+        }
+        return builder;
+    }
 }
@@ -0,0 +1,13 @@
+package com.davivienda.survey.infrastructure.exception;
+
+/**
+ * Se lanza cuando una respuesta quedó anexada al registro de ingesta pero no se confirmó su
+ * escritura en disco a tiempo. Probablemente se persista igual, así que el cliente debe
+ * reintentar con el mismo ID de respuesta para que el reintento se informe como duplicado.
+ */
+public class IngestionNotDurableException extends RuntimeException {
+
+    public IngestionNotDurableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,90 @@
+package com.davivienda.survey.infrastructure.security;
+
+import com.davivienda.survey.infrastructure.concurrency.Bulkhead;
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt ejecutado en un bulkhead propio del tamaño de las CPUs.
+ *
+ * <p>Una ráfaga de logins ya no ocupa todos los hilos de Tomcat en cálculo de hashes:
+ * como mucho hay un hash por CPU en curso, el resto espera en una cola acotada y, si
+ * la cola está llena, se responde 503 con {@link BulkheadFullException}. Cada operación
+ * se mide en {@code password.hash} por operación y resultado.</p>
+ *
+ * <p>{@link #upgradeEncoding(String)} indica que un hash guardado tiene un costo distinto
+ * del configurado, para que el proveedor de autenticación lo recalcule en el login.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    public BoundedPasswordEncoder(int strength, Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", () -> delegate.encode(rawPassword), hash -> "success");
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute("matches", () -> delegate.matches(rawPassword, encodedPassword),
+                matched -> matched ? "match" : "mismatch");
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T execute(String operation, Supplier<T> task, Function<T, String> outcome) {
+        long start = System.nanoTime();
+        String result = "error";
+        try {
+            T value = bulkhead.submit(task).get();
+            result = outcome.apply(value);
+            return value;
+        } catch (BulkheadFullException e) {
+            result = "rejected";
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error hashing password", e.getCause());
+        } finally {
+            Timer.builder("password.hash")
+                    .tag("operation", operation)
+                    .tag("outcome", result)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
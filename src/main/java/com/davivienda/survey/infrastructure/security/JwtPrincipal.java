@@ -0,0 +1,15 @@
+package com.davivienda.survey.infrastructure.security;
+
+import java.security.Principal;
+
+/**
+ * Usuario autenticado construido solo a partir de los claims verificados del token,
+ * sin consultar la base de datos.
+ */
+public record JwtPrincipal(String userId, String name, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
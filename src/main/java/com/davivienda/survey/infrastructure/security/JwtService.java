@@ -1,5 +1,7 @@
 package com.davivienda.survey.infrastructure.security;
 
+import com.davivienda.survey.domain.model.User;
+import com.davivienda.survey.infrastructure.cache.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -7,21 +9,45 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Genera y valida los tokens JWT.
+ *
+ * <p>La clave HMAC se construye una sola vez. Los claims de cada token verificado se
+ * guardan en una caché acotada, indexada por el SHA-256 del token y vigente hasta su
+ * {@code exp}, así que cada token se verifica criptográficamente una vez por nodo y las
+ * peticiones siguientes solo hacen una búsqueda por hash.</p>
+ *
+ * <p>Los tokens incluyen el id y el nombre del usuario, así que el filtro de
+ * autenticación construye el {@link JwtPrincipal} sin consultar la base de datos.</p>
+ */
 @Service
 public class JwtService {
     
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_NAME = "name";
+    
     @Value("${jwt.secret}")
     private String secretKey;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
     
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries = 10_000;
+    
+    private volatile SecretKey signInKey;
+    private volatile BoundedTtlCache<String, Claims> claimsCache;
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -31,6 +57,27 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * Construye el usuario autenticado a partir de los claims del token.
+     *
+     * @return null si el token fue emitido sin el id de usuario (tokens anteriores)
+     */
+    public JwtPrincipal extractPrincipal(String token) {
+        final Claims claims = extractAllClaims(token);
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (userId == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId, claims.get(CLAIM_NAME, String.class), claims.getSubject());
+    }
+    
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_NAME, user.getName());
+        return generateToken(claims, user.getEmail());
+    }
+    
     public String generateToken(String username) {
         return generateToken(new HashMap<>(), username);
     }
@@ -68,16 +115,59 @@ public class JwtService {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts
+        BoundedTtlCache<String, Claims> cache = getClaimsCache();
+        String digest = digest(token);
+        Claims cached = cache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = Jwts
                 .parser()
-                .verifyWith((javax.crypto.SecretKey) getSignInKey())
+                .verifyWith(getSignInKey())
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
+        
+        // Solo se cachean tokens con firma válida; al llegar a exp la entrada vence
+        // y el siguiente parseo rechaza el token como expirado
+        if (claims.getExpiration() != null) {
+            cache.put(digest, claims, claims.getExpiration().getTime());
+        }
+        return claims;
+    }
+    
+    private SecretKey getSignInKey() {
+        SecretKey key = signInKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = key;
+        }
+        return key;
+    }
+    
+    private BoundedTtlCache<String, Claims> getClaimsCache() {
+        BoundedTtlCache<String, Claims> cache = claimsCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = claimsCache;
+                if (cache == null) {
+                    cache = new BoundedTtlCache<>(claimsCacheMaxEntries);
+                    claimsCache = cache;
+                }
+            }
+        }
+        return cache;
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            // Se indexa por hash para no retener los tokens en memoria
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -1,9 +1,16 @@
 package com.davivienda.survey.infrastructure.security;
 
 import com.davivienda.survey.domain.port.UserRepository;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,9 +20,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,23 +30,31 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserRepository userRepository;
     
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Los despachos asíncronos (bulkheads) ya fueron autorizados en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        
                         // Endpoints de autenticación (públicos)
                         .requestMatchers("/auth/**").permitAll()
                         
@@ -54,13 +69,20 @@ public class SecurityConfig {
                         .requestMatchers("/surveys/*/responses/**").permitAll()
                         .requestMatchers("/surveys/*/responses").permitAll()
                         
+                        // Imágenes de las preguntas (las muestran las encuestas públicas)
+                        .requestMatchers(HttpMethod.GET, "/images/*").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/images/*").permitAll()
+                        
+                        // Health check (público)
+                        .requestMatchers("/actuator/health").permitAll()
+                        
                         // Todos los demás endpoints requieren autenticación
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -77,8 +99,10 @@ public class SecurityConfig {
             "exp://localhost:8081",     // Expo mobile
             "http://192.168.1.7:8081"   // Expo mobile (replace with your IP if needed)
         ));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // El cliente lee el ETag para enviarlo en If-Match
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -97,21 +121,49 @@ public class SecurityConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
     
+    /**
+     * Al autenticar, si el hash guardado tiene un costo de BCrypt distinto del configurado,
+     * el proveedor lo recalcula y lo guarda con {@link #userDetailsPasswordService()}.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
     
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            try {
+                return userRepository.findByEmail(userDetails.getUsername())
+                        .map(user -> {
+                            user.setPassword(newPassword);
+                            user.setUpdatedAt(LocalDateTime.now());
+                            userRepository.save(user);
+                            log.info("Hash de contraseña actualizado al costo configurado para {}", user.getEmail());
+                            return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                                    .password(newPassword)
+                                    .build();
+                        })
+                        .orElse(userDetails);
+            } catch (RuntimeException e) {
+                // El login no debe fallar por no poder actualizar el hash; se reintenta en el siguiente
+                log.warn("No se pudo actualizar el hash de contraseña de {}", userDetails.getUsername(), e);
+                return userDetails;
+            }
+        };
+    }
+    
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BulkheadRegistry bulkheads, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(bcryptStrength, bulkheads.get(BulkheadType.HASHING), meterRegistry);
     }
 }
@@ -0,0 +1,286 @@
+package com.davivienda.survey.infrastructure.storage;
+
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.StoredImage;
+import com.davivienda.survey.domain.port.ImageStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de imágenes en el disco local.
+ *
+ * <p>La imagen se escribe primero en un temporal del directorio mientras se calcula su hash.
+ * Cada imagen se guarda en {@code <directorio>/<2 primeros caracteres del hash>/<hash>}
+ * con su tipo de contenido al lado, en {@code <hash>.type}, y el registro de sus versiones
+ * reducidas en {@code <hash>.variants} (una línea {@code ancho alto} y una línea
+ * {@code ancho hash} por versión). Los archivos se escriben en un
+ * temporal y se mueven al nombre final, así que un lector nunca ve una imagen a medias; el
+ * archivo de datos se mueve al final y su existencia indica que la imagen está completa.
+ * Guardar una imagen que ya existe solo actualiza su fecha de modificación, que es la que
+ * protege a las imágenes recién subidas de la limpieza.</p>
+ *
+ * <p>Con varias instancias el directorio debe ser compartido; si no, se debe usar otra
+ * implementación de {@link ImageStore}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "survey.images.store", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalFileImageStore implements ImageStore {
+
+    private static final String TYPE_SUFFIX = ".type";
+    private static final String VARIANTS_SUFFIX = ".variants";
+    private static final String NONE = "-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String UPLOAD_PREFIX = "upload-";
+    private static final Pattern HASH = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final Path directory;
+
+    public LocalFileImageStore(@Value("${survey.images.directory:./data/images}") String directory) {
+        // Ruta absoluta: se entrega tal cual al contenedor para enviar el archivo
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public StoredImage save(String mediaType, InputStream data) {
+        Path temp = null;
+        try {
+            // El hash se conoce al terminar de leer: se escribe a un temporal mientras se calcula
+            temp = Files.createTempFile(directory, UPLOAD_PREFIX, TEMP_SUFFIX);
+            MessageDigest sha256 = sha256Digest();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), sha256)) {
+                size = data.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+
+            Path file = dataFile(hash);
+            if (Files.exists(file)) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+                return find(hash).orElseThrow(() -> new NoSuchFileException(file.toString()));
+            }
+            Files.createDirectories(file.getParent());
+            moveIntoPlace(typeFile(hash), mediaType.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+            log.debug("Imagen guardada: {} ({} bytes)", hash, size);
+            return new StoredImage(hash, mediaType, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error saving image", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> find(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        try {
+            long size = Files.size(dataFile(hash));
+            String mediaType = Files.readString(typeFile(hash), StandardCharsets.UTF_8);
+            return Optional.of(new StoredImage(hash, mediaType, size));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error finding image", e);
+        }
+    }
+
+    @Override
+    public boolean touch(String hash) {
+        if (!isHash(hash)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(dataFile(hash), FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error touching image", e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> read(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(dataFile(hash)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading image", e);
+        }
+    }
+
+    @Override
+    public Optional<Path> locate(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        Path file = dataFile(hash);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    @Override
+    public void saveVariants(String hash, ImageVariants variants) {
+        StringBuilder content = new StringBuilder()
+                .append(variants.getWidth() != null ? variants.getWidth() : NONE).append(' ')
+                .append(variants.getHeight() != null ? variants.getHeight() : NONE).append('\n');
+        for (ImageVariants.Variant variant : variants.getVariants()) {
+            content.append(variant.getWidth()).append(' ').append(variant.getHash()).append('\n');
+        }
+        try {
+            moveIntoPlace(sidecar(hash, VARIANTS_SUFFIX), content.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error saving image variants", e);
+        }
+    }
+
+    @Override
+    public Optional<ImageVariants> findVariants(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(sidecar(hash, VARIANTS_SUFFIX), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading image variants", e);
+        }
+        if (lines.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String[] size = lines.get(0).split(" ");
+        ImageVariants variants = ImageVariants.builder()
+                .width(NONE.equals(size[0]) ? null : Integer.valueOf(size[0]))
+                .height(NONE.equals(size[1]) ? null : Integer.valueOf(size[1]))
+                .build();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] variant = line.split(" ");
+            variants.getVariants().add(new ImageVariants.Variant(Integer.parseInt(variant[0]), variant[1]));
+        }
+        return Optional.of(variants);
+    }
+
+    @Override
+    public int deleteUnreferenced(Set<String> referenced, Instant storedBefore) {
+        List<Path> files;
+        try (Stream<Path> listing = Files.walk(directory, 2)) {
+            files = listing.filter(path -> isHash(path.getFileName().toString())).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing images", e);
+        }
+
+        int deleted = 0;
+        for (Path file : files) {
+            String hash = file.getFileName().toString();
+            if (referenced.contains(hash)) {
+                continue;
+            }
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(storedBefore)) {
+                    continue;
+                }
+                // Primero los datos: sin ellos la imagen ya no existe aunque quede el tipo
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(typeFile(hash));
+                Files.deleteIfExists(sidecar(hash, VARIANTS_SUFFIX));
+                deleted++;
+            } catch (NoSuchFileException e) {
+                // Eliminada en paralelo
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar la imagen {}: {}", hash, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el temporal {}: {}", temp, e.getMessage());
+        }
+    }
+
+    private void moveIntoPlace(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+        Files.write(temp, content);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // Otra petición guardó la misma imagen: el contenido es idéntico
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path dataFile(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path typeFile(String hash) {
+        return sidecar(hash, TYPE_SUFFIX);
+    }
+
+    private Path sidecar(String hash, String suffix) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + suffix);
+    }
+
+    static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    static String sha256(byte[] data) {
+        return HexFormat.of().formatHex(sha256Digest().digest(data));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.davivienda.survey.infrastructure.wal;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseIngestionLog;
+import com.davivienda.survey.domain.port.ResponseRepository;
+import com.davivienda.survey.infrastructure.exception.IngestionNotDurableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead log local para la ingesta de respuestas.
+ *
+ * <p>Las respuestas se anexan a segmentos mapeados en memoria y el llamador espera
+ * únicamente al fsync del grupo (group commit): un hilo de sincronización fuerza a disco
+ * todo lo escrito desde el último fsync y despierta a todos los que estaban esperando.
+ * Un escritor en segundo plano envía los registros durables a Firebase en lotes
+ * y avanza un checkpoint; al reiniciar se reenvía todo lo posterior al checkpoint.
+ * La entrega a Firebase es al-menos-una-vez: el repositorio crea {@code responses/{id}}
+ * solo si no existe y cuenta en la encuesta solo las respuestas que creó, así que un lote
+ * reenviado no cambia nada.</p>
+ *
+ * <p>Solo se confirma (202) lo que ya está en disco. Si el fsync no termina en
+ * {@code commit-timeout-ms}, o el hilo que espera se interrumpe, se lanza
+ * {@link IngestionNotDurableException} (503): la respuesta sigue en el log y probablemente se
+ * persista, así que el cliente reintenta con el mismo ID y el reintento se informa como
+ * duplicado.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "ingestion.mode", havingValue = "wal")
+@Slf4j
+public class MappedResponseWriteAheadLog implements ResponseIngestionLog {
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final ResponseRepository responseRepository;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final int flushBatchSize;
+    private final long commitTimeoutMs;
+
+    private final Object lock = new Object();
+    private final NavigableMap<Long, WalSegment> segments = new TreeMap<>();
+    private final AtomicLong backlog = new AtomicLong();
+    // IDs anexados y todavía no enviados, para que un reintento del cliente se vea como duplicado
+    private final Set<String> pendingIds = new HashSet<>();
+    private WalSegment active;
+    private long appendedSequence;
+    private long durableSequence;
+    private WalPosition durablePosition;
+    private WalPosition checkpoint;
+    private boolean running;
+    // Hora de anexado de la respuesta pendiente más antigua (0 si no hay), para la métrica de atraso
+    private volatile long oldestPendingAt;
+
+    private Thread syncThread;
+    private ScheduledExecutorService flushExecutor;
+
+    private final Counter appendedCounter;
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+    private final Counter commitTimeoutCounter;
+    private final Counter commitInterruptedCounter;
+    private final Timer groupCommitTimer;
+    private final DistributionSummary groupCommitSize;
+    private final Timer flushTimer;
+
+    public MappedResponseWriteAheadLog(
+            ResponseRepository responseRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${ingestion.wal.directory:./data/wal}") String directory,
+            @Value("${ingestion.wal.segment-size-bytes:67108864}") int segmentSize,
+            @Value("${ingestion.wal.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${ingestion.wal.flush-batch-size:500}") int flushBatchSize,
+            @Value("${ingestion.wal.commit-timeout-ms:5000}") long commitTimeoutMs
+    ) {
+        this.responseRepository = responseRepository;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushBatchSize = flushBatchSize;
+        this.commitTimeoutMs = commitTimeoutMs;
+
+        Gauge.builder("wal.backlog", backlog, AtomicLong::get)
+                .description("Respuestas durables pendientes de enviar a Firebase")
+                .register(meterRegistry);
+        Gauge.builder("wal.lag.seconds", this, MappedResponseWriteAheadLog::lagSeconds)
+                .description("Antigüedad de la respuesta pendiente más antigua")
+                .register(meterRegistry);
+        this.appendedCounter = meterRegistry.counter("wal.appended");
+        this.flushedCounter = meterRegistry.counter("wal.flushed");
+        this.flushFailureCounter = meterRegistry.counter("wal.flush.failures");
+        this.commitTimeoutCounter = meterRegistry.counter("wal.commit.timeouts");
+        this.commitInterruptedCounter = meterRegistry.counter("wal.commit.interrupted");
+        this.groupCommitTimer = meterRegistry.timer("wal.group.commit");
+        this.groupCommitSize = meterRegistry.summary("wal.group.commit.size");
+        this.flushTimer = meterRegistry.timer("wal.flush");
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        WalPosition storedCheckpoint = readCheckpoint();
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(WalSegment::isSegmentFile).sorted().toList();
+        }
+
+        synchronized (lock) {
+            for (Path file : files) {
+                long index = WalSegment.indexOf(file);
+                if (index < storedCheckpoint.segment()) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                WalSegment segment = WalSegment.open(directory, index, segmentSize);
+                segment.recover();
+                segment.seal();
+                segments.put(index, segment);
+            }
+
+            if (segments.isEmpty()) {
+                long index = storedCheckpoint.offset() == 0 ? storedCheckpoint.segment() : storedCheckpoint.segment() + 1;
+                segments.put(index, WalSegment.open(directory, index, segmentSize));
+                checkpoint = new WalPosition(index, 0);
+            } else if (!segments.containsKey(storedCheckpoint.segment())) {
+                checkpoint = new WalPosition(segments.firstKey(), 0);
+            } else {
+                checkpoint = storedCheckpoint;
+            }
+
+            active = segments.lastEntry().getValue();
+            active.recover();
+            durablePosition = new WalPosition(active.index(), active.writePosition());
+            backlog.set(loadPending());
+            oldestPendingAt = oldestAppendedAt();
+            running = true;
+        }
+
+        if (backlog.get() > 0) {
+            log.info("WAL de respuestas: reenviando {} respuestas pendientes desde {}", backlog.get(), checkpoint);
+        }
+
+        syncThread = new Thread(this::syncLoop, "wal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushPending, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void append(SurveyResponse response) {
+        appendAll(List.of(response));
+    }
+
+    /**
+     * Anexa las respuestas de un lote y espera un solo fsync para todas. Se serializan y
+     * validan antes de escribir, así que un lote inválido no deja ninguna anexada.
+     */
+    @Override
+    public void appendAll(List<SurveyResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(responses.size());
+        for (SurveyResponse response : responses) {
+            byte[] payload = serialize(response);
+            if (WalSegment.recordSize(payload.length) > segmentSize) {
+                throw new RuntimeException("Response too large for ingestion log");
+            }
+            payloads.add(payload);
+        }
+
+        synchronized (lock) {
+            if (!running) {
+                throw new RuntimeException("Ingestion log is closed");
+            }
+            long appendedAt = System.currentTimeMillis();
+            for (byte[] payload : payloads) {
+                if (active.remaining() < WalSegment.recordSize(payload.length)) {
+                    roll();
+                }
+                active.append(payload, appendedAt);
+            }
+            for (SurveyResponse response : responses) {
+                pendingIds.add(response.getId());
+            }
+            appendedSequence += payloads.size();
+            long sequence = appendedSequence;
+            backlog.addAndGet(payloads.size());
+            if (oldestPendingAt == 0) {
+                oldestPendingAt = appendedAt;
+            }
+            lock.notifyAll();
+            appendedCounter.increment(payloads.size());
+
+            awaitDurable(sequence);
+        }
+    }
+
+    @Override
+    public Set<String> findPendingIds(Collection<String> ids) {
+        Set<String> pending = new HashSet<>();
+        synchronized (lock) {
+            for (String id : ids) {
+                if (pendingIds.contains(id)) {
+                    pending.add(id);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Envía a Firebase los registros durables posteriores al checkpoint.
+     *
+     * @return cantidad de respuestas enviadas
+     */
+    int flushPending() {
+        int flushed = 0;
+        try {
+            while (true) {
+                List<PendingRecord> records = readPending(flushBatchSize);
+                if (records.isEmpty()) {
+                    return flushed;
+                }
+
+                List<SurveyResponse> responses = new ArrayList<>(records.size());
+                for (PendingRecord record : records) {
+                    try {
+                        responses.add(objectMapper.readValue(record.payload(), SurveyResponse.class));
+                    } catch (IOException e) {
+                        log.error("Registro ilegible en el WAL, se descarta", e);
+                    }
+                }
+
+                flushTimer.record(() -> responseRepository.saveAll(responses));
+
+                WalPosition next = records.get(records.size() - 1).next();
+                writeCheckpoint(next);
+                synchronized (lock) {
+                    checkpoint = next;
+                    for (SurveyResponse response : responses) {
+                        pendingIds.remove(response.getId());
+                    }
+                    deleteFlushedSegments();
+                    oldestPendingAt = oldestAppendedAt();
+                }
+                backlog.addAndGet(-records.size());
+                flushedCounter.increment(records.size());
+                flushed += records.size();
+
+                if (records.size() < flushBatchSize) {
+                    return flushed;
+                }
+            }
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            log.error("Error enviando respuestas del WAL a Firebase, se reintentará", e);
+            return flushed;
+        }
+    }
+
+    long backlog() {
+        return backlog.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            syncThread.join(TimeUnit.SECONDS.toMillis(10));
+            flushExecutor.shutdown();
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushPending();
+
+        synchronized (lock) {
+            for (WalSegment segment : segments.values()) {
+                try {
+                    segment.force();
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("Error cerrando segmento del WAL {}", segment.index(), e);
+                }
+            }
+        }
+        log.info("WAL de respuestas cerrado con {} respuestas pendientes", backlog.get());
+    }
+
+    /**
+     * Espera el fsync del grupo. Si no llega a tiempo la respuesta queda en el log, pero no
+     * se puede confirmar al cliente.
+     */
+    private void awaitDurable(long sequence) {
+        long deadline = System.currentTimeMillis() + commitTimeoutMs;
+        try {
+            while (durableSequence < sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    commitTimeoutCounter.increment();
+                    log.warn("El fsync del WAL no terminó en {} ms", commitTimeoutMs);
+                    throw new IngestionNotDurableException("Ingestion log commit timed out");
+                }
+                lock.wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            commitInterruptedCounter.increment();
+            log.warn("Espera del fsync del WAL interrumpida");
+            throw new IngestionNotDurableException("Ingestion log commit interrupted");
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            long previous;
+            WalSegment segment;
+            WalPosition position;
+
+            synchronized (lock) {
+                try {
+                    while (running && durableSequence == appendedSequence) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (durableSequence == appendedSequence) {
+                    return;
+                }
+                target = appendedSequence;
+                previous = durableSequence;
+                segment = active;
+                position = new WalPosition(active.index(), active.writePosition());
+            }
+
+            try {
+                groupCommitTimer.record(segment::force);
+            } catch (UncheckedIOException e) {
+                log.error("Error en fsync del WAL, reintentando", e);
+                continue;
+            }
+            groupCommitSize.record(target - previous);
+
+            synchronized (lock) {
+                durableSequence = target;
+                durablePosition = position;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void roll() {
+        try {
+            active.force();
+            active.seal();
+            WalSegment next = WalSegment.open(directory, active.index() + 1, segmentSize);
+            segments.put(next.index(), next);
+            active = next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error rolling ingestion log segment", e);
+        }
+    }
+
+    private List<PendingRecord> readPending(int max) {
+        synchronized (lock) {
+            List<PendingRecord> records = new ArrayList<>();
+            WalPosition position = checkpoint;
+
+            while (records.size() < max && position.compareTo(durablePosition) < 0) {
+                WalSegment segment = segments.get(position.segment());
+                if (position.offset() >= limitOf(segment)) {
+                    Long nextIndex = segments.higherKey(position.segment());
+                    if (nextIndex == null) {
+                        break;
+                    }
+                    position = new WalPosition(nextIndex, 0);
+                    continue;
+                }
+
+                WalSegment.Entry entry = segment.read(position.offset());
+                position = new WalPosition(segment.index(), entry.nextOffset());
+                records.add(new PendingRecord(position, entry.appendedAt(), entry.payload()));
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Cuenta los registros posteriores al checkpoint y recupera sus IDs. Se llama al abrir,
+     * con el lock tomado.
+     */
+    private long loadPending() {
+        long count = 0;
+        WalPosition position = checkpoint;
+        while (position.compareTo(durablePosition) < 0) {
+            WalSegment segment = segments.get(position.segment());
+            if (position.offset() >= limitOf(segment)) {
+                Long nextIndex = segments.higherKey(position.segment());
+                if (nextIndex == null) {
+                    break;
+                }
+                position = new WalPosition(nextIndex, 0);
+                continue;
+            }
+            WalSegment.Entry entry = segment.read(position.offset());
+            try {
+                pendingIds.add(objectMapper.readTree(entry.payload()).path("id").asText());
+            } catch (IOException e) {
+                log.warn("Registro ilegible en el WAL en {}", position);
+            }
+            position = new WalPosition(segment.index(), entry.nextOffset());
+            count++;
+        }
+        return count;
+    }
+
+    private int limitOf(WalSegment segment) {
+        return segment.index() == durablePosition.segment() ? durablePosition.offset() : segment.sealedLength();
+    }
+
+    private void deleteFlushedSegments() {
+        while (segments.firstKey() < checkpoint.segment()) {
+            WalSegment segment = segments.pollFirstEntry().getValue();
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el segmento del WAL {}", segment.index(), e);
+            }
+        }
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingAt;
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /**
+     * Hora de anexado del primer registro posterior al checkpoint, durable o no, o 0 si no hay.
+     * Se llama con el lock tomado.
+     */
+    private long oldestAppendedAt() {
+        WalPosition position = checkpoint;
+        while (true) {
+            WalSegment segment = segments.get(position.segment());
+            int limit = segment == active ? active.writePosition() : segment.sealedLength();
+            if (position.offset() < limit) {
+                return segment.read(position.offset()).appendedAt();
+            }
+            Long nextIndex = segments.higherKey(position.segment());
+            if (nextIndex == null) {
+                return 0;
+            }
+            position = new WalPosition(nextIndex, 0);
+        }
+    }
+
+    private WalPosition readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return new WalPosition(0, 0);
+        }
+        return WalPosition.parse(Files.readString(file));
+    }
+
+    private void writeCheckpoint(WalPosition position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, position.serialize(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private byte[] serialize(SurveyResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new RuntimeException("Error serializing response", e);
+        }
+    }
+
+    private record PendingRecord(WalPosition next, long appendedAt, byte[] payload) {
+    }
+}
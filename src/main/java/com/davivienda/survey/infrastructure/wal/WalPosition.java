@@ -0,0 +1,22 @@
+package com.davivienda.survey.infrastructure.wal;
+
+/**
+ * Posición dentro del WAL: índice de segmento y desplazamiento en bytes.
+ */
+record WalPosition(long segment, int offset) implements Comparable<WalPosition> {
+
+    @Override
+    public int compareTo(WalPosition other) {
+        int bySegment = Long.compare(segment, other.segment);
+        return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+
+    String serialize() {
+        return segment + " " + offset;
+    }
+
+    static WalPosition parse(String value) {
+        String[] parts = value.trim().split(" ");
+        return new WalPosition(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
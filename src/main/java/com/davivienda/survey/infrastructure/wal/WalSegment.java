@@ -0,0 +1,147 @@
+package com.davivienda.survey.infrastructure.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmento del WAL mapeado en memoria.
+ * Formato de cada registro: [int longitud][int crc32c][long appendedAt][payload].
+ * Una longitud 0 (zona aún no escrita del archivo) marca el final de los datos.
+ * El acceso de escritura está protegido por el lock de {@link MappedResponseWriteAheadLog}.
+ */
+final class WalSegment {
+
+    static final int HEADER_SIZE = 8;
+    private static final int TIMESTAMP_SIZE = 8;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".wal";
+
+    private final long index;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int sealedLength = -1;
+
+    private WalSegment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static WalSegment open(Path directory, long index, int size) throws IOException {
+        Path path = directory.resolve(fileName(index));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new WalSegment(index, path, channel, buffer);
+    }
+
+    static String fileName(long index) {
+        return String.format("%s%020d%s", PREFIX, index, SUFFIX);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static long indexOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static int recordSize(int payloadLength) {
+        return HEADER_SIZE + TIMESTAMP_SIZE + payloadLength;
+    }
+
+    long index() {
+        return index;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    int sealedLength() {
+        return sealedLength;
+    }
+
+    void seal() {
+        sealedLength = writePosition;
+    }
+
+    void append(byte[] payload, long appendedAt) {
+        int bodyLength = TIMESTAMP_SIZE + payload.length;
+        int offset = writePosition;
+
+        buffer.putLong(offset + HEADER_SIZE, appendedAt);
+        buffer.put(offset + HEADER_SIZE + TIMESTAMP_SIZE, payload);
+        buffer.putInt(offset + 4, checksum(offset + HEADER_SIZE, bodyLength));
+        buffer.putInt(offset, bodyLength);
+
+        writePosition = offset + HEADER_SIZE + bodyLength;
+    }
+
+    Entry read(int offset) {
+        int bodyLength = buffer.getInt(offset);
+        long appendedAt = buffer.getLong(offset + HEADER_SIZE);
+        byte[] payload = new byte[bodyLength - TIMESTAMP_SIZE];
+        buffer.get(offset + HEADER_SIZE + TIMESTAMP_SIZE, payload);
+        return new Entry(offset + HEADER_SIZE + bodyLength, appendedAt, payload);
+    }
+
+    /**
+     * Recorre los registros válidos desde el inicio y posiciona la escritura al final.
+     * Un registro con CRC inválido se considera una escritura incompleta previa a una caída.
+     */
+    int recover() {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            int bodyLength = buffer.getInt(offset);
+            if (bodyLength < TIMESTAMP_SIZE || offset + HEADER_SIZE + bodyLength > buffer.capacity()) {
+                break;
+            }
+            if (buffer.getInt(offset + 4) != checksum(offset + HEADER_SIZE, bodyLength)) {
+                break;
+            }
+            offset += HEADER_SIZE + bodyLength;
+        }
+        writePosition = offset;
+        return offset;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    private int checksum(int offset, int length) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer body = buffer.slice(offset, length);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    record Entry(int nextOffset, long appendedAt, byte[] payload) {
+    }
+}
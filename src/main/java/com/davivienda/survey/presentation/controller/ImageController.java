@@ -0,0 +1,148 @@
+package com.davivienda.survey.presentation.controller;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+import com.davivienda.survey.application.dto.ImageUploadResponse;
+import com.davivienda.survey.application.service.ImageVariantService;
+import com.davivienda.survey.application.service.QuestionImageService;
+import com.davivienda.survey.domain.model.StoredImage;
+import com.davivienda.survey.presentation.http.ConditionalRequests;
+import com.davivienda.survey.presentation.http.RangeRequests;
+import com.davivienda.survey.presentation.http.RangeRequests.ByteRange;
+import com.davivienda.survey.presentation.http.Sendfile;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/images")
+@RequiredArgsConstructor
+@Tag(name = "Imágenes", description = "Imágenes de las preguntas, direccionadas por contenido")
+public class ImageController {
+    
+    // La versión reducida todavía no existe: la misma URL servirá otra imagen en breve
+    private static final CacheControl PENDING_CACHE_CONTROL = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+    
+    private final QuestionImageService questionImageService;
+    private final ImageVariantService imageVariantService;
+    
+    @Operation(
+        summary = "Subir imagen",
+        description = "Sube una imagen como multipart/form-data (campo file) y devuelve la referencia para imageUrl. " +
+                     "El tipo se detecta por el contenido (PNG, JPEG, GIF o WebP), no por el declarado. Máximo 2MB."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Imagen guardada"),
+        @ApiResponse(responseCode = "400", description = "Tipo de imagen no soportado"),
+        @ApiResponse(responseCode = "401", description = "No autenticado"),
+        @ApiResponse(responseCode = "413", description = "La imagen excede el tamaño máximo")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageUploadResponse> uploadImage(
+            @Parameter(description = "Archivo de imagen") @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        try (InputStream data = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(questionImageService.upload(data));
+        }
+    }
+    
+    @Operation(
+        summary = "Obtener imagen",
+        description = "Devuelve una imagen por el SHA-256 de su contenido (la referencia que queda en imageUrl). " +
+                     "El contenido de una referencia nunca cambia, así que se puede guardar en caché indefinidamente. " +
+                     "Acepta un rango de bytes (Range, con If-Range opcional). " +
+                     "Con w se obtiene la versión reducida más angosta que cubre ese ancho (las URL del imageSrcset de la pregunta); " +
+                     "mientras no se ha generado se devuelve la original con una caché corta."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Imagen"),
+        @ApiResponse(responseCode = "206", description = "Rango de bytes de la imagen"),
+        @ApiResponse(responseCode = "304", description = "La imagen indicada en If-None-Match sigue vigente"),
+        @ApiResponse(responseCode = "404", description = "Imagen no encontrada"),
+        @ApiResponse(responseCode = "416", description = "El rango empieza después del final de la imagen")
+    })
+    @GetMapping("/{hash}")
+    public ResponseEntity<byte[]> getImage(
+            @Parameter(description = "SHA-256 de la imagen") @PathVariable String hash,
+            @Parameter(description = "Ancho en píxeles para el que se pide la imagen") @RequestParam(value = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request
+    ) {
+        // Sin pasar por el bulkhead: el contenedor solo envía archivos (sendfile) en peticiones
+        // síncronas, y el hilo queda libre mientras el archivo se transfiere
+        ImageVariantService.Selection selection = imageVariantService.select(hash, width)
+                .orElseThrow(() -> new RuntimeException(ErrorMessages.IMAGE_NOT_FOUND));
+        StoredImage image = selection.image();
+        CacheControl cacheControl = selection.immutable() ? immutableCacheControl() : PENDING_CACHE_CONTROL;
+        String etag = "\"" + image.getHash() + "\"";
+        if (ConditionalRequests.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        
+        QuestionImageService.ImageContent content = questionImageService.content(image).orElse(null);
+        if (content == null) {
+            // Eliminada del almacén después de resolverla: la próxima petición la busca de nuevo
+            imageVariantService.forget(hash);
+            throw new RuntimeException(ErrorMessages.IMAGE_NOT_FOUND);
+        }
+        long length = content.length();
+        boolean get = HttpMethod.GET.matches(request.getMethod());
+        ByteRange requested = get ? RangeRequests.requested(range, ifRange, etag, length) : null;
+        if (requested != null && !requested.isSatisfiable()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, requested.contentRange(length))
+                    .build();
+        }
+        
+        ByteRange sent = requested != null ? requested : new ByteRange(0, length - 1);
+        ResponseEntity.BodyBuilder response = (requested != null
+                ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, sent.contentRange(length))
+                : ResponseEntity.ok())
+                .contentType(MediaType.parseMediaType(image.getMediaType()))
+                .contentLength(sent.length())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header("X-Content-Type-Options", "nosniff");
+        
+        if (content.inMemory()) {
+            return response.body(content.read(sent.start(), (int) sent.length()));
+        }
+        if (Sendfile.isSupported(request)) {
+            // El contenedor envía el archivo al socket al terminar la respuesta
+            Sendfile.send(request, content.file(), sent.start(), sent.end() + 1);
+            return response.build();
+        }
+        return get ? response.body(content.read(sent.start(), (int) sent.length())) : response.build();
+    }
+    
+    private static CacheControl immutableCacheControl() {
+        return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    }
+}
@@ -1,21 +1,32 @@
 package com.davivienda.survey.presentation.controller;
 
+import com.davivienda.survey.application.dto.BatchResponseResult;
 import com.davivienda.survey.application.dto.SurveyResponseRequest;
+import com.davivienda.survey.application.dto.SurveyResults;
+import com.davivienda.survey.application.service.AuthService;
+import com.davivienda.survey.application.service.LiveResultsService;
 import com.davivienda.survey.application.service.ResponseService;
 import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/surveys")
@@ -24,6 +35,9 @@ import java.util.List;
 public class ResponseController {
     
     private final ResponseService responseService;
+    private final BulkheadRegistry bulkheads;
+    private final LiveResultsService liveResultsService;
+    private final AuthService authService;
     
     @Operation(
         summary = "Enviar respuesta a una encuesta",
@@ -36,6 +50,11 @@ public class ResponseController {
             description = "Respuesta enviada exitosamente",
             content = @Content(schema = @Schema(implementation = SurveyResponse.class))
         ),
+        @ApiResponse(
+            responseCode = "202",
+            description = "Respuesta aceptada (modo de ingesta WAL) - Se persistirá en segundo plano",
+            content = @Content(schema = @Schema(implementation = SurveyResponse.class))
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Datos inválidos - Verifique que todas las preguntas obligatorias estén respondidas"
@@ -47,15 +66,53 @@ public class ResponseController {
         @ApiResponse(
             responseCode = "403",
             description = "La encuesta no está publicada o ha expirado"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Servicio saturado, o la respuesta no se pudo confirmar en disco (modo WAL) - Reintente más tarde"
         )
     })
     @PostMapping("/{surveyId}/responses")
-    public ResponseEntity<SurveyResponse> submitResponse(
+    public CompletableFuture<ResponseEntity<SurveyResponse>> submitResponse(
             @Parameter(description = "ID de la encuesta", required = true)
             @PathVariable String surveyId,
             @Valid @RequestBody SurveyResponseRequest request
     ) {
-        return ResponseEntity.ok(responseService.submitResponse(surveyId, request));
+        return bulkheads.submit(BulkheadType.PUBLIC, () -> {
+            SurveyResponse response = responseService.submitResponse(surveyId, request);
+            return responseService.isAsyncIngestion()
+                    ? ResponseEntity.accepted().body(response)
+                    : ResponseEntity.ok(response);
+        });
+    }
+    
+    @Operation(
+        summary = "Enviar respuestas por lotes",
+        description = "Para clientes que respondieron sin conexión: recibe hasta 'ingestion.batch.max-size' respuestas " +
+                     "de una encuesta y las guarda juntas. Cada respuesta puede traer un 'id' generado " +
+                     "por el cliente; si ya se recibió se informa como DUPLICATE, por lo que el lote se puede reintentar. " +
+                     "El resultado indica el estado de cada respuesta en el orden del lote."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; ver el estado de cada respuesta"),
+        @ApiResponse(responseCode = "202", description = "Lote aceptado (modo de ingesta WAL) - Se persistirá en segundo plano"),
+        @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o encuesta expirada"),
+        @ApiResponse(responseCode = "404", description = "Encuesta no encontrada"),
+        @ApiResponse(responseCode = "503", description = "Servicio saturado, o el lote no se pudo confirmar en disco (modo WAL) - " +
+                "Reintente el mismo lote: las respuestas ya registradas se informan como DUPLICATE")
+    })
+    @PostMapping("/{surveyId}/responses/batch")
+    public CompletableFuture<ResponseEntity<List<BatchResponseResult>>> submitBatch(
+            @Parameter(description = "ID de la encuesta", required = true)
+            @PathVariable String surveyId,
+            @RequestBody List<SurveyResponseRequest> requests
+    ) {
+        return bulkheads.submit(BulkheadType.PUBLIC, () -> {
+            List<BatchResponseResult> results = responseService.submitBatch(surveyId, requests);
+            return responseService.isAsyncIngestion()
+                    ? ResponseEntity.accepted().body(results)
+                    : ResponseEntity.ok(results);
+        });
     }
     
     @Operation(
@@ -71,13 +128,45 @@ public class ResponseController {
         @ApiResponse(
             responseCode = "404",
             description = "Encuesta no encontrada"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Servicio saturado - Reintente más tarde"
         )
     })
     @GetMapping("/{surveyId}/responses")
-    public ResponseEntity<List<SurveyResponse>> getSurveyResponses(
+    public CompletableFuture<ResponseEntity<List<SurveyResponse>>> getSurveyResponses(
             @Parameter(description = "ID de la encuesta", required = true)
             @PathVariable String surveyId
     ) {
-        return ResponseEntity.ok(responseService.getSurveyResponses(surveyId));
+        return bulkheads.submit(BulkheadType.ANALYTICS,
+                () -> ResponseEntity.ok(responseService.getSurveyResponses(surveyId)));
+    }
+    
+    @Operation(
+        summary = "Resultados en vivo (SSE)",
+        description = "Stream de Server-Sent Events con los resultados agregados de la encuesta. El primer evento " +
+                     "'snapshot' trae los totales por pregunta y opción; luego cada evento 'delta' trae solo los " +
+                     "incrementos desde el anterior. Solo el creador de la encuesta puede suscribirse.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream abierto",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = SurveyResults.class))
+        ),
+        @ApiResponse(responseCode = "403", description = "No es el creador de la encuesta"),
+        @ApiResponse(responseCode = "404", description = "Encuesta no encontrada"),
+        @ApiResponse(responseCode = "503", description = "Máximo de streams abiertos en esta instancia")
+    })
+    @GetMapping(value = "/{surveyId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResults(
+            @Parameter(description = "ID de la encuesta", required = true)
+            @PathVariable String surveyId,
+            Authentication authentication
+    ) {
+        String userId = authService.getCurrentUserId(authentication);
+        return liveResultsService.subscribe(surveyId, userId);
     }
 }
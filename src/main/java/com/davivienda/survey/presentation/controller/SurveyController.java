@@ -1,10 +1,28 @@
 package com.davivienda.survey.presentation.controller;
 
+import com.davivienda.survey.application.constants.AppConstants;
+import com.davivienda.survey.application.dto.SurveyBatchGetRequest;
+import com.davivienda.survey.application.dto.SurveyBatchResult;
+import com.davivienda.survey.application.dto.SurveyChanges;
 import com.davivienda.survey.application.dto.SurveyRequest;
 import com.davivienda.survey.application.service.AuthService;
+import com.davivienda.survey.application.service.PublicSurveyCache;
+import com.davivienda.survey.application.service.PublicSurveyCache.SerializedSurvey;
 import com.davivienda.survey.application.service.SurveyService;
+import com.davivienda.survey.application.service.SurveySyncService;
 import com.davivienda.survey.domain.model.Question;
 import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
+import com.davivienda.survey.presentation.http.BinaryFormats;
+import com.davivienda.survey.presentation.http.ConditionalRequests;
+import com.davivienda.survey.presentation.http.ResponseCompressor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +33,20 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/surveys")
@@ -27,8 +54,23 @@ import java.util.List;
 @Tag(name = "Encuestas", description = "Endpoints para gestionar encuestas (crear, editar, publicar, eliminar)")
 public class SurveyController {
     
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
     private final SurveyService surveyService;
+    private final SurveySyncService surveySyncService;
     private final AuthService authService;
+    private final BulkheadRegistry bulkheads;
+    private final PublicSurveyCache publicSurveyCache;
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+    private final ResponseCompressor responseCompressor;
+    
+    @Value("${survey.public-cache.max-age-seconds:30}")
+    private long publicMaxAgeSeconds;
+    
+    @Value("${survey.public-cache.stale-while-revalidate-seconds:300}")
+    private long publicStaleWhileRevalidateSeconds;
     
     @Operation(
         summary = "Crear nueva encuesta",
@@ -45,9 +87,8 @@ public class SurveyController {
             @Valid @RequestBody SurveyRequest request,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.createSurvey(request, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.createSurvey(request, userId));
     }
     
     @Operation(
@@ -60,54 +101,190 @@ public class SurveyController {
             @Parameter(description = "ID de la encuesta") @PathVariable String id,
             Authentication authentication
     ) {
-        return ResponseEntity.ok(surveyService.getSurvey(id));
+        return versioned(surveyService.getSurvey(id));
+    }
+    
+    @Operation(
+        summary = "Obtener varias encuestas",
+        description = "Devuelve las encuestas pedidas en el mismo orden, leyéndolas en paralelo, e informa en 'missing' " +
+                     "los IDs que no existen. Máximo 'survey.batch-get.max-ids' IDs por petición. Requiere autenticación.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Encuestas obtenidas"),
+        @ApiResponse(responseCode = "400", description = "Lista vacía o con demasiados IDs"),
+        @ApiResponse(responseCode = "401", description = "No autenticado"),
+        @ApiResponse(responseCode = "503", description = "Servicio saturado")
+    })
+    @PostMapping("/batch-get")
+    public CompletableFuture<ResponseEntity<SurveyBatchResult>> getSurveys(
+            @Valid @RequestBody SurveyBatchGetRequest request
+    ) {
+        return bulkheads.submit(BulkheadType.ANALYTICS,
+                () -> ResponseEntity.ok(surveyService.getSurveys(request.getIds())));
+    }
+    
+    @Operation(
+        summary = "Cambios de encuestas desde un token",
+        description = "Feed de sincronización para clientes con copia local: devuelve los resúmenes creados o modificados " +
+                     "('changed') y los IDs que se deben borrar ('removed': eliminadas, despublicadas o cerradas) desde el " +
+                     "token. Sin token devuelve el catálogo completo. Con 'hasMore' se pide la siguiente página con el " +
+                     "token devuelto; con 'fullResync' el cliente descarta su copia antes de aplicar la página. " +
+                     "Requiere autenticación.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cambios obtenidos"),
+        @ApiResponse(responseCode = "400", description = "Token inválido"),
+        @ApiResponse(responseCode = "401", description = "No autenticado"),
+        @ApiResponse(responseCode = "503", description = "Servicio saturado")
+    })
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<SurveyChanges>> getChanges(
+            @Parameter(description = "Token devuelto por la llamada anterior") @RequestParam(required = false) String since,
+            Authentication authentication
+    ) {
+        String userId = authService.getCurrentUserId(authentication);
+        return bulkheads.submit(BulkheadType.PUBLIC,
+                () -> ResponseEntity.ok(surveySyncService.getChanges(since, userId)));
     }
     
     @Operation(
         summary = "Obtener encuesta pública",
-        description = "Obtiene una encuesta publicada sin requerir autenticación. Solo funciona para encuestas publicadas."
+        description = "Obtiene una encuesta publicada sin requerir autenticación. Solo funciona para encuestas publicadas. " +
+                     "Además de JSON acepta application/cbor y application/x-jackson-smile (imágenes en binario)."
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Encuesta obtenida exitosamente"),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Encuesta obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = Survey.class))
+        ),
+        @ApiResponse(responseCode = "304", description = "La encuesta no cambió desde la versión indicada en If-None-Match"),
         @ApiResponse(responseCode = "403", description = "La encuesta no está publicada"),
-        @ApiResponse(responseCode = "404", description = "Encuesta no encontrada")
+        @ApiResponse(responseCode = "404", description = "Encuesta no encontrada"),
+        @ApiResponse(responseCode = "503", description = "Servicio saturado")
+    })
+    @GetMapping(value = "/public/{id}", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormats.APPLICATION_SMILE_VALUE
     })
-    @GetMapping("/public/{id}")
-    public ResponseEntity<Survey> getPublicSurvey(
-            @Parameter(description = "ID de la encuesta") @PathVariable String id
+    public CompletableFuture<ResponseEntity<byte[]>> getPublicSurvey(
+            @Parameter(description = "ID de la encuesta") @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        return ResponseEntity.ok(surveyService.getPublicSurvey(id));
+        Optional<MediaType> binaryFormat = BinaryFormats.preferred(accept);
+        return bulkheads.submit(BulkheadType.PUBLIC, () -> {
+            // Si la versión se conoce en memoria, el 304 (o el JSON ya serializado)
+            // se responde sin leer la encuesta
+            Optional<String> knownETag = surveyService.getKnownPublicSurveyETag(id);
+            if (knownETag.isPresent()) {
+                if (ConditionalRequests.matchesIfNoneMatch(ifNoneMatch, knownETag.get())) {
+                    return notModified(representationETag(knownETag.get(), binaryFormat));
+                }
+                SerializedSurvey cached = binaryFormat.isEmpty() ? publicSurveyCache.serializedSurvey(id, knownETag.get()) : null;
+                if (cached != null) {
+                    return publicJson(cached, acceptEncoding);
+                }
+            }
+            
+            Survey survey = surveyService.getPublicSurvey(id);
+            String etag = surveyService.getETag(survey);
+            if (ConditionalRequests.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return notModified(representationETag(etag, binaryFormat));
+            }
+            if (binaryFormat.isPresent()) {
+                return publicBinary(survey, etag, binaryFormat.get());
+            }
+            
+            SerializedSurvey serialized = publicSurveyCache.serializedSurvey(id, etag);
+            if (serialized == null) {
+                byte[] json = serialize(survey);
+                serialized = new SerializedSurvey(etag, json, responseCompressor.gzip(json));
+                publicSurveyCache.rememberSerializedSurvey(id, serialized);
+            }
+            return publicJson(serialized, acceptEncoding);
+        });
     }
     
     @Operation(
         summary = "Listar todas las encuestas",
-        description = "Obtiene la lista completa de encuestas del sistema. Requiere autenticación.",
+        description = "Obtiene la lista completa de encuestas del sistema. Por defecto devuelve resúmenes " +
+                     "(sin preguntas ni imágenes); con view=full devuelve las encuestas completas. Requiere autenticación.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
     @GetMapping
-    public ResponseEntity<List<Survey>> getAllSurveys() {
-        return ResponseEntity.ok(surveyService.getAllSurveys());
+    public CompletableFuture<ResponseEntity<List<?>>> getAllSurveys(
+            @Parameter(description = "Vista del listado: summary (por defecto) o full")
+            @RequestParam(defaultValue = AppConstants.LISTING_VIEW_SUMMARY) String view
+    ) {
+        boolean full = isFullView(view);
+        return bulkheads.submit(BulkheadType.ANALYTICS,
+                () -> ResponseEntity.ok(full ? surveyService.getAllSurveys() : surveyService.getAllSurveySummaries()));
     }
     
     @Operation(
         summary = "Obtener mis encuestas",
-        description = "Obtiene las encuestas creadas por el usuario autenticado.",
+        description = "Obtiene las encuestas creadas por el usuario autenticado. Por defecto devuelve resúmenes; " +
+                     "con view=full devuelve las encuestas completas.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Encuestas del usuario"),
+        @ApiResponse(responseCode = "401", description = "No autenticado"),
+        @ApiResponse(responseCode = "503", description = "Servicio saturado")
+    })
     @GetMapping("/my-surveys")
-    public ResponseEntity<List<Survey>> getUserSurveys(Authentication authentication) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.getUserSurveys(userId));
+    public CompletableFuture<ResponseEntity<List<?>>> getUserSurveys(
+            @Parameter(description = "Vista del listado: summary (por defecto) o full")
+            @RequestParam(defaultValue = AppConstants.LISTING_VIEW_SUMMARY) String view,
+            Authentication authentication
+    ) {
+        boolean full = isFullView(view);
+        String userId = authService.getCurrentUserId(authentication);
+        return bulkheads.submit(BulkheadType.ANALYTICS,
+                () -> ResponseEntity.ok(full ? surveyService.getUserSurveys(userId) : surveyService.getUserSurveySummaries(userId)));
     }
     
     @Operation(
         summary = "Listar encuestas publicadas",
-        description = "Obtiene todas las encuestas publicadas disponibles para responder. No requiere autenticación."
+        description = "Obtiene todas las encuestas publicadas disponibles para responder. Por defecto devuelve resúmenes; " +
+                     "con view=full devuelve las encuestas completas. No requiere autenticación."
     )
     @GetMapping("/published")
-    public ResponseEntity<List<Survey>> getPublishedSurveys() {
-        return ResponseEntity.ok(surveyService.getPublishedSurveys());
+    public CompletableFuture<ResponseEntity<List<?>>> getPublishedSurveys(
+            @Parameter(description = "Vista del listado: summary (por defecto) o full")
+            @RequestParam(defaultValue = AppConstants.LISTING_VIEW_SUMMARY) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        boolean full = isFullView(view);
+        return bulkheads.submit(BulkheadType.PUBLIC, () -> {
+            Optional<String> knownETag = surveyService.getKnownPublishedSurveysETag(view);
+            if (knownETag.isPresent() && ConditionalRequests.matchesIfNoneMatch(ifNoneMatch, knownETag.get())) {
+                return notModified(knownETag.get());
+            }
+            
+            List<?> surveys;
+            String etag;
+            if (full) {
+                List<Survey> published = surveyService.getPublishedSurveys();
+                surveys = published;
+                etag = surveyService.getSurveysETag(published);
+            } else {
+                List<SurveySummary> published = surveyService.getPublishedSurveySummaries();
+                surveys = published;
+                etag = surveyService.getSummariesETag(published);
+            }
+            if (ConditionalRequests.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(publicCacheControl())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .<List<?>>body(surveys);
+        });
     }
     
     @Operation(
@@ -119,11 +296,38 @@ public class SurveyController {
     public ResponseEntity<Survey> updateSurvey(
             @Parameter(description = "ID de la encuesta") @PathVariable String id,
             @Valid @RequestBody SurveyRequest request,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.updateSurvey(id, request, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.updateSurvey(id, request, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
+    }
+    
+    @Operation(
+        summary = "Actualizar encuesta parcialmente",
+        description = "Aplica un JSON merge-patch (RFC 7396): solo se modifican los campos enviados y null borra el valor. " +
+                     "Campos: title, description, durationValue, durationUnit, maxResponses y questions. 'questions' es un " +
+                     "objeto por ID de pregunta (null la elimina, un ID nuevo la crea) o un arreglo que reemplaza la lista. " +
+                     "Cualquier cambio despublica la encuesta. Solo el creador puede editarla.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Encuesta actualizada"),
+        @ApiResponse(responseCode = "400", description = "Patch inválido"),
+        @ApiResponse(responseCode = "403", description = "No es el creador de la encuesta"),
+        @ApiResponse(responseCode = "404", description = "Encuesta o pregunta no encontrada")
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Survey> patchSurvey(
+            @Parameter(description = "ID de la encuesta") @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication
+    ) {
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.patchSurvey(id, patch, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
     }
     
     @Operation(
@@ -132,14 +336,18 @@ public class SurveyController {
         security = @SecurityRequirement(name = "bearerAuth")
     )
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteSurvey(
+    public CompletableFuture<ResponseEntity<Void>> deleteSurvey(
             @Parameter(description = "ID de la encuesta") @PathVariable String id,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        surveyService.deleteSurvey(id, userId);
-        return ResponseEntity.noContent().build();
+        String userId = authService.getCurrentUserId(authentication);
+        Set<Long> expectedVersions = ConditionalRequests.ifMatchVersions(ifMatch);
+        return bulkheads.submit(BulkheadType.ANALYTICS, () -> {
+            surveyService.deleteSurvey(id, userId, expectedVersions);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
     
     @Operation(
@@ -150,11 +358,12 @@ public class SurveyController {
     @PutMapping("/{id}/publish")
     public ResponseEntity<Survey> publishSurvey(
             @Parameter(description = "ID de la encuesta") @PathVariable String id,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.publishSurvey(id, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.publishSurvey(id, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
     }
     
     @Operation(
@@ -166,11 +375,38 @@ public class SurveyController {
     public ResponseEntity<Survey> addQuestion(
             @Parameter(description = "ID de la encuesta") @PathVariable String surveyId,
             @RequestBody Question question,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.addQuestion(surveyId, question, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.addQuestion(surveyId, question, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
+    }
+    
+    @Operation(
+        summary = "Reemplazar y reordenar preguntas",
+        description = "Define todas las preguntas de la encuesta en una sola operación, en el orden de la lista: " +
+                     "las que traen id existente se reemplazan, las que no traen id se crean y las que no aparecen " +
+                     "se eliminan. Una pregunta enviada solo con su id conserva su contenido (útil para reordenar). " +
+                     "Solo el creador puede editarla.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Preguntas actualizadas"),
+        @ApiResponse(responseCode = "400", description = "Demasiadas preguntas, imagen muy grande o id repetido"),
+        @ApiResponse(responseCode = "403", description = "No es el creador de la encuesta"),
+        @ApiResponse(responseCode = "404", description = "Encuesta o pregunta no encontrada")
+    })
+    @PutMapping("/{surveyId}/questions")
+    public ResponseEntity<Survey> replaceQuestions(
+            @Parameter(description = "ID de la encuesta") @PathVariable String surveyId,
+            @RequestBody List<Question> questions,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication
+    ) {
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.replaceQuestions(surveyId, questions, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
     }
     
     @Operation(
@@ -183,11 +419,13 @@ public class SurveyController {
             @Parameter(description = "ID de la encuesta") @PathVariable String surveyId,
             @Parameter(description = "ID de la pregunta") @PathVariable String questionId,
             @RequestBody Question question,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.updateQuestion(surveyId, questionId, question, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.updateQuestion(surveyId, questionId, question, userId,
+                ConditionalRequests.ifMatchVersions(ifMatch)));
     }
     
     @Operation(
@@ -199,10 +437,94 @@ public class SurveyController {
     public ResponseEntity<Survey> deleteQuestion(
             @Parameter(description = "ID de la encuesta") @PathVariable String surveyId,
             @Parameter(description = "ID de la pregunta") @PathVariable String questionId,
+            @Parameter(description = "Versión esperada (ETag de la encuesta)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
-        String email = authentication.getName();
-        String userId = authService.getCurrentUser(email).getId();
-        return ResponseEntity.ok(surveyService.deleteQuestion(surveyId, questionId, userId));
+        String userId = authService.getCurrentUserId(authentication);
+        return versioned(surveyService.deleteQuestion(surveyId, questionId, userId, ConditionalRequests.ifMatchVersions(ifMatch)));
+    }
+    
+    /**
+     * Respuesta de edición con el ETag de la versión, que el cliente envía en {@code If-Match}
+     * en la siguiente modificación.
+     */
+    private static ResponseEntity<Survey> versioned(Survey survey) {
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequests.versionETag(survey.getVersion()))
+                .body(survey);
+    }
+    
+    private boolean isFullView(String view) {
+        if (AppConstants.LISTING_VIEW_FULL.equals(view)) {
+            return true;
+        }
+        if (AppConstants.LISTING_VIEW_SUMMARY.equals(view)) {
+            return false;
+        }
+        throw new RuntimeException("Vista de listado inválida: " + view);
+    }
+    
+    /**
+     * Responde el JSON ya serializado; la variante gzip se sirve tal cual (sin comprimir
+     * por petición) a los clientes que la aceptan.
+     */
+    private ResponseEntity<byte[]> publicJson(SerializedSurvey serialized, String acceptEncoding) {
+        boolean gzip = serialized.gzip() != null && responseCompressor.acceptsGzip(acceptEncoding);
+        byte[] body = gzip ? serialized.gzip() : serialized.json();
+        responseCompressor.recordServed(serialized.json(), gzip ? serialized.gzip() : null);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(gzip ? ConditionalRequests.gzipVariant(serialized.etag()) : serialized.etag())
+                .cacheControl(publicCacheControl())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+        }
+        return response.body(body);
+    }
+    
+    private ResponseEntity<byte[]> publicBinary(Survey survey, String etag, MediaType format) {
+        // Las imágenes ya van en binario, así que no se comprime ni se guarda en caché
+        byte[] body = serialize(MediaType.APPLICATION_CBOR.equals(format) ? cborMapper : smileMapper, survey);
+        return ResponseEntity.ok()
+                .eTag(BinaryFormats.etagVariant(etag, format))
+                .cacheControl(publicCacheControl())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(format)
+                .contentLength(body.length)
+                .body(body);
+    }
+    
+    private byte[] serialize(Survey survey) {
+        return serialize(objectMapper, survey);
+    }
+    
+    private static byte[] serialize(ObjectMapper mapper, Survey survey) {
+        try {
+            return mapper.writeValueAsBytes(survey);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serializing survey " + survey.getId(), e);
+        }
+    }
+    
+    private static String representationETag(String etag, Optional<MediaType> binaryFormat) {
+        return binaryFormat.map(format -> BinaryFormats.etagVariant(etag, format)).orElse(etag);
+    }
+    
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(publicCacheControl())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+    
+    private CacheControl publicCacheControl() {
+        return CacheControl.maxAge(publicMaxAgeSeconds, TimeUnit.SECONDS)
+                .cachePublic()
+                .staleWhileRevalidate(publicStaleWhileRevalidateSeconds, TimeUnit.SECONDS);
     }
 }
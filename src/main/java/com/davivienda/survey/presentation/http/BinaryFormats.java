@@ -0,0 +1,56 @@
+package com.davivienda.survey.presentation.http;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Formatos binarios (CBOR / Smile) que se negocian con {@code Accept} además del JSON.
+ */
+public final class BinaryFormats {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private BinaryFormats() {
+    }
+
+    /**
+     * Formato binario preferido según {@code Accept}, o vacío si el cliente prefiere JSON
+     * (o no envía la cabecera). Con igual calidad gana el que aparece primero.
+     */
+    public static Optional<MediaType> preferred(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.empty();
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        return accepted.stream()
+                .filter(type -> type.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(type -> type.includes(MediaType.APPLICATION_JSON)
+                        || type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                        || type.equalsTypeAndSubtype(APPLICATION_SMILE))
+                .findFirst()
+                .filter(type -> !type.includes(MediaType.APPLICATION_JSON))
+                .map(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) ? MediaType.APPLICATION_CBOR : APPLICATION_SMILE);
+    }
+
+    /**
+     * ETag de la representación en el formato binario indicado.
+     */
+    public static String etagVariant(String etag, MediaType format) {
+        return ConditionalRequests.variant(etag, suffix(format));
+    }
+
+    private static String suffix(MediaType format) {
+        return MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(format) ? "cbor" : "smile";
+    }
+}
@@ -0,0 +1,110 @@
+package com.davivienda.survey.presentation.http;
+
+import com.davivienda.survey.application.constants.ErrorMessages;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utilidades para peticiones condicionales ({@code If-None-Match} e {@code If-Match}).
+ */
+public final class ConditionalRequests {
+
+    private static final String GZIP_SUFFIX = "gzip";
+    private static final List<String> VARIANT_SUFFIXES = List.of(GZIP_SUFFIX, "cbor", "smile");
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Indica si el ETag actual coincide con alguno de los enviados en {@code If-None-Match}.
+     * Usa la comparación débil del RFC 9110: se ignora el prefijo {@code W/}, y los ETag
+     * de las variantes ({@link #variant(String, String)}) equivalen al de la representación.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String current = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaque(trimmed).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag de la versión de una encuesta, que los editores devuelven en {@code If-Match}.
+     */
+    public static String versionETag(Long version) {
+        return "\"v" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Versiones aceptadas por {@code If-Match}, o null si no se envió o es {@code *}. La
+     * cabecera puede traer una lista; se compara con la comparación fuerte del RFC 9110
+     * (§13.1.1), así que un ETag débil ({@code W/"v3"}) o uno que no es de versión no coincide
+     * con ninguna. Un conjunto vacío responde 412; si solo se enviaron ETag débiles se rechaza
+     * con un mensaje que lo explica, en lugar de informar una versión distinta.
+     */
+    public static Set<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        boolean weak = false;
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return null;
+            }
+            if (tag.startsWith("W/")) {
+                weak = true;
+            } else if (tag.startsWith("\"v") && tag.endsWith("\"") && tag.length() > 3) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(2, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // No es un ETag de versión: no coincide
+                }
+            }
+        }
+        if (versions.isEmpty() && weak) {
+            throw new RuntimeException(ErrorMessages.IF_MATCH_WEAK_ETAG);
+        }
+        return versions;
+    }
+
+    /**
+     * ETag fuerte de la variante gzip: debe ser distinto del de la representación sin comprimir.
+     */
+    public static String gzipVariant(String etag) {
+        return variant(etag, GZIP_SUFFIX);
+    }
+
+    /**
+     * ETag fuerte de una variante de la representación (codificación o formato).
+     * Las variantes se combinan: {@code "v-cbor-gzip"}.
+     */
+    static String variant(String etag, String suffix) {
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    private static String opaque(String etag) {
+        String tag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        boolean stripped = true;
+        while (stripped) {
+            stripped = false;
+            for (String suffix : VARIANT_SUFFIXES) {
+                String ending = "-" + suffix + "\"";
+                if (tag.endsWith(ending)) {
+                    tag = tag.substring(0, tag.length() - ending.length()) + "\"";
+                    stripped = true;
+                }
+            }
+        }
+        return tag;
+    }
+}
@@ -0,0 +1,92 @@
+package com.davivienda.survey.presentation.http;
+
+import java.util.Locale;
+
+/**
+ * Peticiones parciales ({@code Range} e {@code If-Range}, RFC 9110 §14) sobre un contenido
+ * de longitud conocida.
+ *
+ * <p>Solo se atiende un rango de bytes; con varios rangos, una unidad distinta de
+ * {@code bytes} o una cabecera mal formada se responde el contenido completo, como permite
+ * el RFC.</p>
+ */
+public final class RangeRequests {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private RangeRequests() {
+    }
+
+    /**
+     * Rango a enviar, o null si se debe responder el contenido completo. {@code If-Range}
+     * solo se acepta con un ETag fuerte igual al actual; con una fecha o un ETag distinto el
+     * rango se ignora.
+     */
+    public static ByteRange requested(String range, String ifRange, String etag, long length) {
+        if (range == null || range.isBlank()) {
+            return null;
+        }
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            return null;
+        }
+        String spec = range.trim();
+        if (!spec.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        spec = spec.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                // Sufijo: los últimos N bytes
+                long suffix = digits(last);
+                return suffix == 0
+                        ? new ByteRange(length, length - 1)
+                        : new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long start = digits(first);
+            if (last.isEmpty()) {
+                return new ByteRange(start, length - 1);
+            }
+            long end = digits(last);
+            return end < start ? null : new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long digits(String value) {
+        if (value.isEmpty() || !value.chars().allMatch(Character::isDigit)) {
+            throw new NumberFormatException(value);
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Rango de bytes con ambos extremos incluidos. Si {@code start > end} no se puede
+     * satisfacer (empieza después del final del contenido) y corresponde un 416.
+     */
+    public record ByteRange(long start, long end) {
+
+        public boolean isSatisfiable() {
+            return start <= end;
+        }
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        /**
+         * Valor de {@code Content-Range} para este rango, o el de un rango no satisfacible.
+         */
+        public String contentRange(long total) {
+            return isSatisfiable()
+                    ? String.format(Locale.ROOT, "bytes %d-%d/%d", start, end, total)
+                    : "bytes */" + total;
+        }
+    }
+}
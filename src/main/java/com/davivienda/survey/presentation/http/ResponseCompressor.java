@@ -0,0 +1,128 @@
+package com.davivienda.survey.presentation.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresión gzip de respuestas que se guardan en caché (variantes precomprimidas).
+ *
+ * <p>Las respuestas cacheables se comprimen una vez al guardarse y se sirven ya
+ * comprimidas a los clientes que aceptan gzip; el resto de respuestas JSON las comprime
+ * Tomcat ({@code server.compression.*}). Solo se comprime por encima del umbral
+ * configurado y solo se guarda la variante si realmente reduce el tamaño. Registra el
+ * tiempo de CPU ({@code http.precompression.time}), los bytes ahorrados al comprimir y
+ * los bytes ahorrados al servir cada variante.</p>
+ */
+@Component
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    private final int minSizeBytes;
+    private final int level;
+    private final Timer compressionTimer;
+    private final Counter compressedBytesSaved;
+    private final Counter servedGzip;
+    private final Counter servedIdentity;
+    private final Counter servedBytesSaved;
+
+    public ResponseCompressor(
+            MeterRegistry meterRegistry,
+            @Value("${http.precompression.min-size-bytes:2048}") int minSizeBytes,
+            @Value("${http.precompression.level:6}") int level
+    ) {
+        this.minSizeBytes = minSizeBytes;
+        this.level = level;
+        this.compressionTimer = meterRegistry.timer("http.precompression.time");
+        this.compressedBytesSaved = meterRegistry.counter("http.precompression.bytes.saved", "phase", "compress");
+        this.servedBytesSaved = meterRegistry.counter("http.precompression.bytes.saved", "phase", "serve");
+        this.servedGzip = meterRegistry.counter("http.precompression.served", "encoding", GZIP);
+        this.servedIdentity = meterRegistry.counter("http.precompression.served", "encoding", "identity");
+    }
+
+    /**
+     * @return la variante gzip, o null si la respuesta es pequeña o no se reduce
+     */
+    public byte[] gzip(byte[] body) {
+        if (body.length < minSizeBytes) {
+            return null;
+        }
+        byte[] compressed = compressionTimer.record(() -> compress(body));
+        if (compressed.length >= body.length) {
+            return null;
+        }
+        compressedBytesSaved.increment(body.length - compressed.length);
+        return compressed;
+    }
+
+    /**
+     * Indica si el cliente acepta gzip según {@code Accept-Encoding} (respeta {@code q=0}).
+     * Una entrada explícita de gzip manda sobre el comodín {@code *}, esté donde esté.
+     */
+    public boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equals(GZIP) || name.equals("x-gzip")) {
+                return !isZeroQuality(parts);
+            }
+            if (name.equals("*") && wildcard == null) {
+                wildcard = !isZeroQuality(parts);
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * Registra qué variante se sirvió y cuántos bytes se ahorraron.
+     */
+    public void recordServed(byte[] identity, byte[] gzip) {
+        if (gzip != null) {
+            servedGzip.increment();
+            servedBytesSaved.increment(identity.length - gzip.length);
+        } else {
+            servedIdentity.increment();
+        }
+    }
+
+    private boolean isZeroQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0.0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private byte[] compress(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
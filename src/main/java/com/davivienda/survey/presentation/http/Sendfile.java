@@ -0,0 +1,38 @@
+package com.davivienda.survey.presentation.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.file.Path;
+
+/**
+ * Envío de un archivo por el contenedor (Tomcat), que lo pasa al socket con
+ * {@code FileChannel.transferTo}: los bytes no se copian a la memoria de la aplicación.
+ *
+ * <p>El contenedor indica en cada petición si lo soporta (no lo hace con TLS, por ejemplo).
+ * La respuesta debe llevar {@code Content-Length} y no escribir cuerpo; el archivo se envía
+ * al terminar la respuesta. Solo aplica a GET: en un HEAD el contenedor lo enviaría igual.</p>
+ */
+public final class Sendfile {
+
+    static final String SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private Sendfile() {
+    }
+
+    public static boolean isSupported(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SUPPORT_ATTRIBUTE));
+    }
+
+    /**
+     * Pide al contenedor enviar los bytes [{@code start}, {@code endExclusive}) del archivo.
+     */
+    public static void send(HttpServletRequest request, Path file, long start, long endExclusive) {
+        request.setAttribute(FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+        request.setAttribute(START_ATTRIBUTE, start);
+        request.setAttribute(END_ATTRIBUTE, endExclusive);
+    }
+}
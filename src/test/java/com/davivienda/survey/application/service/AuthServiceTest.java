@@ -72,7 +72,7 @@ class AuthServiceTest {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(jwtService.generateToken(anyString())).thenReturn("jwt-token");
+        when(jwtService.generateToken(any(User.class))).thenReturn("jwt-token");
 
         // Act
         AuthResponse response = authService.register(registerRequest);
@@ -85,7 +85,7 @@ class AuthServiceTest {
         
         verify(userRepository).existsByEmail("test@example.com");
         verify(userRepository).save(any(User.class));
-        verify(jwtService).generateToken(anyString());
+        verify(jwtService).generateToken(any(User.class));
     }
 
     @Test
@@ -108,7 +108,7 @@ class AuthServiceTest {
     void login_ShouldReturnToken_WhenCredentialsAreValid() {
         // Arrange
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(jwtService.generateToken(anyString())).thenReturn("jwt-token");
+        when(jwtService.generateToken(any(User.class))).thenReturn("jwt-token");
 
         // Act
         AuthResponse response = authService.login(loginRequest);
@@ -119,7 +119,7 @@ class AuthServiceTest {
         assertEquals("Test User", response.getName());
         
         verify(authenticationManager).authenticate(any());
-        verify(jwtService).generateToken("test@example.com");
+        verify(jwtService).generateToken(testUser);
     }
 
     @Test
@@ -0,0 +1,43 @@
+package com.davivienda.survey.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hot Image Cache Tests")
+class HotImageCacheTest {
+
+    @Test
+    @DisplayName("Debería admitir una imagen recién en su segunda petición y rechazar las grandes")
+    void admit_ShouldRequireRepeatedRequests() {
+        // Arrange
+        HotImageCache cache = new HotImageCache(100, 40, 2, new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertFalse(cache.admit("a", 10));
+        assertTrue(cache.admit("a", 10));
+        assertFalse(cache.admit("grande", 41));
+        assertFalse(cache.admit("grande", 41));
+    }
+
+    @Test
+    @DisplayName("Debería descartar primero la imagen usada hace más tiempo al superar el máximo de bytes")
+    void put_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        HotImageCache cache = new HotImageCache(100, 40, 1, new SimpleMeterRegistry());
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        cache.get("a");
+
+        // Act
+        cache.put("c", new byte[40]);
+
+        // Assert
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(80, cache.bytes());
+    }
+}
@@ -0,0 +1,139 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.infrastructure.concurrency.Bulkhead;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadRegistry;
+import com.davivienda.survey.infrastructure.concurrency.BulkheadType;
+import com.davivienda.survey.infrastructure.storage.LocalFileImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Image Variant Service Tests")
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private LocalFileImageStore imageStore;
+    private BulkheadRegistry bulkheads;
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStore = new LocalFileImageStore(directory.toString());
+        imageStore.open();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        bulkheads = new BulkheadRegistry(Map.of(BulkheadType.IMAGES, new Bulkhead("images", 1, 10, meterRegistry)));
+        imageVariantService = new ImageVariantService(imageStore, bulkheads, meterRegistry,
+                new int[]{1024, 320, 640}, 0.8f, 40_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería generar versiones JPEG más angostas que la original, de menor a mayor")
+    void generate_ShouldCreateSmallerVariants() throws Exception {
+        // Arrange
+        String hash = imageStore.save("image/png", png(1200, 600, false)).getHash();
+
+        // Act
+        ImageVariants variants = imageVariantService.generate(hash);
+
+        // Assert
+        assertEquals(1200, variants.getWidth());
+        assertEquals(List.of(320, 640, 1024), variants.getVariants().stream().map(ImageVariants.Variant::getWidth).toList());
+        BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(
+                imageStore.read(variants.getVariants().get(0).getHash()).get()));
+        assertEquals(320, smallest.getWidth());
+        assertEquals(160, smallest.getHeight());
+        assertEquals("image/jpeg", imageStore.find(variants.getVariants().get(0).getHash()).get().getMediaType());
+    }
+
+    @Test
+    @DisplayName("Debería servir la versión más angosta que cubre el ancho pedido, o la original")
+    void select_ShouldPickSmallestCoveringVariant() throws Exception {
+        // Arrange
+        String hash = imageStore.save("image/png", png(800, 400, true)).getHash();
+        ImageVariants variants = imageVariantService.generate(hash);
+
+        // Act
+        ImageVariantService.Selection medium = imageVariantService.select(hash, 500).get();
+        ImageVariantService.Selection large = imageVariantService.select(hash, 1024).get();
+
+        // Assert
+        assertEquals(variants.getVariants().get(1).getHash(), medium.image().getHash());
+        assertEquals("image/png", medium.image().getMediaType());
+        assertTrue(medium.immutable());
+        assertEquals(hash, large.image().getHash());
+    }
+
+    @Test
+    @DisplayName("Debería servir la original sin caché inmutable mientras no existen las versiones")
+    void select_ShouldServeOriginalUntilVariantsExist() throws Exception {
+        // Arrange
+        String hash = imageStore.save("image/png", png(800, 400, false)).getHash();
+
+        // Act
+        ImageVariantService.Selection selection = imageVariantService.select(hash, 320).get();
+
+        // Assert
+        assertEquals(hash, selection.image().getHash());
+        assertFalse(selection.immutable());
+    }
+
+    @Test
+    @DisplayName("Debería resolver sin tocar el almacén una imagen ya servida")
+    void select_ShouldRememberResolvedImages() throws Exception {
+        // Arrange
+        String hash = imageStore.save("image/png", png(800, 400, false)).getHash();
+        imageVariantService.generate(hash);
+        LocalFileImageStore store = spy(imageStore);
+        ImageVariantService service = new ImageVariantService(store, bulkheads, new SimpleMeterRegistry(),
+                new int[]{320, 640}, 0.8f, 40_000_000L);
+        ImageVariantService.Selection first = service.select(hash, 500).get();
+        clearInvocations(store);
+
+        // Act
+        ImageVariantService.Selection again = service.select(hash, 500).get();
+        ImageVariantService.Selection original = service.select(hash, null).get();
+        ImageVariantService.Selection large = service.select(hash, 1024).get();
+
+        // Assert
+        assertEquals(first, again);
+        assertEquals(hash, original.image().getHash());
+        assertEquals(hash, large.image().getHash());
+        verifyNoInteractions(store);
+    }
+
+    private static byte[] png(int width, int height, boolean alpha) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (alpha ? 0x80000000 : 0xFF000000) | random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
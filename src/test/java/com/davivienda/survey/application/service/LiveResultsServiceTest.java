@@ -0,0 +1,112 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ResponseFeed;
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Live Results Service Tests")
+class LiveResultsServiceTest {
+
+    @Mock
+    private ResponseFeed responseFeed;
+
+    @Mock
+    private SurveyService surveyService;
+
+    private LiveResultsService liveResultsService;
+
+    @BeforeEach
+    void setUp() {
+        liveResultsService = new LiveResultsService(responseFeed, surveyService, new SimpleMeterRegistry(),
+                2, 60_000, 50, 15_000, 30_000);
+        Survey survey = Survey.builder()
+                .id("survey-123")
+                .createdBy("user-123")
+                .questions(List.of(Question.builder().id("q1").type(QuestionType.MULTIPLE_CHOICE).build()))
+                .build();
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveResultsService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería compartir una sola suscripción por encuesta entre varias conexiones")
+    void subscribe_ShouldShareFeedSubscription() {
+        // Arrange
+        when(responseFeed.subscribe(eq("survey-123"), any())).thenReturn(() -> { });
+
+        // Act
+        liveResultsService.subscribe("survey-123", "user-123");
+        liveResultsService.subscribe("survey-123", "user-123");
+
+        // Assert
+        verify(responseFeed, times(1)).subscribe(eq("survey-123"), any());
+        assertEquals(2, liveResultsService.activeConnections());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar conexiones por encima del máximo de la instancia")
+    void subscribe_ShouldRejectAboveMaxConnections() {
+        // Arrange
+        when(responseFeed.subscribe(eq("survey-123"), any())).thenReturn(() -> { });
+        liveResultsService.subscribe("survey-123", "user-123");
+        liveResultsService.subscribe("survey-123", "user-123");
+
+        // Act & Assert
+        assertThrows(BulkheadFullException.class, () -> liveResultsService.subscribe("survey-123", "user-123"));
+        assertEquals(2, liveResultsService.activeConnections());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar a quien no es el creador sin abrir la suscripción")
+    void subscribe_ShouldRejectNonOwner() {
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> liveResultsService.subscribe("survey-123", "otro-usuario"));
+
+        // Assert
+        assertEquals("Unauthorized", exception.getMessage());
+        verifyNoInteractions(responseFeed);
+        assertEquals(0, liveResultsService.activeConnections());
+    }
+
+    @Test
+    @DisplayName("Debería liberar el cupo de la conexión si ya no se pueden programar envíos")
+    void subscribe_ShouldReleaseSlot_WhenSenderRejects() {
+        // Arrange
+        ArgumentCaptor<ResponseFeed.Listener> listener = ArgumentCaptor.forClass(ResponseFeed.Listener.class);
+        when(responseFeed.subscribe(eq("survey-123"), listener.capture())).thenReturn(() -> { });
+        liveResultsService.subscribe("survey-123", "user-123");
+        ((ExecutorService) ReflectionTestUtils.getField(liveResultsService, "sender")).shutdown();
+
+        // Act
+        listener.getValue().onInitialLoadComplete();
+
+        // Assert
+        assertEquals(0, liveResultsService.activeConnections());
+    }
+}
@@ -0,0 +1,123 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.ImageSource;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.Survey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Public Survey Cache Tests")
+class PublicSurveyCacheTest {
+
+    private PublicSurveyCache publicSurveyCache;
+    private Survey survey;
+
+    @BeforeEach
+    void setUp() {
+        publicSurveyCache = new PublicSurveyCache(60_000, 1_000);
+        survey = Survey.builder()
+                .id("survey-123")
+                .title("Encuesta")
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .isPublished(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debería cambiar el ETag cuando cambia updatedAt")
+    void etagOf_ShouldDependOnUpdatedAt() {
+        // Arrange
+        String before = PublicSurveyCache.etagOf(survey);
+
+        // Act
+        survey.setUpdatedAt(survey.getUpdatedAt().plusNanos(1_000));
+
+        // Assert
+        assertNotEquals(before, PublicSurveyCache.etagOf(survey));
+        assertTrue(before.startsWith("\"") && before.endsWith("\""));
+    }
+
+    @Test
+    @DisplayName("Debería cambiar el ETag cuando aparecen las versiones reducidas de una imagen")
+    void etagOf_ShouldDependOnSrcset() {
+        // Arrange
+        Question question = Question.builder().imageUrl("/api/images/" + "a".repeat(64)).build();
+        survey.setQuestions(List.of(question));
+        String before = PublicSurveyCache.etagOf(survey);
+
+        // Act
+        question.setImageSrcset(List.of(new ImageSource(question.getImageUrl() + "?w=320", 320),
+                new ImageSource(question.getImageUrl(), 800)));
+
+        // Assert
+        assertNotEquals(before, PublicSurveyCache.etagOf(survey));
+    }
+
+    @Test
+    @DisplayName("Debería olvidar la versión de la encuesta y del listado tras una escritura")
+    void invalidate_ShouldForgetSurveyAndListing() {
+        // Arrange
+        String etag = publicSurveyCache.rememberSurvey(survey);
+        publicSurveyCache.rememberPublishedListing("full", PublicSurveyCache.etagOfSurveys(List.of(survey)));
+        assertEquals(etag, publicSurveyCache.surveyETag("survey-123"));
+
+        // Act
+        publicSurveyCache.invalidate("survey-123");
+
+        // Assert
+        assertNull(publicSurveyCache.surveyETag("survey-123"));
+        assertNull(publicSurveyCache.publishedListingETag("full"));
+    }
+
+    @Test
+    @DisplayName("No debería devolver la versión de una encuesta ya expirada")
+    void surveyETag_ShouldReturnNull_WhenSurveyExpired() {
+        // Arrange
+        survey.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        publicSurveyCache.rememberSurvey(survey);
+
+        // Act & Assert
+        assertNull(publicSurveyCache.surveyETag("survey-123"));
+    }
+
+    @Test
+    @DisplayName("Debería servir el JSON serializado solo para la versión con la que se guardó")
+    void serializedSurvey_ShouldMatchETag() {
+        // Arrange
+        byte[] json = "{\"id\":\"survey-123\"}".getBytes();
+        publicSurveyCache.rememberSerializedSurvey("survey-123", new PublicSurveyCache.SerializedSurvey("\"v1\"", json, null));
+
+        // Act & Assert
+        assertSame(json, publicSurveyCache.serializedSurvey("survey-123", "\"v1\"").json());
+        assertNull(publicSurveyCache.serializedSurvey("survey-123", "\"v2\""));
+        publicSurveyCache.invalidate("survey-123");
+        assertNull(publicSurveyCache.serializedSurvey("survey-123", "\"v1\""));
+    }
+
+    @Test
+    @DisplayName("Debería descartar el JSON usado hace más tiempo al superar el máximo de bytes")
+    void rememberSerializedSurvey_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        publicSurveyCache.rememberSerializedSurvey("a", entry(new byte[400]));
+        publicSurveyCache.rememberSerializedSurvey("b", entry(new byte[400]));
+        publicSurveyCache.serializedSurvey("a", "\"1\"");
+
+        // Act
+        publicSurveyCache.rememberSerializedSurvey("c", entry(new byte[400]));
+
+        // Assert
+        assertNotNull(publicSurveyCache.serializedSurvey("a", "\"1\""));
+        assertNull(publicSurveyCache.serializedSurvey("b", "\"1\""));
+        assertNotNull(publicSurveyCache.serializedSurvey("c", "\"1\""));
+    }
+
+    private PublicSurveyCache.SerializedSurvey entry(byte[] json) {
+        return new PublicSurveyCache.SerializedSurvey("\"1\"", json, null);
+    }
+}
@@ -0,0 +1,219 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.dto.ImageUploadResponse;
+import com.davivienda.survey.domain.model.ImageSource;
+import com.davivienda.survey.domain.model.ImageVariants;
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.StoredImage;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Question Image Service Tests")
+class QuestionImageServiceTest {
+
+    private static final String HASH = "a".repeat(64);
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    private QuestionImageService questionImageService;
+
+    @BeforeEach
+    void setUp() {
+        questionImageService = new QuestionImageService(imageStore, imageVariantService,
+                new HotImageCache(1024, 64, 2, new SimpleMeterRegistry()), "/api");
+    }
+
+    @Test
+    @DisplayName("Debería reemplazar el data-URI por una referencia al almacén")
+    void externalize_ShouldStoreDataUriAndReturnReference() {
+        // Arrange
+        when(imageStore.save("image/png", PNG)).thenReturn(new StoredImage(HASH, "image/png", PNG.length));
+        Question question = Question.builder()
+                .imageUrl("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG))
+                .build();
+
+        // Act
+        questionImageService.externalize(question);
+
+        // Assert
+        assertEquals("/api/images/" + HASH, question.getImageUrl());
+        assertEquals(Optional.of(HASH), questionImageService.hashOf(question.getImageUrl()));
+        verify(imageVariantService).generateAsync(HASH);
+    }
+
+    @Test
+    @DisplayName("Debería dejar sin cambios las URL externas y los tipos que no se almacenan")
+    void externalize_ShouldKeepExternalUrlsAndUnsupportedTypes() {
+        // Arrange
+        String svg = "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString("<svg/>".getBytes());
+
+        // Act & Assert
+        assertEquals("https://cdn.example.com/logo.png", questionImageService.externalize("https://cdn.example.com/logo.png"));
+        assertEquals(svg, questionImageService.externalize(svg));
+        verify(imageStore, never()).save(anyString(), any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar por su tamaño real una imagen de más de 2MB")
+    void externalize_ShouldRejectOversizedImage() {
+        // Arrange
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(new byte[2 * 1024 * 1024 + 1]);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> questionImageService.externalize(dataUri));
+        assertEquals("La imagen excede el tamaño máximo de 2MB", exception.getMessage());
+        verify(imageStore, never()).save(anyString(), any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una referencia a una imagen que no existe")
+    void externalize_ShouldRejectUnknownReference() {
+        // Arrange
+        when(imageStore.touch(HASH)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> questionImageService.externalize("/api/images/" + HASH));
+    }
+
+    @Test
+    @DisplayName("Debería marcar como recién guardada una imagen referenciada de nuevo")
+    void externalize_ShouldTouchReferencedImage() {
+        // Arrange
+        when(imageStore.touch(HASH)).thenReturn(true);
+
+        // Act
+        String imageUrl = questionImageService.externalize("/api/images/" + HASH);
+
+        // Assert
+        assertEquals("/api/images/" + HASH, imageUrl);
+        verify(imageStore).touch(HASH);
+        verify(imageStore, never()).find(anyString());
+    }
+
+    @Test
+    @DisplayName("Debería anunciar solo las versiones generadas, más angostas que la original")
+    void addSrcset_ShouldListOnlyGeneratedNarrowerVariants() {
+        // Arrange
+        String gif = "b".repeat(64);
+        String pending = "c".repeat(64);
+        ImageVariants variants = ImageVariants.builder().width(800).height(600).build();
+        variants.getVariants().add(new ImageVariants.Variant(320, "d".repeat(64)));
+        variants.getVariants().add(new ImageVariants.Variant(640, "e".repeat(64)));
+        when(imageVariantService.variants(HASH)).thenReturn(Optional.of(variants));
+        when(imageVariantService.variants(gif)).thenReturn(Optional.of(new ImageVariants()));
+        when(imageVariantService.variants(pending)).thenReturn(Optional.empty());
+        Survey survey = Survey.builder()
+                .questions(List.of(
+                        Question.builder().imageUrl("/api/images/" + HASH).build(),
+                        Question.builder().imageUrl("/api/images/" + gif).build(),
+                        Question.builder().imageUrl("/api/images/" + pending).build()))
+                .build();
+
+        // Act
+        questionImageService.addSrcset(survey);
+
+        // Assert
+        assertEquals(List.of(
+                new ImageSource("/api/images/" + HASH + "?w=320", 320),
+                new ImageSource("/api/images/" + HASH + "?w=640", 640),
+                new ImageSource("/api/images/" + HASH, 800)), survey.getQuestions().get(0).getImageSrcset());
+        assertNull(survey.getQuestions().get(1).getImageSrcset());
+        assertNull(survey.getQuestions().get(2).getImageSrcset());
+    }
+
+    @Test
+    @DisplayName("Debería guardar la imagen subida con el tipo detectado por su contenido")
+    void upload_ShouldStoreWithSniffedType() {
+        // Arrange
+        when(imageStore.save(eq("image/png"), any(InputStream.class))).thenAnswer(invocation -> {
+            byte[] stored = invocation.getArgument(1, InputStream.class).readAllBytes();
+            assertArrayEquals(PNG, stored);
+            return new StoredImage(HASH, "image/png", stored.length);
+        });
+
+        // Act
+        ImageUploadResponse response = questionImageService.upload(new ByteArrayInputStream(PNG));
+
+        // Assert
+        assertEquals("/api/images/" + HASH, response.getImageUrl());
+        assertEquals("image/png", response.getMediaType());
+        assertEquals(PNG.length, response.getSize());
+        verify(imageVariantService).generateAsync(HASH);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un archivo que no es una imagen soportada")
+    void upload_ShouldRejectUnknownContent() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> questionImageService.upload(new ByteArrayInputStream("<svg/>".getBytes())));
+        assertEquals("Tipo de imagen no soportado: se aceptan PNG, JPEG, GIF y WebP", exception.getMessage());
+        verify(imageStore, never()).save(anyString(), any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("Debería cortar la lectura en cuanto la imagen pasa de 2MB")
+    void upload_ShouldAbortOversizedImage() {
+        // Arrange
+        byte[] data = Arrays.copyOf(PNG, 3 * 1024 * 1024);
+        when(imageStore.save(eq("image/png"), any(InputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1, InputStream.class).transferTo(OutputStream.nullOutputStream());
+            return new StoredImage(HASH, "image/png", data.length);
+        });
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> questionImageService.upload(new ByteArrayInputStream(data)));
+        assertEquals("La imagen excede el tamaño máximo de 2MB", exception.getMessage());
+        verify(imageVariantService, never()).generateAsync(anyString());
+    }
+
+    @Test
+    @DisplayName("Debería servir desde el archivo y pasar a memoria una imagen pequeña pedida varias veces")
+    void content_ShouldUseFileThenHotCache() {
+        // Arrange
+        StoredImage image = new StoredImage(HASH, "image/png", PNG.length);
+        Path file = Path.of("/data/images/aa/" + HASH);
+        when(imageStore.locate(HASH)).thenReturn(Optional.of(file));
+        when(imageStore.read(HASH)).thenReturn(Optional.of(PNG));
+
+        // Act
+        QuestionImageService.ImageContent first = questionImageService.content(image).orElseThrow();
+        QuestionImageService.ImageContent second = questionImageService.content(image).orElseThrow();
+        QuestionImageService.ImageContent third = questionImageService.content(image).orElseThrow();
+
+        // Assert
+        assertEquals(file, first.file());
+        assertFalse(first.inMemory());
+        assertArrayEquals(PNG, second.data());
+        assertArrayEquals(new byte[]{'P', 'N', 'G'}, third.read(1, 3));
+        verify(imageStore, times(1)).read(HASH);
+    }
+}
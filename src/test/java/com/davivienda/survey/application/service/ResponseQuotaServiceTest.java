@@ -0,0 +1,145 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.ResponseQuotaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Response Quota Service Tests")
+class ResponseQuotaServiceTest {
+
+    @Mock
+    private ResponseQuotaRepository responseQuotaRepository;
+
+    private ResponseQuotaService responseQuotaService;
+    private Survey survey;
+
+    @BeforeEach
+    void setUp() {
+        responseQuotaService = new ResponseQuotaService(responseQuotaRepository, 10, 4, 30_000);
+        survey = Survey.builder()
+                .id("survey-123")
+                .maxResponses(25)
+                .build();
+    }
+
+    @Test
+    @DisplayName("No debería consultar el contador cuando la encuesta no tiene máximo")
+    void tryAcquire_ShouldAllow_WhenNoMaxResponses() {
+        // Arrange
+        survey.setMaxResponses(null);
+
+        // Act & Assert
+        assertTrue(responseQuotaService.tryAcquire(survey));
+        verifyNoInteractions(responseQuotaRepository);
+    }
+
+    @Test
+    @DisplayName("Debería reservar cupos por bloques y rechazar al alcanzar el máximo")
+    void tryAcquire_ShouldLeaseBlocks_AndStopAtMax() {
+        // Arrange
+        AtomicLong leased = new AtomicLong();
+        stubLeases(leased);
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 40; i++) {
+            if (responseQuotaService.tryAcquire(survey)) {
+                accepted++;
+            }
+        }
+
+        // Assert: 3 bloques (10 + 10 + 5) y una última consulta sin cupo
+        assertEquals(25, accepted);
+        verify(responseQuotaRepository, times(4)).lease(eq("survey-123"), eq(10L), eq(25L));
+    }
+
+    @Test
+    @DisplayName("No debería superar el máximo con envíos concurrentes")
+    void tryAcquire_ShouldNeverOvershoot_UnderConcurrency() throws Exception {
+        // Arrange
+        AtomicLong leased = new AtomicLong();
+        stubLeases(leased);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            results.add(executor.submit(() -> responseQuotaService.tryAcquire(survey)));
+        }
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(25, accepted);
+        assertEquals(25, leased.get());
+    }
+
+    @Test
+    @DisplayName("Debería devolver los cupos sin usar al apagar")
+    void releaseAll_ShouldReturnUnusedPermits() {
+        // Arrange
+        AtomicLong leased = new AtomicLong();
+        stubLeases(leased);
+        responseQuotaService.tryAcquire(survey);
+
+        // Act
+        responseQuotaService.releaseAll();
+
+        // Assert
+        verify(responseQuotaRepository).release("survey-123", 9);
+    }
+
+    @Test
+    @DisplayName("Debería volver a entregar un cupo devuelto sin reservar otro bloque")
+    void release_ShouldMakePermitAvailableAgain() {
+        // Arrange
+        survey.setMaxResponses(1);
+        AtomicLong leased = new AtomicLong();
+        stubLeases(leased);
+        assertTrue(responseQuotaService.tryAcquire(survey));
+        assertFalse(responseQuotaService.tryAcquire(survey));
+
+        // Act
+        responseQuotaService.release(survey, 1);
+
+        // Assert
+        assertTrue(responseQuotaService.tryAcquire(survey));
+        assertEquals(1, leased.get());
+    }
+
+    private void stubLeases(AtomicLong leased) {
+        when(responseQuotaRepository.lease(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long requested = invocation.getArgument(1);
+            long max = invocation.getArgument(2);
+            synchronized (leased) {
+                long grant = Math.max(0, Math.min(requested, max - leased.get()));
+                leased.addAndGet(grant);
+                return grant;
+            }
+        });
+    }
+}
@@ -0,0 +1,217 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.dto.BatchResponseResult;
+import com.davivienda.survey.application.dto.SurveyResponseRequest;
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseIngestionLog;
+import com.davivienda.survey.domain.port.ResponseRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Response Service Tests")
+class ResponseServiceTest {
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private SurveyService surveyService;
+
+    @Mock
+    private SurveyExpirationService surveyExpirationService;
+
+    @Mock
+    private ResponseQuotaService responseQuotaService;
+
+    @Mock
+    private PublicSurveyCache publicSurveyCache;
+
+    private ResponseService responseService;
+    private Survey survey;
+
+    @BeforeEach
+    void setUp() {
+        responseService = new ResponseService(responseRepository, surveyService, surveyExpirationService,
+                responseQuotaService, publicSurveyCache, Optional.empty(), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(responseService, "maxBatchSize", 3);
+        survey = Survey.builder().id("survey-123").isPublished(true).build();
+    }
+
+    @Test
+    @DisplayName("Debería guardar el lote en una sola escritura e informar el estado de cada respuesta")
+    @SuppressWarnings("unchecked")
+    void submitBatch_ShouldReportPerItemStatus() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseRepository.findExistingIds(any())).thenReturn(Set.of("ya-enviada"));
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+        List<SurveyResponseRequest> batch = List.of(
+                request("nueva", "ana@example.com"),
+                request("ya-enviada", "luis@example.com"),
+                request(null, "no-es-un-correo"));
+
+        // Act
+        List<BatchResponseResult> results = responseService.submitBatch("survey-123", batch);
+
+        // Assert
+        assertEquals(BatchResponseResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals("nueva", results.get(0).getId());
+        assertEquals(BatchResponseResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(BatchResponseResult.Status.REJECTED, results.get(2).getStatus());
+        assertTrue(results.get(2).getMessage().startsWith("respondentEmail"));
+
+        ArgumentCaptor<List<SurveyResponse>> saved = ArgumentCaptor.forClass(List.class);
+        verify(responseRepository, times(1)).saveAll(saved.capture());
+        assertEquals(List.of("nueva"), saved.getValue().stream().map(SurveyResponse::getId).toList());
+        verify(surveyService, times(1)).getSurvey("survey-123");
+    }
+
+    @Test
+    @DisplayName("Debería marcar como duplicados los IDs repetidos dentro del mismo lote")
+    void submitBatch_ShouldDeduplicateWithinBatch() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseRepository.findExistingIds(any())).thenReturn(Set.of());
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+
+        // Act
+        List<BatchResponseResult> results = responseService.submitBatch("survey-123",
+                Arrays.asList(request("r1", "ana@example.com"), request("r1", "ana@example.com")));
+
+        // Assert
+        assertEquals(BatchResponseResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BatchResponseResult.Status.DUPLICATE, results.get(1).getStatus());
+        verify(responseQuotaService, times(1)).tryAcquire(survey);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar solo la respuesta con un ID inválido, sin buscarlo en Firebase")
+    void submitBatch_ShouldRejectInvalidIdOnly() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseRepository.findExistingIds(Set.of("r1"))).thenReturn(Set.of());
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+
+        // Act
+        List<BatchResponseResult> results = responseService.submitBatch("survey-123",
+                List.of(request("r1", "ana@example.com"), request("a.b#c", "luis@example.com")));
+
+        // Assert
+        assertEquals(BatchResponseResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BatchResponseResult.Status.REJECTED, results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().startsWith("id"));
+        verify(responseRepository).findExistingIds(Set.of("r1"));
+    }
+
+    @Test
+    @DisplayName("Debería marcar como duplicadas las respuestas que siguen pendientes en el WAL")
+    void submitBatch_ShouldDetectIdsPendingInWal() {
+        // Arrange
+        ResponseIngestionLog ingestionLog = mock(ResponseIngestionLog.class);
+        responseService = new ResponseService(responseRepository, surveyService, surveyExpirationService,
+                responseQuotaService, publicSurveyCache, Optional.of(ingestionLog), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(responseService, "maxBatchSize", 3);
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(ingestionLog.findPendingIds(Set.of("r1", "r2"))).thenReturn(Set.of("r1"));
+        when(responseRepository.findExistingIds(Set.of("r2"))).thenReturn(Set.of());
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+
+        // Act
+        List<BatchResponseResult> results = responseService.submitBatch("survey-123",
+                List.of(request("r1", "ana@example.com"), request("r2", "luis@example.com")));
+
+        // Assert
+        assertEquals(BatchResponseResult.Status.DUPLICATE, results.get(0).getStatus());
+        assertEquals(BatchResponseResult.Status.CREATED, results.get(1).getStatus());
+        verify(responseQuotaService, times(1)).tryAcquire(survey);
+        verify(ingestionLog).appendAll(argThat(list -> list.size() == 1 && list.get(0).getId().equals("r2")));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar lotes que superan el máximo sin leer la encuesta")
+    void submitBatch_ShouldRejectOversizedBatch() {
+        // Arrange
+        List<SurveyResponseRequest> batch = List.of(
+                request("a", "a@example.com"), request("b", "b@example.com"),
+                request("c", "c@example.com"), request("d", "d@example.com"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> responseService.submitBatch("survey-123", batch));
+        verifyNoInteractions(surveyService);
+        verify(responseRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Debería devolver el cupo si la respuesta no se pudo guardar")
+    void submitResponse_ShouldReleasePermit_WhenSaveFails() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+        when(responseRepository.save(any())).thenThrow(new RuntimeException("Error saving response"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> responseService.submitResponse("survey-123", request(null, "ana@example.com")));
+        verify(responseQuotaService).release(survey, 1);
+        verify(publicSurveyCache, never()).invalidatePublishedListings();
+    }
+
+    @Test
+    @DisplayName("Debería devolver los cupos del lote si no se pudo guardar")
+    void submitBatch_ShouldReleasePermits_WhenSaveFails() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+        when(responseRepository.saveAll(anyList())).thenThrow(new RuntimeException("Error saving responses"));
+        List<SurveyResponseRequest> batch = List.of(request(null, "ana@example.com"), request(null, "luis@example.com"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> responseService.submitBatch("survey-123", batch));
+        verify(responseQuotaService).release(survey, 2);
+    }
+
+    @Test
+    @DisplayName("Debería invalidar el ETag del listado de publicadas al recibir una respuesta")
+    void submitResponse_ShouldInvalidatePublishedListings() {
+        // Arrange
+        when(surveyService.getSurvey("survey-123")).thenReturn(survey);
+        when(responseQuotaService.tryAcquire(survey)).thenReturn(true);
+        when(responseRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        responseService.submitResponse("survey-123", request(null, "ana@example.com"));
+
+        // Assert
+        verify(publicSurveyCache).invalidatePublishedListings();
+    }
+
+    private SurveyResponseRequest request(String id, String email) {
+        SurveyResponseRequest.AnswerRequest answer = new SurveyResponseRequest.AnswerRequest();
+        answer.setQuestionId("q1");
+        answer.setValue(List.of("A"));
+        SurveyResponseRequest request = new SurveyResponseRequest();
+        request.setId(id);
+        request.setRespondentEmail(email);
+        request.setAnswers(List.of(answer));
+        return request;
+    }
+}
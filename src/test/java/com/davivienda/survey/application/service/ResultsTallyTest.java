@@ -0,0 +1,71 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.dto.SurveyResults;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.SurveyResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Results Tally Tests")
+class ResultsTallyTest {
+
+    private static final Map<String, QuestionType> TYPES = Map.of(
+            "q1", QuestionType.CHECKBOX,
+            "q2", QuestionType.TEXT);
+
+    @Test
+    @DisplayName("Debería contar opciones en preguntas de selección y solo respuestas en las de texto")
+    void add_ShouldCountOptionsAndAnswers() {
+        // Arrange
+        ResultsTally tally = new ResultsTally(TYPES);
+
+        // Act
+        tally.add(response(List.of("A", "B"), "Me gustó"));
+        tally.add(response(List.of("A"), null));
+        SurveyResults results = tally.toResults("survey-123", 10);
+
+        // Assert
+        assertEquals(2, results.getNewResponses());
+        assertEquals(10, results.getResponseCount());
+        assertEquals(2, results.getQuestions().get("q1").getAnswered());
+        assertEquals(Map.of("A", 2L, "B", 1L), results.getQuestions().get("q1").getOptions());
+        assertEquals(1, results.getQuestions().get("q2").getAnswered());
+        assertTrue(results.getQuestions().get("q2").getOptions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería combinar incrementos sumando los conteos")
+    void addAll_ShouldMergeIncrements() {
+        // Arrange
+        ResultsTally first = new ResultsTally(TYPES);
+        first.add(response(List.of("A"), null));
+        ResultsTally second = new ResultsTally(TYPES);
+        second.add(response(List.of("A", "C"), "Bien"));
+
+        // Act
+        ResultsTally merged = first.copy();
+        merged.addAll(second);
+        SurveyResults results = merged.toResults("survey-123", 2);
+
+        // Assert
+        assertEquals(2, results.getNewResponses());
+        assertEquals(Map.of("A", 2L, "C", 1L), results.getQuestions().get("q1").getOptions());
+        assertEquals(1, first.responses());
+    }
+
+    private SurveyResponse response(List<String> choices, String text) {
+        List<SurveyResponse.Answer> answers = text == null
+                ? List.of(answer("q1", choices))
+                : List.of(answer("q1", choices), answer("q2", List.of(text)));
+        return SurveyResponse.builder().surveyId("survey-123").answers(answers).build();
+    }
+
+    private SurveyResponse.Answer answer(String questionId, List<String> value) {
+        return SurveyResponse.Answer.builder().questionId(questionId).value(value).build();
+    }
+}
@@ -1,25 +1,39 @@
 package com.davivienda.survey.application.service;
 
+import com.davivienda.survey.application.dto.SurveyBatchResult;
 import com.davivienda.survey.application.dto.SurveyRequest;
 import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.QuestionType;
 import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.model.SurveySummary;
 import com.davivienda.survey.domain.port.ResponseRepository;
 import com.davivienda.survey.domain.port.SurveyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +47,21 @@ class SurveyServiceTest {
     @Mock
     private ResponseRepository responseRepository;
 
+    @Mock
+    private SurveyExpirationService surveyExpirationService;
+
+    @Mock
+    private ResponseQuotaService responseQuotaService;
+
+    @Mock
+    private SurveyWriteCoalescer surveyWriteCoalescer;
+
+    @Mock
+    private PublicSurveyCache publicSurveyCache;
+
+    @Mock
+    private QuestionImageService questionImageService;
+
     @InjectMocks
     private SurveyService surveyService;
 
@@ -110,6 +139,7 @@ class SurveyServiceTest {
         // Arrange
         List<Survey> surveys = List.of(testSurvey);
         when(surveyRepository.findByCreatedBy(anyString())).thenReturn(surveys);
+        when(surveyWriteCoalescer.overlay(surveys)).thenReturn(surveys);
 
         // Act
         List<Survey> result = surveyService.getUserSurveys(userId);
@@ -126,18 +156,20 @@ class SurveyServiceTest {
     void updateSurvey_ShouldUpdateSuccessfully() {
         // Arrange
         when(surveyRepository.findById(anyString())).thenReturn(Optional.of(testSurvey));
-        when(surveyRepository.save(any(Survey.class))).thenReturn(testSurvey);
+        when(surveyWriteCoalescer.stage(any(Survey.class), any(), any())).thenAnswer(this::applyMutation);
 
         surveyRequest.setTitle("Updated Title");
         surveyRequest.setDescription("Updated Description");
 
         // Act
-        Survey result = surveyService.updateSurvey("survey-123", surveyRequest, userId);
+        Survey result = surveyService.updateSurvey("survey-123", surveyRequest, userId, null);
 
         // Assert
         assertNotNull(result);
+        assertEquals("Updated Title", result.getTitle());
         verify(surveyRepository).findById("survey-123");
-        verify(surveyRepository).save(any(Survey.class));
+        verify(surveyWriteCoalescer).stage(any(Survey.class), isNull(), any());
+        verify(surveyRepository, never()).save(any(Survey.class));
     }
 
     @Test
@@ -148,13 +180,31 @@ class SurveyServiceTest {
         doNothing().when(surveyRepository).deleteById(anyString());
 
         // Act
-        surveyService.deleteSurvey("survey-123", userId);
+        surveyService.deleteSurvey("survey-123", userId, null);
 
         // Assert
         verify(surveyRepository).findById("survey-123");
         verify(surveyRepository).deleteById("survey-123");
     }
 
+    @Test
+    @DisplayName("Debería responder 412 sin borrar respuestas si otra escritura cambió la versión antes de eliminar")
+    void deleteSurvey_ShouldRejectWhenVersionChangesBeforeDelete() {
+        // Arrange
+        testSurvey.setVersion(3L);
+        Survey concurrent = testSurvey.toBuilder().version(4L).build();
+        when(surveyRepository.findById(anyString())).thenReturn(Optional.of(testSurvey), Optional.of(concurrent));
+        when(surveyRepository.deleteIfVersion("survey-123", 3L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> surveyService.deleteSurvey("survey-123", userId, Set.of(3L)));
+        assertEquals("Precondition failed: la encuesta cambió, la versión actual es 4", exception.getMessage());
+        verify(surveyWriteCoalescer).flushNow("survey-123");
+        verify(responseRepository, never()).findBySurveyId(anyString());
+        verify(surveyRepository, never()).deleteById(anyString());
+    }
+
     @Test
     @DisplayName("Debería publicar una encuesta con preguntas")
     void publishSurvey_ShouldPublishSuccessfully_WhenHasQuestions() {
@@ -168,14 +218,40 @@ class SurveyServiceTest {
         testSurvey.getQuestions().add(question);
         
         when(surveyRepository.findById(anyString())).thenReturn(Optional.of(testSurvey));
-        when(surveyRepository.save(any(Survey.class))).thenReturn(testSurvey);
+        when(surveyWriteCoalescer.commit(any(Survey.class), any(), any())).thenAnswer(this::applyMutation);
 
         // Act
-        Survey result = surveyService.publishSurvey("survey-123", userId);
+        Survey result = surveyService.publishSurvey("survey-123", userId, null);
 
         // Assert
         assertNotNull(result);
-        verify(surveyRepository).save(any(Survey.class));
+        assertTrue(result.getIsPublished());
+        verify(surveyWriteCoalescer).commit(any(Survey.class), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("No debería duplicar la pregunta si la edición se reaplica")
+    @SuppressWarnings("unchecked")
+    void addQuestion_ShouldBeIdempotentOnReplay() {
+        // Arrange
+        Question question = Question.builder()
+                .title("Nueva")
+                .type(com.davivienda.survey.domain.model.QuestionType.TEXT)
+                .build();
+        when(surveyRepository.findById(anyString())).thenReturn(Optional.of(testSurvey));
+        when(surveyWriteCoalescer.commit(any(Survey.class), any(), any())).thenAnswer(invocation -> {
+            Survey survey = invocation.getArgument(0);
+            Consumer<Survey> mutation = invocation.getArgument(2);
+            mutation.accept(survey);
+            mutation.accept(survey);
+            return survey;
+        });
+
+        // Act
+        Survey result = surveyService.addQuestion("survey-123", question, userId, null);
+
+        // Assert
+        assertEquals(1, result.getQuestions().size());
     }
 
     @Test
@@ -195,4 +271,157 @@ class SurveyServiceTest {
         assertTrue(result.get(0).getIsPublished());
         verify(surveyRepository).findByIsPublished(true);
     }
+
+    @Test
+    @DisplayName("Debería listar resúmenes de encuestas publicadas sin las cerradas")
+    void getPublishedSurveySummaries_ShouldSkipClosed() {
+        // Arrange
+        testSurvey.setIsPublished(true);
+        SurveySummary open = SurveySummary.from(testSurvey);
+        SurveySummary closed = open.toBuilder().id("survey-456").isClosed(true).build();
+        when(surveyRepository.findSummariesByIsPublished(true)).thenReturn(List.of(open, closed));
+
+        // Act
+        List<SurveySummary> result = surveyService.getPublishedSurveySummaries();
+
+        // Assert
+        assertEquals(List.of(open), result);
+        assertEquals(0, result.get(0).getQuestionCount());
+        verify(surveyRepository, never()).findByIsPublished(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Debería crear, conservar, reordenar y eliminar preguntas en una sola escritura")
+    void replaceQuestions_ShouldApplyAllChangesInOneWrite() {
+        // Arrange
+        Question first = Question.builder().id("q1").title("Primera").imageUrl("data:image/png;base64,AAAA").order(1).build();
+        Question second = Question.builder().id("q2").title("Segunda").order(2).build();
+        Question removed = Question.builder().id("q3").title("Eliminada").order(3).build();
+        testSurvey.getQuestions().addAll(List.of(first, second, removed));
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(testSurvey));
+        when(surveyWriteCoalescer.commit(any(Survey.class), any(), any())).thenAnswer(this::applyMutation);
+
+        // Act
+        Survey result = surveyService.replaceQuestions("survey-123", List.of(
+                Question.builder().title("Nueva").build(),
+                Question.builder().id("q2").title("Segunda editada").build(),
+                Question.builder().id("q1").build()
+        ), userId, null);
+
+        // Assert
+        List<Question> questions = result.getQuestions();
+        assertEquals(3, questions.size());
+        assertEquals("Nueva", questions.get(0).getTitle());
+        assertNotNull(questions.get(0).getId());
+        assertEquals("Segunda editada", questions.get(1).getTitle());
+        assertEquals("data:image/png;base64,AAAA", questions.get(2).getImageUrl());
+        assertEquals(List.of(1, 2, 3), questions.stream().map(Question::getOrder).toList());
+        verify(surveyWriteCoalescer, times(1)).commit(any(Survey.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("No debería guardar nada si una pregunta no existe en la encuesta")
+    void replaceQuestions_ShouldFailWithoutWriting_WhenQuestionUnknown() {
+        // Arrange
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(testSurvey));
+        when(surveyWriteCoalescer.commit(any(Survey.class), any(), any())).thenAnswer(this::applyMutation);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> surveyService.replaceQuestions(
+                "survey-123", List.of(Question.builder().id("no-existe").build()), userId, null));
+        assertTrue(exception.getMessage().contains("not found"));
+        verify(surveyRepository, never()).save(any(Survey.class));
+        verify(surveyRepository, never()).compareAndSet(any(Survey.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Debería aplicar solo los campos y preguntas enviados en el merge-patch")
+    void patchSurvey_ShouldApplyOnlyPatchedMembers() throws Exception {
+        // Arrange
+        testSurvey.setIsPublished(true);
+        testSurvey.getQuestions().addAll(List.of(
+                Question.builder().id("q1").title("Primera").type(QuestionType.TEXT).order(1).build(),
+                Question.builder().id("q2").title("Segunda").type(QuestionType.TEXT).order(2).build()));
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(testSurvey));
+        when(surveyWriteCoalescer.commit(any(Survey.class), any(), any())).thenAnswer(this::applyMutation);
+        JsonNode patch = new ObjectMapper().readTree(
+                "{\"title\": \"Nuevo título\", \"description\": null, " +
+                "\"questions\": {\"q2\": {\"required\": true}}}");
+
+        // Act
+        Survey result = surveyService.patchSurvey("survey-123", patch, userId, Set.of(0L));
+
+        // Assert
+        verify(surveyWriteCoalescer, times(1)).commit(any(Survey.class), eq(Set.of(0L)), any());
+        assertEquals("Nuevo título", result.getTitle());
+        assertNull(result.getDescription());
+        assertEquals("Primera", result.getQuestions().get(0).getTitle());
+        assertNull(result.getQuestions().get(0).getRequired());
+        assertTrue(result.getQuestions().get(1).getRequired());
+        assertFalse(result.getIsPublished());
+    }
+
+    @Test
+    @DisplayName("No debería escribir un merge-patch que no cambia nada")
+    void patchSurvey_ShouldNotWrite_WhenNothingChanges() throws Exception {
+        // Arrange
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(testSurvey));
+        JsonNode patch = new ObjectMapper().readTree("{\"title\": \"Test Survey\"}");
+
+        // Act
+        Survey result = surveyService.patchSurvey("survey-123", patch, userId, null);
+
+        // Assert
+        assertSame(testSurvey, result);
+        verify(surveyWriteCoalescer, never()).commit(any(Survey.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un merge-patch con campos que no se pueden editar")
+    void patchSurvey_ShouldRejectNonEditableField() throws Exception {
+        // Arrange
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(testSurvey));
+        JsonNode patch = new ObjectMapper().readTree("{\"createdBy\": \"otro\"}");
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> surveyService.patchSurvey("survey-123", patch, userId, null));
+        verify(surveyWriteCoalescer, never()).commit(any(Survey.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería obtener varias encuestas en el orden pedido e informar las inexistentes")
+    void getSurveys_ShouldPreserveOrderAndReportMissing() {
+        // Arrange
+        ReflectionTestUtils.setField(surveyService, "batchGetMaxIds", 10);
+        ReflectionTestUtils.setField(surveyService, "batchGetParallelism", 2);
+        Survey pending = testSurvey.toBuilder().id("survey-pending").title("Editada").build();
+        Survey other = testSurvey.toBuilder().id("survey-456").build();
+        when(surveyWriteCoalescer.pending(anyString())).thenReturn(Optional.empty());
+        when(surveyWriteCoalescer.pending("survey-pending")).thenReturn(Optional.of(pending));
+        when(surveyRepository.findByIdAsync("survey-456")).thenReturn(CompletableFuture.completedFuture(Optional.of(other)));
+        when(surveyRepository.findByIdAsync("survey-123")).thenReturn(CompletableFuture.completedFuture(Optional.of(testSurvey)));
+        when(surveyRepository.findByIdAsync("no-existe")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        // Act
+        SurveyBatchResult result = surveyService.getSurveys(
+                List.of("survey-456", "no-existe", "survey-pending", "survey-123", "survey-456"));
+
+        // Assert
+        assertEquals(List.of("survey-456", "survey-pending", "survey-123"),
+                result.getSurveys().stream().map(Survey::getId).toList());
+        assertEquals("Editada", result.getSurveys().get(1).getTitle());
+        assertEquals(List.of("no-existe"), result.getMissing());
+        verify(surveyRepository, times(1)).findByIdAsync("survey-456");
+        verify(surveyRepository, never()).findByIdAsync("survey-pending");
+    }
+
+    /**
+     * Simula el coalescer: aplica la modificación sobre el estado recibido y lo devuelve.
+     */
+    @SuppressWarnings("unchecked")
+    private Survey applyMutation(InvocationOnMock invocation) {
+        Survey survey = invocation.getArgument(0);
+        ((Consumer<Survey>) invocation.getArgument(2)).accept(survey);
+        return survey;
+    }
 }
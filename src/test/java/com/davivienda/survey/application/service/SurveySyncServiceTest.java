@@ -0,0 +1,150 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.application.dto.SurveyChanges;
+import com.davivienda.survey.domain.model.SurveySummary;
+import com.davivienda.survey.domain.model.SurveyTombstone;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Survey Sync Service Tests")
+class SurveySyncServiceTest {
+
+    @Mock
+    private SurveyRepository surveyRepository;
+
+    private SurveySyncService surveySyncService;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        surveySyncService = new SurveySyncService(surveyRepository);
+        ReflectionTestUtils.setField(surveySyncService, "pageSize", 3);
+        ReflectionTestUtils.setField(surveySyncService, "tombstoneRetentionDays", 30);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    @DisplayName("Debería mezclar cambios y eliminaciones en orden y ocultar los borradores de otros usuarios")
+    void getChanges_ShouldMergeInOrderAndApplyVisibility() {
+        // Arrange
+        String token = token(now - 1000, now - 1000, "a");
+        when(surveyRepository.findSummariesChangedSince(now - 1000, "a", 3)).thenReturn(List.of(
+                summary("propia", "user-1", false, now - 900),
+                summary("ajena", "user-2", false, now - 700)));
+        when(surveyRepository.findTombstonesSince(now - 1000, "a", 3)).thenReturn(List.of(
+                new SurveyTombstone("borrada", now - 800)));
+
+        // Act
+        SurveyChanges changes = surveySyncService.getChanges(token, "user-1");
+
+        // Assert
+        assertEquals(List.of("propia"), changes.getChanged().stream().map(SurveySummary::getId).toList());
+        assertEquals(List.of("borrada", "ajena"), changes.getRemoved());
+        assertFalse(changes.isFullResync());
+        assertFalse(changes.isHasMore());
+        assertEquals(new SurveySyncService.Position(now - 700, "ajena"), SurveySyncService.parse(changes.getToken()).position());
+    }
+
+    @Test
+    @DisplayName("Debería pedir resincronización completa si el token es más antiguo que las marcas de eliminación")
+    void getChanges_ShouldRequestFullResyncForExpiredToken() {
+        // Arrange
+        String token = token(1000, 1000, "a");
+        when(surveyRepository.findSummariesChangedSince(0, null, 3)).thenReturn(List.of(
+                summary("publicada", "user-2", true, now - 500)));
+        when(surveyRepository.findTombstonesSince(eq(0L), isNull(), anyInt())).thenReturn(List.of());
+
+        // Act
+        SurveyChanges changes = surveySyncService.getChanges(token, "user-1");
+
+        // Assert
+        assertTrue(changes.isFullResync());
+        assertFalse(changes.isHasMore());
+        assertEquals(1, changes.getChanged().size());
+        verify(surveyRepository, never()).findSummariesChangedSince(eq(1000L), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debería paginar la sincronización inicial aunque los cambios sean más antiguos que la retención")
+    void getChanges_ShouldPagePastOldItems() {
+        // Arrange
+        long old = now - TimeUnit.DAYS.toMillis(40);
+        when(surveyRepository.findSummariesChangedSince(0, null, 3)).thenReturn(List.of(
+                summary("a", "user-2", true, old),
+                summary("b", "user-2", true, old + 1),
+                summary("c", "user-2", true, old + 2)));
+        when(surveyRepository.findSummariesChangedSince(old + 2, "c", 3)).thenReturn(List.of(
+                summary("d", "user-2", true, old + 3)));
+        when(surveyRepository.findTombstonesSince(anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        SurveyChanges first = surveySyncService.getChanges(null, "user-1");
+        SurveyChanges second = surveySyncService.getChanges(first.getToken(), "user-1");
+
+        // Assert
+        assertTrue(first.isHasMore());
+        assertFalse(second.isFullResync());
+        assertFalse(second.isHasMore());
+        assertEquals(List.of("d"), second.getChanged().stream().map(SurveySummary::getId).toList());
+    }
+
+    @Test
+    @DisplayName("No debería pedir resincronización a un cliente al día aunque el catálogo no cambie hace tiempo")
+    void getChanges_ShouldNotResyncQuietCatalog() {
+        // Arrange
+        long old = now - TimeUnit.DAYS.toMillis(40);
+        String token = token(now - 60_000, old, "a");
+        when(surveyRepository.findSummariesChangedSince(old, "a", 3)).thenReturn(List.of());
+        when(surveyRepository.findTombstonesSince(old, "a", 3)).thenReturn(List.of());
+
+        // Act
+        SurveyChanges changes = surveySyncService.getChanges(token, "user-1");
+
+        // Assert
+        assertFalse(changes.isFullResync());
+        SurveySyncService.Token next = SurveySyncService.parse(changes.getToken());
+        assertEquals(new SurveySyncService.Position(old, "a"), next.position());
+        assertTrue(next.syncedAt() >= now);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un token mal formado")
+    void getChanges_ShouldRejectMalformedToken() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> surveySyncService.getChanges("no-es-un-token", "user-1"));
+        assertEquals("Token de sincronización inválido", exception.getMessage());
+        verify(surveyRepository, never()).findSummariesChangedSince(anyLong(), any(), anyInt());
+    }
+
+    private String token(long syncedAt, long changedAt, String afterId) {
+        return SurveySyncService.encode(new SurveySyncService.Token(syncedAt,
+                new SurveySyncService.Position(changedAt, afterId)));
+    }
+
+    private SurveySummary summary(String id, String createdBy, boolean published, long changedAt) {
+        return SurveySummary.builder()
+                .id(id)
+                .createdBy(createdBy)
+                .isPublished(published)
+                .isClosed(false)
+                .changedAt(changedAt)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.davivienda.survey.application.service;
+
+import com.davivienda.survey.domain.model.Survey;
+import com.davivienda.survey.domain.port.SurveyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Survey Write Coalescer Tests")
+class SurveyWriteCoalescerTest {
+
+    @Mock
+    private SurveyRepository surveyRepository;
+
+    private SurveyWriteCoalescer surveyWriteCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        surveyWriteCoalescer = new SurveyWriteCoalescer(surveyRepository, new PublicSurveyCache(60_000, 1_000), new SimpleMeterRegistry(), 60_000, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        surveyWriteCoalescer.flushAll();
+    }
+
+    @Test
+    @DisplayName("Debería persistir solo el último estado de varias ediciones")
+    void stage_ShouldPersistMergedStateOnce() {
+        // Arrange
+        Survey survey = survey("Título 1");
+        when(surveyRepository.compareAndSet(any(Survey.class), anyLong())).thenReturn(true);
+
+        // Act
+        for (int i = 2; i <= 10; i++) {
+            String title = "Título " + i;
+            surveyWriteCoalescer.stage(survey, null, s -> s.setTitle(title));
+        }
+        verify(surveyRepository, never()).compareAndSet(any(Survey.class), anyLong());
+        surveyWriteCoalescer.flushAll();
+
+        // Assert
+        verify(surveyRepository, times(1)).compareAndSet(
+                argThat(saved -> "Título 10".equals(saved.getTitle()) && saved.getVersion() == 12L), eq(3L));
+    }
+
+    @Test
+    @DisplayName("Debería devolver una copia del estado pendiente")
+    void pending_ShouldReturnCopyOfStagedState() {
+        // Arrange
+        surveyWriteCoalescer.stage(survey("Título"), null, s -> s.setTitle("Borrador"));
+
+        // Act
+        Optional<Survey> pending = surveyWriteCoalescer.pending("survey-123");
+        pending.get().setTitle("Modificado fuera del coalescer");
+
+        // Assert
+        assertEquals("Borrador", surveyWriteCoalescer.pending("survey-123").get().getTitle());
+    }
+
+    @Test
+    @DisplayName("Debería descartar lo pendiente antes de una escritura directa")
+    void discard_ShouldDropPendingWrite() {
+        // Arrange
+        surveyWriteCoalescer.stage(survey("Título"), null, s -> s.setTitle("Borrador"));
+
+        // Act
+        surveyWriteCoalescer.discard("survey-123");
+        surveyWriteCoalescer.flushAll();
+
+        // Assert
+        assertTrue(surveyWriteCoalescer.pending("survey-123").isEmpty());
+        verify(surveyRepository, never()).compareAndSet(any(Survey.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Debería reaplicar la edición sin If-Match sobre el estado actual si otra escritura se adelantó")
+    void commit_ShouldReplayMutationAfterConflict() {
+        // Arrange
+        Survey concurrent = survey("Título");
+        concurrent.setDescription("Escrita por otra instancia");
+        concurrent.setVersion(4L);
+        when(surveyRepository.compareAndSet(any(Survey.class), eq(3L))).thenReturn(false);
+        when(surveyRepository.compareAndSet(any(Survey.class), eq(4L))).thenReturn(true);
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(concurrent));
+
+        // Act
+        Survey result = surveyWriteCoalescer.commit(survey("Título"), null, s -> s.setTitle("Nuevo"));
+
+        // Assert
+        assertEquals("Nuevo", result.getTitle());
+        assertEquals("Escrita por otra instancia", result.getDescription());
+        assertEquals(5L, result.getVersion());
+        verify(surveyRepository, times(2)).compareAndSet(any(Survey.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Debería responder 412 si una edición con If-Match pierde el compare-and-set")
+    void commit_ShouldRejectConditionalEditAfterConflict() {
+        // Arrange
+        Survey concurrent = survey("Título");
+        concurrent.setVersion(4L);
+        when(surveyRepository.compareAndSet(any(Survey.class), eq(3L))).thenReturn(false);
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(concurrent));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> surveyWriteCoalescer.commit(survey("Título"), Set.of(3L), s -> s.setTitle("Nuevo")));
+        assertEquals("Precondition failed: la encuesta cambió, la versión actual es 4", exception.getMessage());
+        assertTrue(surveyWriteCoalescer.pending("survey-123").isEmpty());
+        verify(surveyRepository, times(1)).compareAndSet(any(Survey.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Debería descartar los autoguardados con If-Match y reaplicar el resto tras un conflicto")
+    void stage_ShouldDropConditionalEditsAfterConflict() {
+        // Arrange
+        Survey concurrent = survey("Título");
+        concurrent.setVersion(4L);
+        when(surveyRepository.compareAndSet(any(Survey.class), eq(3L))).thenReturn(false);
+        when(surveyRepository.compareAndSet(any(Survey.class), eq(4L))).thenReturn(true);
+        when(surveyRepository.findById("survey-123")).thenReturn(Optional.of(concurrent));
+        surveyWriteCoalescer.stage(survey("Título"), Set.of(3L), s -> s.setTitle("Condicional"));
+        surveyWriteCoalescer.stage(survey("Título"), null, s -> s.setDescription("Sin condición"));
+
+        // Act
+        surveyWriteCoalescer.flushAll();
+
+        // Assert
+        verify(surveyRepository).compareAndSet(argThat(saved -> "Título".equals(saved.getTitle())
+                && "Sin condición".equals(saved.getDescription()) && saved.getVersion() == 5L), eq(4L));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la edición si la versión de If-Match no es la actual")
+    void commit_ShouldRejectStaleVersion() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> surveyWriteCoalescer.commit(survey("Título"), Set.of(2L), s -> s.setTitle("Nuevo")));
+        assertTrue(exception.getMessage().startsWith("Precondition failed"));
+        assertTrue(surveyWriteCoalescer.pending("survey-123").isEmpty());
+        verify(surveyRepository, never()).compareAndSet(any(Survey.class), anyLong());
+    }
+
+    private Survey survey(String title) {
+        return Survey.builder()
+                .id("survey-123")
+                .title(title)
+                .createdBy("user-123")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .isPublished(false)
+                .questions(new ArrayList<>())
+                .version(3L)
+                .build();
+    }
+}
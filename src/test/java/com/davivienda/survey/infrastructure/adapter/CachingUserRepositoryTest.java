@@ -0,0 +1,106 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Caching User Repository Tests")
+class CachingUserRepositoryTest {
+
+    @Mock
+    private FirebaseUserRepository firebaseUserRepository;
+
+    private CachingUserRepository userRepository;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new CachingUserRepository(firebaseUserRepository, new SimpleMeterRegistry(), 100, 60_000, 60_000);
+        testUser = User.builder()
+                .id("user-123")
+                .name("Test User")
+                .email("test@example.com")
+                .password("encodedPassword")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debería consultar Firebase una sola vez por email y por id")
+    void findByEmail_ShouldHitDelegateOnce() {
+        // Arrange
+        when(firebaseUserRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        userRepository.findByEmail("test@example.com");
+        User user = userRepository.findByEmail("test@example.com").orElseThrow();
+        user.setPassword(null);
+
+        // Assert
+        assertEquals("encodedPassword", userRepository.findById("user-123").orElseThrow().getPassword());
+        verify(firebaseUserRepository, times(1)).findByEmail("test@example.com");
+        verify(firebaseUserRepository, never()).findById("user-123");
+    }
+
+    @Test
+    @DisplayName("Debería recordar los emails inexistentes")
+    void findByEmail_ShouldCacheUnknownEmails() {
+        // Arrange
+        when(firebaseUserRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertFalse(userRepository.existsByEmail("unknown@example.com"));
+        }
+
+        // Assert
+        verify(firebaseUserRepository, times(1)).findByEmail("unknown@example.com");
+    }
+
+    @Test
+    @DisplayName("Debería ver el usuario recién registrado aunque su email estaba marcado como inexistente")
+    void save_ShouldInvalidateNegativeEntry() {
+        // Arrange
+        when(firebaseUserRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+        when(firebaseUserRepository.save(testUser)).thenReturn(testUser);
+        assertFalse(userRepository.existsByEmail("test@example.com"));
+
+        // Act
+        userRepository.save(testUser);
+
+        // Assert
+        assertTrue(userRepository.existsByEmail("test@example.com"));
+        verify(firebaseUserRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Debería invalidar el usuario eliminado")
+    void deleteById_ShouldInvalidateEntries() {
+        // Arrange
+        when(firebaseUserRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser))
+                .thenReturn(Optional.empty());
+        userRepository.findByEmail("test@example.com");
+
+        // Act
+        userRepository.deleteById("user-123");
+
+        // Assert
+        assertTrue(userRepository.findByEmail("test@example.com").isEmpty());
+        verify(firebaseUserRepository).deleteById("user-123");
+        verify(firebaseUserRepository, times(2)).findByEmail("test@example.com");
+    }
+}
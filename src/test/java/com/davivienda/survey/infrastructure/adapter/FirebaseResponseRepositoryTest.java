@@ -0,0 +1,104 @@
+package com.davivienda.survey.infrastructure.adapter;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Firebase Response Repository Tests")
+class FirebaseResponseRepositoryTest {
+
+    @Mock
+    private FirebaseSurveyRepository surveyRepository;
+
+    @Mock
+    private FirebaseDatabase firebaseDatabase;
+
+    @Mock
+    private DatabaseReference root;
+
+    @Mock
+    private DatabaseReference responses;
+
+    private MockedStatic<FirebaseDatabase> firebase;
+    // Contenido de responses/{id} en el "servidor"
+    private final Map<String, Object> stored = new HashMap<>();
+    private FirebaseResponseRepository responseRepository;
+
+    @BeforeEach
+    void setUp() {
+        firebase = mockStatic(FirebaseDatabase.class);
+        firebase.when(FirebaseDatabase::getInstance).thenReturn(firebaseDatabase);
+        when(firebaseDatabase.getReference()).thenReturn(root);
+        when(root.child("responses")).thenReturn(responses);
+        when(responses.child(anyString())).thenAnswer(invocation -> response(invocation.getArgument(0)));
+        responseRepository = new FirebaseResponseRepository(surveyRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firebase.close();
+    }
+
+    @Test
+    @DisplayName("Debería contar una sola vez las respuestas de un lote reenviado")
+    void saveAll_ShouldCountReplayedBatchOnce() {
+        // Arrange
+        List<SurveyResponse> batch = List.of(surveyResponse("r1"), surveyResponse("r2"));
+
+        // Act
+        responseRepository.saveAll(batch);
+        responseRepository.saveAll(batch);
+
+        // Assert
+        verify(surveyRepository, times(1)).incrementResponseCount("survey-123", 2L);
+        verify(surveyRepository, times(1)).incrementResponseCount(anyString(), anyLong());
+    }
+
+    private DatabaseReference response(String id) {
+        DatabaseReference reference = mock(DatabaseReference.class);
+        doAnswer(invocation -> {
+            Transaction.Handler handler = invocation.getArgument(0);
+            MutableData data = mock(MutableData.class);
+            when(data.getValue()).thenReturn(stored.get(id));
+            lenient().doAnswer(set -> stored.put(id, set.getArgument(0))).when(data).setValue(any());
+            Transaction.Result result = handler.doTransaction(data);
+            handler.onComplete(null, result.isSuccess(), null);
+            return null;
+        }).when(reference).runTransaction(any(Transaction.Handler.class));
+        return reference;
+    }
+
+    private SurveyResponse surveyResponse(String id) {
+        return SurveyResponse.builder()
+                .id(id)
+                .surveyId("survey-123")
+                .respondentId("test@example.com")
+                .answers(List.of(SurveyResponse.Answer.builder()
+                        .questionId("q1")
+                        .value(List.of("Sí"))
+                        .build()))
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.davivienda.survey.infrastructure.concurrency;
+
+import com.davivienda.survey.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulkhead Tests")
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("test", 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar la tarea en el pool del bulkhead")
+    void submit_ShouldRunTaskOnBulkheadThread() throws Exception {
+        // Act
+        String threadName = bulkhead.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(threadName.startsWith("bulkhead-test-"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar tareas cuando hilos y cola están llenos")
+    void submit_ShouldReject_WhenSaturated() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Integer> running = bulkhead.submit(() -> {
+            started.countDown();
+            await(release);
+            return 1;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Integer> queued = bulkhead.submit(() -> 2);
+
+        // Act & Assert
+        assertThrows(BulkheadFullException.class, () -> bulkhead.submit(() -> 3));
+        assertEquals(1.0, bulkhead.saturation());
+        assertEquals(1.0, meterRegistry.get("bulkhead.rejected").tag("bulkhead", "test").counter().count());
+
+        release.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería propagar las excepciones de la tarea en el future")
+    void submit_ShouldCompleteExceptionally_WhenTaskFails() {
+        // Act
+        CompletableFuture<Object> future = bulkhead.submit(() -> {
+            throw new RuntimeException("Survey not found");
+        });
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("Survey not found", exception.getCause().getMessage());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.davivienda.survey.infrastructure.config;
+
+import com.davivienda.survey.domain.model.Question;
+import com.davivienda.survey.domain.model.QuestionType;
+import com.davivienda.survey.domain.model.Survey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Jackson Config Tests")
+class JacksonConfigTest {
+
+    private final JacksonConfig jacksonConfig = new JacksonConfig();
+
+    @Test
+    @DisplayName("Debería enviar las imágenes en binario en CBOR y recuperarlas igual")
+    void cborMapper_ShouldWriteImagesAsBinary_AndRoundTrip() throws Exception {
+        // Arrange
+        CBORMapper cborMapper = jacksonConfig.cborMapper();
+        byte[] image = new byte[30_000];
+        new Random(7).nextBytes(image);
+        Survey survey = surveyWithImage("data:image/png;base64," + Base64.getEncoder().encodeToString(image));
+
+        // Act
+        byte[] cbor = cborMapper.writeValueAsBytes(survey);
+        byte[] json = jacksonConfig.objectMapper().writeValueAsBytes(survey);
+        JsonNode imageNode = cborMapper.readTree(cbor).get("questions").get(0).get("imageUrl");
+        Survey read = cborMapper.readValue(cbor, Survey.class);
+
+        // Assert: el base64 ocupa 4/3 de los bytes de la imagen
+        assertTrue(cbor.length < image.length + 1_000);
+        assertTrue(json.length > image.length * 4 / 3);
+        assertEquals("image/png", imageNode.get("mediaType").asText());
+        assertArrayEquals(image, imageNode.get("data").binaryValue());
+        assertEquals(survey, read);
+    }
+
+    @Test
+    @DisplayName("Debería mantener como texto las URL normales y aceptar data-URI en texto")
+    void smileMapper_ShouldKeepPlainUrls_AndAcceptTextDataUris() throws Exception {
+        // Arrange
+        SmileMapper smileMapper = jacksonConfig.smileMapper();
+        Survey withUrl = surveyWithImage("https://example.com/imagen.png");
+        Survey withText = surveyWithImage("data:image/gif;base64,R0lGODlhAQABAAAAACw=");
+
+        // Act
+        Survey readUrl = smileMapper.readValue(smileMapper.writeValueAsBytes(withUrl), Survey.class);
+        Survey readText = smileMapper.readValue(
+                smileMapper.writeValueAsBytes(new ObjectMapper().readTree(
+                        jacksonConfig.objectMapper().writeValueAsBytes(withText))),
+                Survey.class);
+
+        // Assert
+        assertEquals(withUrl, readUrl);
+        assertEquals(withText.getQuestions().get(0).getImageUrl(), readText.getQuestions().get(0).getImageUrl());
+    }
+
+    private Survey surveyWithImage(String imageUrl) {
+        return Survey.builder()
+                .id("survey-123")
+                .title("Encuesta")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .questions(List.of(Question.builder()
+                        .id("q1")
+                        .title("¿Qué ves?")
+                        .type(QuestionType.TEXT)
+                        .imageUrl(imageUrl)
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.davivienda.survey.infrastructure.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hashed Timer Wheel Tests")
+class HashedTimerWheelTest {
+
+    private HashedTimerWheel timerWheel;
+
+    @BeforeEach
+    void setUp() {
+        timerWheel = new HashedTimerWheel("test-wheel", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerWheel.stop();
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar la tarea al vencer el plazo")
+    void schedule_ShouldRunTask_AfterDelay() throws Exception {
+        // Arrange
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // Act
+        timerWheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar temporizadores más lejanos que una vuelta de la rueda")
+    void schedule_ShouldRunTask_AfterSeveralRounds() throws Exception {
+        // Arrange
+        CountDownLatch fired = new CountDownLatch(1);
+
+        // Act: 8 buckets x 10ms = 80ms por vuelta
+        timerWheel.schedule(fired::countDown, 250, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertFalse(fired.await(150, TimeUnit.MILLISECONDS));
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("No debería ejecutar una tarea cancelada")
+    void cancel_ShouldPreventExecution() throws Exception {
+        // Arrange
+        AtomicBoolean fired = new AtomicBoolean();
+        HashedTimerWheel.Timeout timeout = timerWheel.schedule(() -> fired.set(true), 30, TimeUnit.MILLISECONDS);
+
+        // Act
+        timeout.cancel();
+        Thread.sleep(150);
+
+        // Assert
+        assertTrue(timeout.isCancelled());
+        assertFalse(fired.get());
+    }
+}
@@ -0,0 +1,57 @@
+package com.davivienda.survey.infrastructure.security;
+
+import com.davivienda.survey.infrastructure.concurrency.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bounded Password Encoder Tests")
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("hashing", 2, 4, meterRegistry);
+        passwordEncoder = new BoundedPasswordEncoder(5, bulkhead, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería calcular y verificar hashes en el pool de hashing")
+    void encodeAndMatches_ShouldRunInBulkhead() {
+        // Act
+        String hash = passwordEncoder.encode("password123");
+
+        // Assert
+        assertTrue(passwordEncoder.matches("password123", hash));
+        assertFalse(passwordEncoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "matches").tag("outcome", "match").timer().count());
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "matches").tag("outcome", "mismatch").timer().count());
+    }
+
+    @Test
+    @DisplayName("Debería pedir recalcular los hashes con un costo distinto al configurado")
+    void upgradeEncoding_ShouldDetectCostChange() {
+        // Arrange
+        String oldCost = new BCryptPasswordEncoder(4).encode("password123");
+        String currentCost = passwordEncoder.encode("password123");
+
+        // Act & Assert
+        assertTrue(passwordEncoder.upgradeEncoding(oldCost));
+        assertFalse(passwordEncoder.upgradeEncoding(currentCost));
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+    }
+}
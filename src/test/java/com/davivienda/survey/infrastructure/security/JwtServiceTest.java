@@ -1,5 +1,7 @@
 package com.davivienda.survey.infrastructure.security;
 
+import com.davivienda.survey.domain.model.User;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,6 +9,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -96,4 +101,45 @@ class JwtServiceTest {
         assertEquals(email1, jwtService.extractUsername(token1));
         assertEquals(email2, jwtService.extractUsername(token2));
     }
+
+    @Test
+    @DisplayName("Debería rechazar un token alterado aunque el original esté en caché")
+    void extractUsername_ShouldRejectTamperedToken_WhenOriginalIsCached() {
+        // Arrange
+        String token = jwtService.generateToken(testEmail);
+        jwtService.extractUsername(token);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin@example.com\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        // Act & Assert
+        assertEquals(testEmail, jwtService.extractUsername(token));
+        assertThrows(SignatureException.class, () -> jwtService.extractUsername(tampered));
+    }
+
+    @Test
+    @DisplayName("Debería construir el usuario autenticado desde los claims del token")
+    void extractPrincipal_ShouldReturnUserFromClaims() {
+        // Arrange
+        User user = User.builder().id("user-123").name("Test User").email(testEmail).build();
+        String token = jwtService.generateToken(user);
+
+        // Act
+        JwtPrincipal principal = jwtService.extractPrincipal(token);
+
+        // Assert
+        assertEquals(new JwtPrincipal("user-123", "Test User", testEmail), principal);
+        assertEquals(testEmail, principal.getName());
+    }
+
+    @Test
+    @DisplayName("No debería construir el usuario desde tokens sin id (emitidos antes)")
+    void extractPrincipal_ShouldReturnNull_ForLegacyToken() {
+        // Arrange
+        String token = jwtService.generateToken(testEmail);
+
+        // Act & Assert
+        assertNull(jwtService.extractPrincipal(token));
+    }
 }
@@ -0,0 +1,103 @@
+package com.davivienda.survey.infrastructure.storage;
+
+import com.davivienda.survey.domain.model.StoredImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local File Image Store Tests")
+class LocalFileImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private LocalFileImageStore imageStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStore = new LocalFileImageStore(directory.toString());
+        imageStore.open();
+    }
+
+    @Test
+    @DisplayName("Debería guardar una sola copia de la misma imagen")
+    void save_ShouldDeduplicateByContent() throws Exception {
+        // Arrange
+        byte[] logo = "logo".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        StoredImage first = imageStore.save("image/png", logo);
+        StoredImage second = imageStore.save("image/png", logo.clone());
+
+        // Assert
+        assertEquals(first.getHash(), second.getHash());
+        assertEquals(LocalFileImageStore.sha256(logo), first.getHash());
+        assertEquals("image/png", imageStore.find(first.getHash()).get().getMediaType());
+        assertArrayEquals(logo, imageStore.read(first.getHash()).get());
+        assertArrayEquals(logo, Files.readAllBytes(imageStore.locate(first.getHash()).get()));
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("No debería dejar archivos si la lectura del flujo falla a mitad")
+    void save_ShouldLeaveNothingWhenStreamFails() throws Exception {
+        // Arrange
+        InputStream failing = new SequenceInputStream(
+                new ByteArrayInputStream(new byte[64 * 1024]),
+                new InputStream() {
+                    @Override
+                    public int read() {
+                        throw new RuntimeException("La imagen excede el tamaño máximo de 2MB");
+                    }
+                });
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> imageStore.save("image/png", failing));
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería eliminar solo las imágenes sin referencias guardadas antes del límite")
+    void deleteUnreferenced_ShouldKeepReferencedAndRecentImages() {
+        // Arrange
+        String referenced = imageStore.save("image/png", new byte[]{1}).getHash();
+        String orphan = imageStore.save("image/png", new byte[]{2}).getHash();
+
+        // Act
+        int recent = imageStore.deleteUnreferenced(Set.of(referenced), Instant.now().minusSeconds(3600));
+        int deleted = imageStore.deleteUnreferenced(Set.of(referenced), Instant.now().plusSeconds(1));
+
+        // Assert
+        assertEquals(0, recent);
+        assertEquals(1, deleted);
+        assertTrue(imageStore.find(referenced).isPresent());
+        assertTrue(imageStore.find(orphan).isEmpty());
+    }
+
+    @Test
+    @DisplayName("No debería aceptar hashes que no sean SHA-256")
+    void find_ShouldIgnoreInvalidHash() {
+        // Act & Assert
+        assertTrue(imageStore.find("../../etc/passwd").isEmpty());
+        assertTrue(imageStore.read("abc").isEmpty());
+        assertTrue(imageStore.locate("../../etc/passwd").isEmpty());
+        assertFalse(imageStore.touch("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.davivienda.survey.infrastructure.wal;
+
+import com.davivienda.survey.domain.model.SurveyResponse;
+import com.davivienda.survey.domain.port.ResponseRepository;
+import com.davivienda.survey.infrastructure.exception.IngestionNotDurableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Response WAL Tests")
+class MappedResponseWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    private ObjectMapper objectMapper;
+    private MappedResponseWriteAheadLog wal;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        wal = openWal(4096);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería enviar a Firebase en un solo lote las respuestas anexadas")
+    void flushPending_ShouldSaveAppendedResponsesInOneBatch() {
+        // Arrange
+        wal.append(response("r1"));
+        wal.append(response("r2"));
+
+        // Act
+        int flushed = wal.flushPending();
+
+        // Assert
+        assertEquals(2, flushed);
+        assertEquals(0, wal.backlog());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SurveyResponse>> captor = ArgumentCaptor.forClass(List.class);
+        verify(responseRepository).saveAll(captor.capture());
+        assertEquals(List.of("r1", "r2"), captor.getValue().stream().map(SurveyResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debería anexar un lote completo y enviarlo en orden")
+    void appendAll_ShouldAppendWholeBatch() {
+        // Act
+        wal.appendAll(List.of(response("r1"), response("r2"), response("r3")));
+
+        // Assert
+        assertEquals(3, wal.backlog());
+        assertEquals(3, wal.flushPending());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SurveyResponse>> captor = ArgumentCaptor.forClass(List.class);
+        verify(responseRepository).saveAll(captor.capture());
+        assertEquals(List.of("r1", "r2", "r3"), captor.getValue().stream().map(SurveyResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("No debería confirmar una respuesta si la espera del fsync se interrumpe")
+    void append_ShouldNotAcknowledge_WhenInterrupted() throws Exception {
+        // Arrange
+        Thread.currentThread().interrupt();
+
+        // Act & Assert
+        assertThrows(IngestionNotDurableException.class, () -> wal.append(response("r1")));
+        assertTrue(Thread.interrupted());
+        assertEquals(1.0, meterRegistry.counter("wal.commit.interrupted").count());
+
+        // La respuesta sigue en el log y se envía cuando el fsync termina
+        int flushed = 0;
+        for (int i = 0; i < 100 && flushed == 0; i++) {
+            Thread.sleep(10);
+            flushed = wal.flushPending();
+        }
+        assertEquals(1, flushed);
+    }
+
+    @Test
+    @DisplayName("Debería informar los IDs pendientes hasta enviarlos, también tras reiniciar")
+    void findPendingIds_ShouldTrackUnflushedResponses() throws Exception {
+        // Arrange
+        doThrow(new RuntimeException("Firebase unavailable")).when(responseRepository).saveAll(anyList());
+        wal.appendAll(List.of(response("r1"), response("r2")));
+        wal.close();
+        reset(responseRepository);
+        wal = openWal(4096);
+
+        // Act
+        Set<String> pending = wal.findPendingIds(List.of("r1", "r3"));
+        wal.flushPending();
+
+        // Assert
+        assertEquals(Set.of("r1"), pending);
+        assertTrue(wal.findPendingIds(List.of("r1", "r2")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería reenviar tras reiniciar las respuestas no enviadas")
+    void open_ShouldReplayPendingResponses_AfterRestart() throws Exception {
+        // Arrange
+        doThrow(new RuntimeException("Firebase unavailable")).when(responseRepository).saveAll(anyList());
+        wal.append(response("r1"));
+        wal.flushPending();
+        wal.close();
+        reset(responseRepository);
+
+        // Act
+        wal = openWal(4096);
+        int flushed = wal.flushPending();
+
+        // Assert
+        assertEquals(1, flushed);
+        verify(responseRepository).saveAll(argThat(list -> list.size() == 1 && list.get(0).getId().equals("r1")));
+    }
+
+    @Test
+    @DisplayName("Debería continuar en un nuevo segmento cuando el actual se llena")
+    void append_ShouldRollSegment_WhenFull() throws Exception {
+        // Arrange
+        wal.close();
+        wal = openWal(512);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            wal.append(response("r" + i));
+        }
+        int flushed = wal.flushPending();
+
+        // Assert
+        assertEquals(10, flushed);
+        assertEquals(0, wal.backlog());
+    }
+
+    @Test
+    @DisplayName("Debería informar el atraso de lo pendiente y volver a cero al enviarlo")
+    void lagGauge_ShouldTrackOldestPendingResponse() throws Exception {
+        // Arrange
+        wal.append(response("r1"));
+        Thread.sleep(20);
+
+        // Act
+        double pendingLag = meterRegistry.get("wal.lag.seconds").gauge().value();
+        wal.flushPending();
+        double flushedLag = meterRegistry.get("wal.lag.seconds").gauge().value();
+
+        // Assert
+        assertTrue(pendingLag >= 0.02);
+        assertEquals(0, flushedLag);
+    }
+
+    private MappedResponseWriteAheadLog openWal(int segmentSize) throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        MappedResponseWriteAheadLog log = new MappedResponseWriteAheadLog(
+                responseRepository, objectMapper, meterRegistry,
+                directory.toString(), segmentSize, 60_000, 500, 5_000);
+        log.open();
+        return log;
+    }
+
+    private SurveyResponse response(String id) {
+        return SurveyResponse.builder()
+                .id(id)
+                .surveyId("survey-123")
+                .respondentId("test@example.com")
+                .answers(List.of(SurveyResponse.Answer.builder()
+                        .questionId("q1")
+                        .value(List.of("Sí"))
+                        .build()))
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+}
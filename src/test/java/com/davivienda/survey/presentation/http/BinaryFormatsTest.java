@@ -0,0 +1,39 @@
+package com.davivienda.survey.presentation.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Binary Formats Tests")
+class BinaryFormatsTest {
+
+    @Test
+    @DisplayName("Debería elegir el formato binario solo cuando el cliente lo prefiere")
+    void preferred_ShouldHonourAcceptOrderAndQuality() {
+        assertEquals(Optional.of(MediaType.APPLICATION_CBOR), BinaryFormats.preferred("application/cbor, application/json;q=0.5"));
+        assertEquals(Optional.of(BinaryFormats.APPLICATION_SMILE), BinaryFormats.preferred("application/x-jackson-smile"));
+        assertEquals(Optional.empty(), BinaryFormats.preferred("application/json, application/cbor"));
+        assertEquals(Optional.empty(), BinaryFormats.preferred("*/*"));
+        assertEquals(Optional.empty(), BinaryFormats.preferred(null));
+    }
+
+    @Test
+    @DisplayName("Debería distinguir el ETag de cada formato sin romper If-None-Match")
+    void etagVariant_ShouldMatchBaseVersion() {
+        // Arrange
+        String etag = "\"-1a2b\"";
+
+        // Act
+        String cbor = BinaryFormats.etagVariant(etag, MediaType.APPLICATION_CBOR);
+
+        // Assert
+        assertEquals("\"-1a2b-cbor\"", cbor);
+        assertTrue(ConditionalRequests.matchesIfNoneMatch(cbor, etag));
+        assertTrue(ConditionalRequests.matchesIfNoneMatch(ConditionalRequests.gzipVariant(etag), cbor));
+        assertFalse(ConditionalRequests.matchesIfNoneMatch("\"1a2b-cbor\"", etag));
+    }
+}
@@ -0,0 +1,36 @@
+package com.davivienda.survey.presentation.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Conditional Requests Tests")
+class ConditionalRequestsTest {
+
+    @Test
+    @DisplayName("Debería aceptar cualquier versión de una lista en If-Match")
+    void ifMatchVersions_ShouldParseList() {
+        // Act & Assert
+        assertEquals(Set.of(3L), ConditionalRequests.ifMatchVersions("\"v3\""));
+        assertEquals(Set.of(2L, 3L), ConditionalRequests.ifMatchVersions("\"v2\", \"v3\""));
+        assertEquals(Set.of(3L), ConditionalRequests.ifMatchVersions("W/\"v2\", \"v3\""));
+        assertNull(ConditionalRequests.ifMatchVersions("*"));
+        assertNull(ConditionalRequests.ifMatchVersions(null));
+        assertTrue(ConditionalRequests.ifMatchVersions("\"abc\"").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 412 un If-Match que solo trae ETag débiles")
+    void ifMatchVersions_ShouldRejectWeakTags() {
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> ConditionalRequests.ifMatchVersions("W/\"v3\""));
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("Precondition failed"));
+        assertTrue(exception.getMessage().contains("débil"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.davivienda.survey.presentation.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las formas de enviar una imagen a un socket local (que otro hilo vacía):
+ * desde la caché en memoria, copiando el archivo por un flujo (lo que hace un
+ * {@code Resource} de Spring) y con {@code FileChannel.transferTo} (lo que hace el
+ * contenedor con {@link Sendfile}).
+ *
+ * <p>Ejecutar con:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.davivienda.survey.presentation.http.ImageServingBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageServingBenchmark {
+
+    @Param({"16384", "131072", "2097152"})
+    private int imageBytes;
+
+    private Path file;
+    private byte[] cached;
+    private ServerSocketChannel server;
+    private SocketChannel socket;
+    private OutputStream socketStream;
+    private Thread drain;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cached = new byte[imageBytes];
+        new Random(42).nextBytes(cached);
+        file = Files.createTempFile("image-serving", ".bin");
+        Files.write(file, cached);
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket = SocketChannel.open(server.getLocalAddress());
+        SocketChannel peer = server.accept();
+        drain = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+            try (peer) {
+                while (peer.read(buffer.clear()) >= 0) {
+                    // se descarta lo recibido
+                }
+            } catch (IOException e) {
+                // el socket se cerró al terminar
+            }
+        }, "image-serving-drain");
+        drain.setDaemon(true);
+        drain.start();
+        socketStream = Channels.newOutputStream(socket);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        socket.close();
+        server.close();
+        drain.join(1000);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long hotCache() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(cached);
+        while (buffer.hasRemaining()) {
+            socket.write(buffer);
+        }
+        return cached.length;
+    }
+
+    @Benchmark
+    public long streamCopy() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.transferTo(socketStream);
+        }
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, socket);
+            }
+            return position;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImageServingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
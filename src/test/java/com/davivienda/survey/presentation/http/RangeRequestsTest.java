@@ -0,0 +1,49 @@
+package com.davivienda.survey.presentation.http;
+
+import com.davivienda.survey.presentation.http.RangeRequests.ByteRange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Range Requests Tests")
+class RangeRequestsTest {
+
+    private static final String ETAG = "\"abc\"";
+
+    @Test
+    @DisplayName("Debería interpretar rangos cerrados, abiertos y sufijos")
+    void requested_ShouldParseSingleRanges() {
+        // Act & Assert
+        assertEquals(new ByteRange(0, 99), RangeRequests.requested("bytes=0-99", null, ETAG, 1000));
+        assertEquals(new ByteRange(900, 999), RangeRequests.requested("bytes=900-", null, ETAG, 1000));
+        assertEquals(new ByteRange(900, 999), RangeRequests.requested("bytes=-100", null, ETAG, 1000));
+        assertEquals(new ByteRange(500, 999), RangeRequests.requested("bytes=500-5000", null, ETAG, 1000));
+        assertEquals("bytes 0-99/1000", new ByteRange(0, 99).contentRange(1000));
+    }
+
+    @Test
+    @DisplayName("Debería marcar como no satisfacible un rango que empieza después del final")
+    void requested_ShouldDetectUnsatisfiableRange() {
+        // Act
+        ByteRange range = RangeRequests.requested("bytes=1000-", null, ETAG, 1000);
+
+        // Assert
+        assertFalse(range.isSatisfiable());
+        assertEquals("bytes */1000", range.contentRange(1000));
+        assertFalse(RangeRequests.requested("bytes=-0", null, ETAG, 1000).isSatisfiable());
+    }
+
+    @Test
+    @DisplayName("Debería responder completo con varios rangos, cabeceras inválidas o If-Range distinto")
+    void requested_ShouldIgnoreUnsupportedOrStaleRanges() {
+        // Act & Assert
+        assertNull(RangeRequests.requested("bytes=0-1,5-6", null, ETAG, 1000));
+        assertNull(RangeRequests.requested("items=0-1", null, ETAG, 1000));
+        assertNull(RangeRequests.requested("bytes=9-1", null, ETAG, 1000));
+        assertNull(RangeRequests.requested("bytes=a-b", null, ETAG, 1000));
+        assertNull(RangeRequests.requested("bytes=0-99", "\"otro\"", ETAG, 1000));
+        assertNull(RangeRequests.requested("bytes=0-99", "W/\"abc\"", ETAG, 1000));
+        assertEquals(new ByteRange(0, 99), RangeRequests.requested("bytes=0-99", ETAG, ETAG, 1000));
+    }
+}
@@ -0,0 +1,68 @@
+package com.davivienda.survey.presentation.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Response Compressor Tests")
+class ResponseCompressorTest {
+
+    private ResponseCompressor responseCompressor;
+
+    @BeforeEach
+    void setUp() {
+        responseCompressor = new ResponseCompressor(new SimpleMeterRegistry(), 256, 6);
+    }
+
+    @Test
+    @DisplayName("Debería comprimir respuestas grandes y no las pequeñas")
+    void gzip_ShouldRespectThreshold() throws IOException {
+        // Arrange
+        byte[] large = "{\"title\":\"Encuesta de satisfacción\"},".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] small = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        byte[] compressed = responseCompressor.gzip(large);
+
+        // Assert
+        assertNotNull(compressed);
+        assertTrue(compressed.length < large.length);
+        assertArrayEquals(large, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+        assertNull(responseCompressor.gzip(small));
+    }
+
+    @Test
+    @DisplayName("Debería respetar Accept-Encoding, incluido q=0")
+    void acceptsGzip_ShouldParseAcceptEncoding() {
+        assertTrue(responseCompressor.acceptsGzip("gzip, deflate, br"));
+        assertTrue(responseCompressor.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(responseCompressor.acceptsGzip("*"));
+        assertFalse(responseCompressor.acceptsGzip("gzip;q=0"));
+        assertTrue(responseCompressor.acceptsGzip("*;q=0, gzip"));
+        assertFalse(responseCompressor.acceptsGzip("*, gzip;q=0"));
+        assertFalse(responseCompressor.acceptsGzip("br"));
+        assertFalse(responseCompressor.acceptsGzip(null));
+    }
+
+    @Test
+    @DisplayName("Debería tratar el ETag de la variante gzip como el de la representación")
+    void gzipVariant_ShouldMatchOriginalETag() {
+        // Arrange
+        String etag = "\"abc123\"";
+        String variant = ConditionalRequests.gzipVariant(etag);
+
+        // Act & Assert
+        assertEquals("\"abc123-gzip\"", variant);
+        assertTrue(ConditionalRequests.matchesIfNoneMatch(variant, etag));
+        assertTrue(ConditionalRequests.matchesIfNoneMatch("W/" + variant, etag));
+        assertFalse(ConditionalRequests.matchesIfNoneMatch("\"other\"", etag));
+    }
+}